@@ -20,12 +20,18 @@ import com.apex.gateway.config.ApexProperties;
 })
 @EnableConfigurationProperties(ApexProperties.class)
 @EntityScan(basePackages = {
+    "com.apex.core.outbox",
+    "com.apex.core.eventstore",
     "com.apex.vendor.domain",
     "com.apex.document.domain",
     // Include read-side projection entities
-    "com.apex.document.infrastructure.projection"
+    "com.apex.document.infrastructure.projection",
+    "com.apex.document.infrastructure.statistics",
+    "com.apex.document.infrastructure.search"
 })
 @EnableJpaRepositories(basePackages = {
+    "com.apex.core.outbox",
+    "com.apex.core.eventstore",
     "com.apex.vendor.infrastructure",
     "com.apex.document.infrastructure",
     // Ensure repository interfaces located in domain packages are discovered
@@ -0,0 +1,53 @@
+package com.apex.core.api;
+
+import com.apex.core.exceptions.BusinessValidationException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Opaque cursor for keyset pagination.
+ * Carries the sort key of the last row of a page, tagged with the listing it belongs
+ * to so a cursor from one listing is rejected by another. Clients pass it back as is.
+ */
+public final class PageCursor {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final TypeReference<List<String>> VALUES = new TypeReference<>() {};
+
+    private PageCursor() {
+    }
+
+    public static String encode(String listing, List<String> key) {
+        List<String> values = new ArrayList<>(key.size() + 1);
+        values.add(listing);
+        values.addAll(key);
+        try {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(MAPPER.writeValueAsBytes(values));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to encode page cursor", e);
+        }
+    }
+
+    /**
+     * Sort key carried by the cursor, which must belong to the given listing
+     */
+    public static List<String> decode(String cursor, String listing, int keySize) {
+        List<String> values;
+        try {
+            values = MAPPER.readValue(Base64.getUrlDecoder().decode(cursor.getBytes(StandardCharsets.US_ASCII)), VALUES);
+        } catch (IllegalArgumentException | IOException e) {
+            throw new BusinessValidationException("Invalid page cursor");
+        }
+        if (values == null || values.size() != keySize + 1 || !listing.equals(values.get(0))) {
+            throw new BusinessValidationException("Invalid page cursor");
+        }
+        return values.subList(1, values.size());
+    }
+}
@@ -2,7 +2,14 @@ package com.apex.core.config;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Application properties for Apex IDP
@@ -18,12 +25,21 @@ public class ApexProperties {
     private Processing processing = new Processing();
     private Integration integration = new Integration();
     private Notification notification = new Notification();
+    private Outbox outbox = new Outbox();
+    private EventStore eventStore = new EventStore();
+    private Projection projection = new Projection();
+    private Statistics statistics = new Statistics();
+    private Search search = new Search();
+    private ValidationLock validationLock = new ValidationLock();
+    private ValidationWork validationWork = new ValidationWork();
+    private Cqrs cqrs = new Cqrs();
 
     @Data
     public static class Jwt {
         private String secret = "defaultSecretKeyThatShouldBeChangedInProduction123456789";
         private long expiration = 86400000; // 24 hours
         private long refreshExpiration = 604800000; // 7 days
+        private long claimsCacheSize = 10000; // verified tokens remembered until they expire
     }
 
     @Data
@@ -34,6 +50,17 @@ public class ApexProperties {
         private String secretKey = "minioadmin";
         private String bucketName = "apex-documents";
         private String region = "us-east-1";
+        private long uploadPartSize = 10 * 1024 * 1024; // 10 MB per multipart part (MinIO minimum is 5 MB)
+        private String publicEndpoint; // host in presigned URLs when clients cannot reach the endpoint above
+        private int presignedUrlExpirySeconds = 900;
+        private int presignedUrlRenewBeforeSeconds = 60; // cached URLs are re-signed this long before they expire
+        private long presignedUrlCacheSize = 10000;
+        private Local local = new Local();
+
+        @Data
+        public static class Local {
+            private String basePath = "./data/uploads";
+        }
     }
 
     @Data
@@ -41,8 +68,89 @@ public class ApexProperties {
         private int maxFileSize = 50; // MB
         private String[] allowedTypes = {"application/pdf", "image/jpeg", "image/png", "image/tiff"};
         private int batchSize = 10;
-        private int retryAttempts = 3;
+        private int retryAttempts = 3; // failed pipeline runs before a document ends in ERROR
         private String ocrEngine = "TESSERACT"; // TESSERACT, GOOGLE_VISION, AWS_TEXTRACT
+        private String ocrEngineVersion = "5"; // part of the OCR cache key - bump to invalidate cached results
+        private OcrEnsemble ocrEnsemble = new OcrEnsemble();
+        private OcrCache ocrCache = new OcrCache();
+        private PageOcr pageOcr = new PageOcr();
+        private TextLayer textLayer = new TextLayer();
+        private Pipeline pipeline = new Pipeline();
+        private BatchUpload batchUpload = new BatchUpload();
+        private Rendition rendition = new Rendition();
+
+        @Data
+        public static class Pipeline {
+            private Stage ocr = new Stage(4, 100);
+            private Stage classification = new Stage(2, 200);
+            private Stage extraction = new Stage(2, 200);
+            private long recoveryIntervalMs = 30000; // re-enqueue documents left behind by full queues or restarts
+            private int recoveryBatchSize = 100;
+            private int ocrLeaseSeconds = 900; // an OCR claim older than this is released for another attempt
+        }
+
+        @Data
+        public static class OcrCache {
+            private long localMaxBytes = 256L * 1024 * 1024; // approximate heap held by the in-memory tier
+            private boolean redisEnabled = false; // shared tier across instances under spring.data.redis
+            private int redisTtlHours = 168;
+        }
+
+        @Data
+        public static class OcrEnsemble {
+            private List<String> engines = new ArrayList<>(); // engine names to use, empty = all available
+            private double escalationThreshold = 0.80; // pages below this confidence go to the next engine
+            private Map<String, Integer> concurrency = new HashMap<>(); // per-engine page budget overrides
+            private FakeEngine fakeEngine = new FakeEngine();
+
+            @Data
+            public static class FakeEngine {
+                private boolean enabled = false;
+                private double confidence = 0.95;
+                private long latencyMs = 0;
+            }
+        }
+
+        @Data
+        public static class PageOcr {
+            private int workers = 0; // pages recognized in parallel across all documents, 0 = one per core
+            private int maxPagesInFlight = 8; // rendered pages waiting per document, bounds image memory
+            private int renderDpi = 300;
+        }
+
+        @Data
+        public static class TextLayer {
+            private boolean enabled = true; // use embedded text of digital PDFs/DOCX instead of OCR
+            private double minQuality = 0.9; // share of ordinary characters a page needs to skip OCR
+            private int minCharsPerPage = 20; // fewer visible characters means a scanned page
+        }
+
+        @Data
+        public static class BatchUpload {
+            private int concurrency = 8; // files stored in parallel across all running batches
+            private String spoolDirectory = System.getProperty("java.io.tmpdir") + "/apex-batch-uploads";
+            private int retentionMinutes = 60; // how long finished batch results stay pollable, and orphaned spools stay on disk
+        }
+
+        @Data
+        public static class Rendition {
+            private boolean enabled = true; // render page images for the validation viewer after upload
+            private int dpi = 100; // PDF pages; a letter page becomes about 850 x 1100 pixels
+            private int maxWidth = 1200; // wider pages and images are scaled down
+            private int thumbnailWidth = 200;
+            private float jpegQuality = 0.8f;
+            private int workers = 2;
+            private int queueCapacity = 200; // documents beyond this are rendered on first view instead
+            private long manifestCacheSize = 10000;
+        }
+
+        @Data
+        @NoArgsConstructor
+        @AllArgsConstructor
+        public static class Stage {
+            private int workers;
+            private int queueCapacity;
+        }
     }
 
     @Data
@@ -69,11 +177,98 @@ public class ApexProperties {
         }
     }
 
+    @Data
+    public static class Outbox {
+        private boolean relayEnabled = true;
+        private String topic = "apex.domain-events";
+        private int batchSize = 500; // events claimed and sent per relay transaction
+        private long lingerMs = 200; // wait between polls when the outbox has been drained
+        private long sendTimeoutMs = 10000; // unacknowledged events are retried on the next poll
+    }
+
+    @Data
+    public static class EventStore {
+        private int snapshotEvery = 50; // events replayed on load before a new snapshot is written
+    }
+
+    @Data
+    public static class Projection {
+        private boolean enabled = true;
+        private long pollIntervalMs = 500;
+        private int batchSize = 500; // events read per projector transaction
+        private long settleMs = 2000; // younger events are re-read next poll in case an older sequence commits late
+        private int rebuildPartitions = 4; // id ranges rebuilt in parallel
+        private int rebuildPageSize = 500;
+    }
+
+    @Data
+    public static class Statistics {
+        private boolean enabled = true;
+        private long pollIntervalMs = 1000;
+        private int batchSize = 1000;
+        private long settleMs = 2000; // events this recent wait for the next poll in case an older sequence commits late
+        private long persistIntervalMs = 30000;
+        private int retentionDays = 90; // daily rollups kept in memory
+    }
+
+    @Data
+    public static class Search {
+        private boolean enabled = true; // local full-text index; disabled means searches go to the database
+        private String indexPath = "./data/search-index";
+        private long pollIntervalMs = 500;
+        private int batchSize = 500; // events, or projections while building, indexed per step
+        private long refreshIntervalMs = 1000; // how soon new entries become searchable
+        private long commitIntervalMs = 30000; // how much indexing a restart may have to redo
+        private double ramBufferMb = 64;
+        private double segmentsPerTier = 10;
+        private double maxMergedSegmentMb = 5120;
+        private int maxResultWindow = 10000; // deepest result reachable by paging
+    }
+
+    @Data
+    public static class ValidationLock {
+        private boolean redisEnabled = true; // false keeps locks in this instance, only safe with a single node
+        private long leaseMs = 120000; // a lock not renewed within this time is released
+    }
+
+    @Data
+    public static class ValidationWork {
+        private int candidatePoolSize = 500; // pending documents ranked per refresh
+        private long refreshIntervalMs = 2000; // how stale the ranking may get
+        private int prefetch = 2; // documents held for a clerk beyond the one handed out
+    }
+
+    @Data
+    public static class Cqrs {
+        private int asyncWorkers = 4; // threads for dispatchAsync/dispatchAll, per dispatcher
+        private int asyncQueueCapacity = 1000; // beyond this the caller runs the handler itself
+    }
+
     @Data
     public static class Notification {
         private boolean emailEnabled = true;
         private boolean smsEnabled = false;
         private boolean pushEnabled = true;
         private int retentionDays = 30;
+        private long coalesceWindowMs = 250; // 0 sends every notification immediately
+        private int maxBatchSize = 100; // notifications per frame
+        private int maxPendingPerDestination = 1000; // beyond this the oldest are dropped
+        private int sessionSendTimeLimitMs = 10000; // a client this slow to accept a frame is disconnected
+        private int sessionSendBufferSizeKb = 512; // frames buffered for a slow client before it is disconnected
+        private int messageSizeLimitKb = 64; // largest inbound STOMP message
+        private String brokerMode = "SIMPLE"; // SIMPLE (this node only), RELAY (external STOMP broker), KAFKA
+        private String kafkaTopic = "apex.notifications";
+        private Relay relay = new Relay();
+
+        @Data
+        public static class Relay {
+            private String host = "localhost";
+            private int port = 61613;
+            private String virtualHost;
+            private String clientLogin = "guest";
+            private String clientPasscode = "guest";
+            private String systemLogin = "guest";
+            private String systemPasscode = "guest";
+        }
     }
 }
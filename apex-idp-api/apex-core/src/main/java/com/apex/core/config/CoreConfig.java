@@ -3,6 +3,7 @@ package com.apex.core.config;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Core configuration for the Apex platform
@@ -10,6 +11,7 @@ import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
 @Configuration
 @ComponentScan(basePackages = "com.apex.core")
 @EnableJpaAuditing
+@EnableScheduling
 public class CoreConfig {
     
 }
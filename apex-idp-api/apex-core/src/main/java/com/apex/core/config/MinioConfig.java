@@ -23,6 +23,7 @@ public class MinioConfig {
         return MinioClient.builder()
                 .endpoint(storage.getEndpoint())
                 .credentials(storage.getAccessKey(), storage.getSecretKey())
+                .region(storage.getRegion())
                 .build();
     }
 }
@@ -1,61 +1,119 @@
 package com.apex.core.cqrs;
 
-import lombok.RequiredArgsConstructor;
+import com.apex.core.config.ApexProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
 import org.springframework.context.ApplicationContext;
 import org.springframework.stereotype.Service;
 
-import java.lang.reflect.ParameterizedType;
-import java.lang.reflect.Type;
-import java.util.HashMap;
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Command dispatcher for CQRS architecture
  * Routes commands to appropriate handlers
+ * The command type to handler index is built once when the context has created its
+ * singletons and never changes afterwards, so dispatching is a single map lookup that
+ * is safe from any thread. Every command type has its own execution timer.
  */
 @Service
-@RequiredArgsConstructor
 @Slf4j
-public class CommandDispatcher {
+public class CommandDispatcher implements SmartInitializingSingleton {
 
     private final ApplicationContext applicationContext;
-    private final Map<Class<? extends Command>, CommandHandler<? extends Command>> handlers = new HashMap<>();
+    private final MeterRegistry meterRegistry;
+    private final ExecutorService executor;
 
+    private volatile Map<Class<?>, Route> routes;
+
+    private record Route(CommandHandler<Command> handler, Timer succeeded, Timer failed) {}
+
+    public CommandDispatcher(ApplicationContext applicationContext,
+                             MeterRegistry meterRegistry,
+                             ApexProperties apexProperties) {
+        this.applicationContext = applicationContext;
+        this.meterRegistry = meterRegistry;
+        ApexProperties.Cqrs config = apexProperties.getCqrs();
+        this.executor = HandlerIndex.executor("command-dispatch-", config.getAsyncWorkers(), config.getAsyncQueueCapacity());
+    }
+
+    @Override
     @SuppressWarnings("unchecked")
+    public void afterSingletonsInstantiated() {
+        routes = HandlerIndex.build(applicationContext, CommandHandler.class, (type, handler) -> new Route(
+            (CommandHandler<Command>) handler, timer(type, "success"), timer(type, "failure")));
+        log.info("Indexed {} command handlers", routes.size());
+    }
+
     public <T extends Command> void dispatch(T command) {
-        CommandHandler<T> handler = (CommandHandler<T>) getHandler(command.getClass());
-        if (handler != null) {
-            log.debug("Dispatching command: {} to handler: {}", command.getClass().getSimpleName(), handler.getClass().getSimpleName());
-            handler.handle(command);
-        } else {
+        execute(route(command), command);
+    }
+
+    /**
+     * Dispatch on the dispatcher's pool; an unknown command type fails here, not in the future.
+     */
+    public <T extends Command> CompletableFuture<Void> dispatchAsync(T command) {
+        Route route = route(command);
+        return CompletableFuture.runAsync(() -> execute(route, command), executor);
+    }
+
+    /**
+     * Dispatch a batch concurrently; completes when all commands have been handled,
+     * exceptionally if any of them failed.
+     */
+    public CompletableFuture<Void> dispatchAll(Collection<? extends Command> commands) {
+        List<Route> batch = commands.stream().map(this::route).toList();
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[batch.size()];
+        int i = 0;
+        for (Command command : commands) {
+            Route route = batch.get(i);
+            futures[i++] = CompletableFuture.runAsync(() -> execute(route, command), executor);
+        }
+        return CompletableFuture.allOf(futures);
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(30, TimeUnit.SECONDS);
+    }
+
+    private Route route(Command command) {
+        Map<Class<?>, Route> index = routes;
+        if (index == null) {
+            throw new IllegalStateException("Command handlers are not indexed until the application context has started");
+        }
+        Route route = index.get(command.getClass());
+        if (route == null) {
             throw new IllegalArgumentException("No handler found for command: " + command.getClass().getSimpleName());
         }
+        return route;
     }
 
-    @SuppressWarnings("unchecked")
-    private <T extends Command> CommandHandler<T> getHandler(Class<T> commandClass) {
-        return (CommandHandler<T>) handlers.computeIfAbsent(commandClass, this::findHandler);
-    }
-
-    @SuppressWarnings({"unchecked", "rawtypes"})
-    private <T extends Command> CommandHandler<T> findHandler(Class<T> commandClass) {
-        Map<String, CommandHandler> allHandlers = applicationContext.getBeansOfType(CommandHandler.class);
-        
-        for (CommandHandler handler : allHandlers.values()) {
-            Type[] genericInterfaces = handler.getClass().getGenericInterfaces();
-            for (Type genericInterface : genericInterfaces) {
-                if (genericInterface instanceof ParameterizedType) {
-                    ParameterizedType parameterizedType = (ParameterizedType) genericInterface;
-                    if (parameterizedType.getRawType().equals(CommandHandler.class)) {
-                        Type[] typeArguments = parameterizedType.getActualTypeArguments();
-                        if (typeArguments.length > 0 && typeArguments[0].equals(commandClass)) {
-                            return handler;
-                        }
-                    }
-                }
-            }
+    private void execute(Route route, Command command) {
+        log.debug("Dispatching command: {} to handler: {}", command.getClass().getSimpleName(), route.handler().getClass().getSimpleName());
+        long started = System.nanoTime();
+        try {
+            route.handler().handle(command);
+            route.succeeded().record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        } catch (RuntimeException e) {
+            route.failed().record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            throw e;
         }
-        return null;
+    }
+
+    private Timer timer(Class<?> commandType, String outcome) {
+        return Timer.builder("apex.cqrs.command")
+            .tag("command", commandType.getSimpleName())
+            .tag("outcome", outcome)
+            .description("Time to handle a command")
+            .register(meterRegistry);
     }
 }
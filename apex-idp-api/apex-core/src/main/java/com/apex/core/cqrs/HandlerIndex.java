@@ -0,0 +1,65 @@
+package com.apex.core.cqrs;
+
+import org.springframework.aop.support.AopUtils;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.ResolvableType;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.concurrent.DelegatingSecurityContextExecutorService;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+
+/**
+ * Shared plumbing of the command and query dispatchers
+ */
+final class HandlerIndex {
+
+    private HandlerIndex() {
+    }
+
+    /**
+     * Map each message type to the single handler bean declared for it.
+     * The type is read from the handler's generic interface on the target class,
+     * so AOP proxies (transactions, security) and handler base classes both resolve.
+     *
+     * @throws IllegalStateException if a handler's message type cannot be resolved
+     *                               or two handlers claim the same type
+     */
+    static <V> Map<Class<?>, V> build(ApplicationContext applicationContext, Class<?> handlerType,
+                                      BiFunction<Class<?>, Object, V> route) {
+        Map<Class<?>, V> index = new HashMap<>();
+        Map<Class<?>, String> owners = new HashMap<>();
+        applicationContext.getBeansOfType(handlerType).forEach((name, bean) -> {
+            Class<?> messageType = ResolvableType.forClass(AopUtils.getTargetClass(bean))
+                .as(handlerType).getGeneric(0).resolve();
+            if (messageType == null) {
+                throw new IllegalStateException(
+                    "Cannot determine the type handled by " + handlerType.getSimpleName() + " bean '" + name + "'");
+            }
+            String existing = owners.putIfAbsent(messageType, name);
+            if (existing != null) {
+                throw new IllegalStateException("Both '" + existing + "' and '" + name + "' handle "
+                    + messageType.getSimpleName());
+            }
+            index.put(messageType, route.apply(messageType, bean));
+        });
+        return Map.copyOf(index);
+    }
+
+    /**
+     * Bounded pool for asynchronous dispatch. Work runs with the submitter's security
+     * context, and a full queue makes the submitter run the work itself.
+     */
+    static ExecutorService executor(String threadNamePrefix, int workers, int queueCapacity) {
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(workers, workers, 60, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory(threadNamePrefix),
+            new ThreadPoolExecutor.CallerRunsPolicy());
+        pool.allowCoreThreadTimeOut(true);
+        return new DelegatingSecurityContextExecutorService(pool);
+    }
+}
@@ -1,61 +1,121 @@
 package com.apex.core.cqrs;
 
-import lombok.RequiredArgsConstructor;
+import com.apex.core.config.ApexProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
 import org.springframework.context.ApplicationContext;
 import org.springframework.stereotype.Service;
 
-import java.lang.reflect.ParameterizedType;
-import java.lang.reflect.Type;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Query dispatcher for CQRS architecture
  * Routes queries to appropriate handlers
+ * Like the CommandDispatcher, the query type to handler index is built once at startup
+ * and is read-only afterwards; every query type has its own execution timer.
  */
 @Service
-@RequiredArgsConstructor
 @Slf4j
-public class QueryDispatcher {
+public class QueryDispatcher implements SmartInitializingSingleton {
 
     private final ApplicationContext applicationContext;
-    private final Map<Class<? extends Query>, QueryHandler<? extends Query, ?>> handlers = new HashMap<>();
+    private final MeterRegistry meterRegistry;
+    private final ExecutorService executor;
 
+    private volatile Map<Class<?>, Route> routes;
+
+    private record Route(QueryHandler<Query, Object> handler, Timer succeeded, Timer failed) {}
+
+    public QueryDispatcher(ApplicationContext applicationContext,
+                           MeterRegistry meterRegistry,
+                           ApexProperties apexProperties) {
+        this.applicationContext = applicationContext;
+        this.meterRegistry = meterRegistry;
+        ApexProperties.Cqrs config = apexProperties.getCqrs();
+        this.executor = HandlerIndex.executor("query-dispatch-", config.getAsyncWorkers(), config.getAsyncQueueCapacity());
+    }
+
+    @Override
     @SuppressWarnings("unchecked")
+    public void afterSingletonsInstantiated() {
+        routes = HandlerIndex.build(applicationContext, QueryHandler.class, (type, handler) -> new Route(
+            (QueryHandler<Query, Object>) handler, timer(type, "success"), timer(type, "failure")));
+        log.info("Indexed {} query handlers", routes.size());
+    }
+
     public <T extends Query, R> R dispatch(T query) {
-        QueryHandler<T, R> handler = (QueryHandler<T, R>) getHandler(query.getClass());
-        if (handler != null) {
-            log.debug("Dispatching query: {} to handler: {}", query.getClass().getSimpleName(), handler.getClass().getSimpleName());
-            return handler.handle(query);
-        } else {
+        return execute(route(query), query);
+    }
+
+    /**
+     * Run the query on the dispatcher's pool; an unknown query type fails here, not in the future.
+     */
+    public <T extends Query, R> CompletableFuture<R> dispatchAsync(T query) {
+        Route route = route(query);
+        return CompletableFuture.supplyAsync(() -> execute(route, query), executor);
+    }
+
+    /**
+     * Run a batch of queries concurrently; the results are in the order of the queries.
+     */
+    public <R> CompletableFuture<List<R>> dispatchAll(Collection<? extends Query> queries) {
+        List<Route> batch = queries.stream().map(this::route).toList();
+        List<CompletableFuture<R>> futures = new ArrayList<>(batch.size());
+        int i = 0;
+        for (Query query : queries) {
+            Route route = batch.get(i++);
+            futures.add(CompletableFuture.supplyAsync(() -> execute(route, query), executor));
+        }
+        return CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new))
+            .thenApply(done -> futures.stream().map(CompletableFuture::join).toList());
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(30, TimeUnit.SECONDS);
+    }
+
+    private Route route(Query query) {
+        Map<Class<?>, Route> index = routes;
+        if (index == null) {
+            throw new IllegalStateException("Query handlers are not indexed until the application context has started");
+        }
+        Route route = index.get(query.getClass());
+        if (route == null) {
             throw new IllegalArgumentException("No handler found for query: " + query.getClass().getSimpleName());
         }
+        return route;
     }
 
     @SuppressWarnings("unchecked")
-    private <T extends Query> QueryHandler<T, ?> getHandler(Class<T> queryClass) {
-        return (QueryHandler<T, ?>) handlers.computeIfAbsent(queryClass, this::findHandler);
-    }
-
-    @SuppressWarnings({"unchecked", "rawtypes"})
-    private <T extends Query> QueryHandler<T, ?> findHandler(Class<T> queryClass) {
-        Map<String, QueryHandler> allHandlers = applicationContext.getBeansOfType(QueryHandler.class);
-        
-        for (QueryHandler handler : allHandlers.values()) {
-            Type[] genericInterfaces = handler.getClass().getGenericInterfaces();
-            for (Type genericInterface : genericInterfaces) {
-                if (genericInterface instanceof ParameterizedType) {
-                    ParameterizedType parameterizedType = (ParameterizedType) genericInterface;
-                    if (parameterizedType.getRawType().equals(QueryHandler.class)) {
-                        Type[] typeArguments = parameterizedType.getActualTypeArguments();
-                        if (typeArguments.length > 0 && typeArguments[0].equals(queryClass)) {
-                            return handler;
-                        }
-                    }
-                }
-            }
+    private <R> R execute(Route route, Query query) {
+        log.debug("Dispatching query: {} to handler: {}", query.getClass().getSimpleName(), route.handler().getClass().getSimpleName());
+        long started = System.nanoTime();
+        try {
+            R result = (R) route.handler().handle(query);
+            route.succeeded().record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            return result;
+        } catch (RuntimeException e) {
+            route.failed().record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            throw e;
         }
-        return null;
+    }
+
+    private Timer timer(Class<?> queryType, String outcome) {
+        return Timer.builder("apex.cqrs.query")
+            .tag("query", queryType.getSimpleName())
+            .tag("outcome", outcome)
+            .description("Time to handle a query")
+            .register(meterRegistry);
     }
 }
@@ -2,11 +2,13 @@ package com.apex.core.domain;
 
 import com.apex.core.events.DomainEvent;
 import com.apex.core.security.SecurityContextHolder;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.AbstractAggregateRoot;
+import org.springframework.data.domain.AfterDomainEventPublication;
 import org.springframework.data.domain.DomainEvents;
 
 import java.time.Instant;
@@ -47,6 +49,7 @@ public abstract class AggregateRoot<T extends AggregateRoot<T>>
     private String modifiedBy;
     
     @Transient
+    @JsonIgnore
     private final List<DomainEvent> domainEventsList = new ArrayList<>();
     
     protected AggregateRoot() {
@@ -59,6 +62,9 @@ public abstract class AggregateRoot<T extends AggregateRoot<T>>
      * This ensures our event store maintains a complete history of all changes.
      */
     protected void registerEvent(DomainEvent event) {
+        if (event.getAggregateType() == null) {
+            event.setAggregateType(getClass().getSimpleName());
+        }
         domainEventsList.add(event);
         // This will be published via Spring's @DomainEvents mechanism
         registerEvent((Object) event);
@@ -75,6 +81,17 @@ public abstract class AggregateRoot<T extends AggregateRoot<T>>
         return new ArrayList<>(domainEventsList);
     }
     
+    /**
+     * Events are published once per save; without clearing, every later save
+     * of the same instance would publish them again.
+     */
+    @Override
+    @AfterDomainEventPublication
+    protected void clearDomainEvents() {
+        super.clearDomainEvents();
+        domainEventsList.clear();
+    }
+    
     @PrePersist
     protected void onCreate() {
         this.createdAt = Instant.now();
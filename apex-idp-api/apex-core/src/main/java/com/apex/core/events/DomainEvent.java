@@ -1,6 +1,7 @@
 package com.apex.core.events;
 
 import lombok.Getter;
+import lombok.Setter;
 import java.time.Instant;
 import java.util.UUID;
 
@@ -17,6 +18,10 @@ public abstract class DomainEvent {
     private final Long aggregateVersion;
     private final String userId;
     
+    // Set by the aggregate that registers the event; used to route and store it
+    @Setter
+    private String aggregateType;
+    
     protected DomainEvent(UUID aggregateId, Long aggregateVersion, String userId) {
         this.eventId = UUID.randomUUID();
         this.occurredOn = Instant.now();
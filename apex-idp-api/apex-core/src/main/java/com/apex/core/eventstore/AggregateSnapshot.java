@@ -0,0 +1,55 @@
+package com.apex.core.eventstore;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.Instant;
+
+/**
+ * Serialized aggregate state as of a position in audit.domain_events.
+ * One row per aggregate; each new snapshot replaces the previous one.
+ */
+@Entity
+@Table(name = "aggregate_snapshots", schema = "audit")
+@Getter
+@NoArgsConstructor
+public class AggregateSnapshot {
+
+    @Id
+    @Column(name = "aggregate_id")
+    private String aggregateId;
+
+    @Column(name = "aggregate_type", nullable = false)
+    private String aggregateType;
+
+    // Sequence number of the last event folded into the state
+    @Column(name = "sequence_number", nullable = false)
+    private Long sequenceNumber;
+
+    // Layout of the serialized state; snapshots with another version are ignored
+    @Column(name = "snapshot_version", nullable = false)
+    private Integer snapshotVersion;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "state", nullable = false)
+    private String state;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    public AggregateSnapshot(String aggregateId, String aggregateType, long sequenceNumber,
+                             int snapshotVersion, String state) {
+        this.aggregateId = aggregateId;
+        this.aggregateType = aggregateType;
+        this.sequenceNumber = sequenceNumber;
+        this.snapshotVersion = snapshotVersion;
+        this.state = state;
+        this.createdAt = Instant.now();
+    }
+}
@@ -0,0 +1,119 @@
+package com.apex.core.eventstore;
+
+import com.apex.core.events.DomainEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.type.filter.AssignableTypeFilter;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.RecordComponent;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Turns stored event rows back into DomainEvent instances.
+ * Event classes are found on the classpath and matched by their simple name, which is
+ * what DomainEvent stores as the event type. Two constructor shapes are supported:
+ * <ul>
+ *   <li>{@code (UUID aggregateId, Long version, <components of the nested XxxEventData record>)}</li>
+ *   <li>{@code (UUID aggregateId, Long version, String userId)} for events without a data record</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+public class DomainEventRegistry {
+
+    private static final String BASE_PACKAGE = "com.apex";
+
+    private final ObjectMapper objectMapper;
+    private final Map<String, EventReader> readers = new HashMap<>();
+
+    public DomainEventRegistry(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false);
+        scanner.addIncludeFilter(new AssignableTypeFilter(DomainEvent.class));
+        for (BeanDefinition candidate : scanner.findCandidateComponents(BASE_PACKAGE)) {
+            Class<?> type = ClassUtils.resolveClassName(candidate.getBeanClassName(), getClass().getClassLoader());
+            readerFor(type).ifPresentOrElse(
+                reader -> readers.put(type.getSimpleName(), reader),
+                () -> log.debug("Event {} has no replayable constructor", type.getName()));
+        }
+        log.info("Registered {} replayable domain event types", readers.size());
+    }
+
+    /**
+     * Rebuild a stored event, or empty if its type is not known to this application
+     */
+    public Optional<DomainEvent> read(String eventType, UUID aggregateId, String eventData, String createdBy) {
+        EventReader reader = readers.get(eventType);
+        if (reader == null) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(reader.read(aggregateId, eventData, createdBy));
+        } catch (Exception e) {
+            throw new IllegalStateException("Cannot read stored " + eventType + " for " + aggregateId, e);
+        }
+    }
+
+    private Optional<EventReader> readerFor(Class<?> type) {
+        Optional<Class<?>> dataType = Arrays.stream(type.getDeclaredClasses())
+            .filter(Class::isRecord)
+            .filter(nested -> nested.getSimpleName().equals(type.getSimpleName() + "Data"))
+            .findFirst();
+        if (dataType.isPresent()) {
+            RecordComponent[] components = dataType.get().getRecordComponents();
+            Class<?>[] parameters = new Class<?>[components.length + 2];
+            parameters[0] = UUID.class;
+            parameters[1] = Long.class;
+            for (int i = 0; i < components.length; i++) {
+                parameters[i + 2] = components[i].getType();
+            }
+            return constructor(type, parameters)
+                .map(constructor -> new EventReader(constructor, dataType.get(), components));
+        }
+        return constructor(type, UUID.class, Long.class, String.class)
+            .map(constructor -> new EventReader(constructor, null, null));
+    }
+
+    private static Optional<Constructor<?>> constructor(Class<?> type, Class<?>... parameters) {
+        try {
+            return Optional.of(type.getConstructor(parameters));
+        } catch (NoSuchMethodException e) {
+            return Optional.empty();
+        }
+    }
+
+    private class EventReader {
+        private final Constructor<?> constructor;
+        private final Class<?> dataType;
+        private final RecordComponent[] components;
+
+        EventReader(Constructor<?> constructor, Class<?> dataType, RecordComponent[] components) {
+            this.constructor = constructor;
+            this.dataType = dataType;
+            this.components = components;
+        }
+
+        DomainEvent read(UUID aggregateId, String eventData, String createdBy) throws Exception {
+            // The aggregate version is not part of the stored event
+            if (dataType == null) {
+                return (DomainEvent) constructor.newInstance(aggregateId, null, createdBy);
+            }
+            Object data = objectMapper.readValue(eventData, dataType);
+            Object[] arguments = new Object[components.length + 2];
+            arguments[0] = aggregateId;
+            for (int i = 0; i < components.length; i++) {
+                arguments[i + 2] = components[i].getAccessor().invoke(data);
+            }
+            return (DomainEvent) constructor.newInstance(arguments);
+        }
+    }
+}
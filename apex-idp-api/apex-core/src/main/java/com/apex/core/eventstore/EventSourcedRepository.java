@@ -0,0 +1,39 @@
+package com.apex.core.eventstore;
+
+import com.apex.core.domain.AggregateRoot;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Base class for repositories that rebuild an aggregate from its event history
+ * rather than from its table. Subclasses name the aggregate and how to create an
+ * empty instance; replay and snapshots are handled by the EventStore.
+ */
+public abstract class EventSourcedRepository<T extends AggregateRoot<T>> {
+
+    private final EventStore eventStore;
+    private final Class<T> aggregateClass;
+    private final Supplier<T> factory;
+
+    protected EventSourcedRepository(EventStore eventStore, Class<T> aggregateClass, Supplier<T> factory) {
+        this.eventStore = eventStore;
+        this.aggregateClass = aggregateClass;
+        this.factory = factory;
+    }
+
+    /**
+     * Rebuild the aggregate as of its latest recorded event
+     */
+    public Optional<T> load(UUID id) {
+        return eventStore.load(aggregateClass, factory, snapshotVersion(), id);
+    }
+
+    /**
+     * Bump when the aggregate's fields change shape so older snapshots are replayed instead of restored
+     */
+    protected int snapshotVersion() {
+        return 1;
+    }
+}
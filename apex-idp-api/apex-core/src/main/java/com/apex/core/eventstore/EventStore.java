@@ -0,0 +1,147 @@
+package com.apex.core.eventstore;
+
+import com.apex.core.config.ApexProperties;
+import com.apex.core.domain.AggregateRoot;
+import com.apex.core.events.DomainEvent;
+import com.apex.core.outbox.OutboxEvent;
+import com.apex.core.outbox.OutboxEventRepository;
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Rebuilds aggregates from audit.domain_events.
+ * Loading starts from the aggregate's latest snapshot, if any, and replays only the
+ * events recorded after it. Whenever the replayed tail reaches the configured length
+ * a new snapshot is written, so the tail stays short however long the history grows.
+ * Writes to one aggregate are serialized by its optimistic lock, so its events are
+ * committed in sequence order and a snapshot never skips over a late commit.
+ */
+@Slf4j
+@Component
+public class EventStore {
+
+    private final OutboxEventRepository eventRepository;
+    private final AggregateSnapshotRepository snapshotRepository;
+    private final DomainEventRegistry eventRegistry;
+    private final ApexProperties.EventStore config;
+    private final ObjectMapper snapshotMapper;
+    private final MeterRegistry meterRegistry;
+    private final DistributionSummary replayed;
+
+    public EventStore(OutboxEventRepository eventRepository,
+                      AggregateSnapshotRepository snapshotRepository,
+                      DomainEventRegistry eventRegistry,
+                      ApexProperties apexProperties,
+                      ObjectMapper objectMapper,
+                      MeterRegistry meterRegistry) {
+        this.eventRepository = eventRepository;
+        this.snapshotRepository = snapshotRepository;
+        this.eventRegistry = eventRegistry;
+        this.config = apexProperties.getEventStore();
+        // Snapshots capture fields rather than getters, so they restore exactly what replay produced
+        this.snapshotMapper = objectMapper.copy()
+            .setVisibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.NONE)
+            .setVisibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY)
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        this.meterRegistry = meterRegistry;
+        this.replayed = DistributionSummary.builder("apex.eventstore.replayed.events")
+            .description("Events replayed per aggregate load, after the snapshot")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Load an aggregate, or empty if no events have been recorded for it
+     */
+    public <T extends AggregateRoot<T>> Optional<T> load(Class<T> aggregateClass, Supplier<T> factory,
+                                                          int snapshotVersion, UUID id) {
+        long started = System.nanoTime();
+        String aggregateId = id.toString();
+        String aggregateType = aggregateClass.getSimpleName();
+
+        T aggregate = null;
+        long position = 0;
+        Optional<AggregateSnapshot> snapshot = snapshotRepository.findById(aggregateId)
+            .filter(s -> s.getAggregateType().equals(aggregateType) && s.getSnapshotVersion() == snapshotVersion);
+        if (snapshot.isPresent()) {
+            aggregate = restore(snapshot.get(), factory);
+            if (aggregate != null) {
+                position = snapshot.get().getSequenceNumber();
+            }
+        }
+
+        List<OutboxEvent> tail = eventRepository.findHistory(aggregateId, aggregateType, position);
+        if (aggregate == null && tail.isEmpty()) {
+            return Optional.empty();
+        }
+        if (aggregate == null) {
+            aggregate = factory.get();
+            aggregate.setId(id);
+            aggregate.setCreatedAt(tail.get(0).getOccurredAt());
+            aggregate.setCreatedBy(tail.get(0).getCreatedBy());
+        }
+
+        for (OutboxEvent stored : tail) {
+            Optional<DomainEvent> event = eventRegistry.read(
+                stored.getEventType(), id, stored.getEventData(), stored.getCreatedBy());
+            if (event.isPresent()) {
+                aggregate.apply(event.get());
+            } else {
+                log.debug("Skipping unknown event type {} for {} {}", stored.getEventType(), aggregateType, id);
+            }
+            aggregate.setModifiedAt(stored.getOccurredAt());
+            aggregate.setModifiedBy(stored.getCreatedBy());
+            position = stored.getSequenceNumber();
+        }
+
+        if (tail.size() >= config.getSnapshotEvery()) {
+            saveSnapshot(aggregate, aggregateId, aggregateType, position, snapshotVersion);
+        }
+
+        replayed.record(tail.size());
+        Timer.builder("apex.eventstore.load")
+            .tag("aggregate", aggregateType)
+            .tag("snapshot", snapshot.isPresent() ? "hit" : "miss")
+            .description("Time to rebuild an aggregate from its snapshot and event tail")
+            .register(meterRegistry)
+            .record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        return Optional.of(aggregate);
+    }
+
+    private <T extends AggregateRoot<T>> T restore(AggregateSnapshot snapshot, Supplier<T> factory) {
+        try {
+            return snapshotMapper.readerForUpdating(factory.get()).readValue(snapshot.getState());
+        } catch (Exception e) {
+            // Fall back to a full replay; the next load writes a fresh snapshot
+            log.warn("Ignoring unreadable snapshot of {} {}: {}",
+                snapshot.getAggregateType(), snapshot.getAggregateId(), e.getMessage());
+            return null;
+        }
+    }
+
+    private void saveSnapshot(AggregateRoot<?> aggregate, String aggregateId, String aggregateType,
+                              long position, int snapshotVersion) {
+        try {
+            String state = snapshotMapper.writeValueAsString(aggregate);
+            snapshotRepository.save(new AggregateSnapshot(aggregateId, aggregateType, position, snapshotVersion, state));
+            log.debug("Snapshot of {} {} at sequence {}", aggregateType, aggregateId, position);
+        } catch (DataAccessException | JsonProcessingException e) {
+            // Snapshots are an optimization only; a concurrent load may have written one already
+            log.debug("Could not snapshot {} {}: {}", aggregateType, aggregateId, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.apex.core.exceptions;
+
+/**
+ * Exception thrown when a request conflicts with the current state of a resource
+ */
+public class ResourceConflictException extends DomainException {
+    
+    public ResourceConflictException(String message) {
+        super(message);
+    }
+    
+    @Override
+    public String getErrorCode() {
+        return "RESOURCE_CONFLICT";
+    }
+}
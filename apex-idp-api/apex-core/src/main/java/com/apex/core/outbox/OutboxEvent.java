@@ -0,0 +1,93 @@
+package com.apex.core.outbox;
+
+import com.apex.core.events.DomainEvent;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+import org.springframework.data.domain.Persistable;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A domain event stored in audit.domain_events.
+ * Rows are written in the same transaction as the aggregate change and double as
+ * the outbox: published_at stays null until the relay has handed the event to Kafka.
+ */
+@Entity
+@Table(name = "domain_events", schema = "audit")
+@Getter
+@NoArgsConstructor
+public class OutboxEvent implements Persistable<UUID> {
+
+    private static final int EVENT_VERSION = 1;
+
+    @Id
+    private UUID id;
+
+    @Column(name = "aggregate_id", nullable = false)
+    private String aggregateId;
+
+    @Column(name = "aggregate_type", nullable = false)
+    private String aggregateType;
+
+    @Column(name = "event_type", nullable = false)
+    private String eventType;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "event_data", nullable = false)
+    private String eventData;
+
+    @Column(name = "event_version", nullable = false)
+    private Integer eventVersion;
+
+    @Column(name = "occurred_at")
+    private Instant occurredAt;
+
+    @Column(name = "created_by")
+    private String createdBy;
+
+    // Assigned by the database; orders the log
+    @Column(name = "sequence_number", insertable = false, updatable = false,
+            columnDefinition = "BIGINT GENERATED BY DEFAULT AS IDENTITY")
+    private Long sequenceNumber;
+
+    @Column(name = "published_at")
+    private Instant publishedAt;
+
+    // Ids are assigned from the event, so tell Spring Data to persist instead of merge
+    @Transient
+    private boolean isNew = true;
+
+    public static OutboxEvent from(DomainEvent event, String eventData) {
+        OutboxEvent outboxEvent = new OutboxEvent();
+        outboxEvent.id = event.getEventId();
+        outboxEvent.aggregateId = String.valueOf(event.getAggregateId());
+        outboxEvent.aggregateType = event.getAggregateType() != null ? event.getAggregateType() : "Unknown";
+        outboxEvent.eventType = event.getEventType();
+        outboxEvent.eventData = eventData;
+        outboxEvent.eventVersion = EVENT_VERSION;
+        outboxEvent.occurredAt = event.getOccurredOn();
+        outboxEvent.createdBy = event.getUserId();
+        return outboxEvent;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
+}
@@ -0,0 +1,65 @@
+package com.apex.core.outbox;
+
+import com.apex.core.events.DomainEvent;
+import com.apex.core.events.EventPublisher;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Event publisher backed by the transactional outbox.
+ * Aggregate events reach this class synchronously through Spring Data's
+ * {@code @DomainEvents} publication, so the outbox row is written in the same
+ * transaction as the aggregate change - either both commit or neither does.
+ * OutboxRelay then forwards committed rows to Kafka.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OutboxEventPublisher implements EventPublisher {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Store every publishable domain event published in-process, including aggregate events
+     */
+    @EventListener
+    @Transactional
+    public void onDomainEvent(DomainEvent event) {
+        if (event.isPublishable()) {
+            publishExternal(event);
+        }
+    }
+
+    @Override
+    public void publishLocal(DomainEvent event) {
+        applicationEventPublisher.publishEvent(event);
+    }
+
+    @Override
+    @Transactional
+    public void publishExternal(DomainEvent event) {
+        String eventData;
+        try {
+            eventData = objectMapper.writeValueAsString(event.getEventData());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize " + event.getEventType(), e);
+        }
+        outboxEventRepository.save(OutboxEvent.from(event, eventData));
+    }
+
+    /**
+     * Local publication already stores the event in the outbox, so it is not written twice
+     */
+    @Override
+    public void publish(DomainEvent event) {
+        publishLocal(event);
+    }
+}
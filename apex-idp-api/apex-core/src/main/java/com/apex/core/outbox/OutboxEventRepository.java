@@ -0,0 +1,54 @@
+package com.apex.core.outbox;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Repository for the domain event log / outbox
+ */
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, UUID> {
+
+    /**
+     * Claim the oldest unpublished events. Rows locked by another relay are skipped,
+     * so several nodes drain the outbox in parallel without waiting on each other.
+     */
+    @Query(value = "SELECT * FROM audit.domain_events WHERE published_at IS NULL " +
+                   "ORDER BY sequence_number LIMIT :limit FOR UPDATE SKIP LOCKED",
+           nativeQuery = true)
+    List<OutboxEvent> lockUnpublished(@Param("limit") int limit);
+
+    /**
+     * Events of one aggregate after the given position, in log order
+     */
+    @Query("SELECT e FROM OutboxEvent e WHERE e.aggregateId = :aggregateId AND e.aggregateType = :aggregateType " +
+           "AND e.sequenceNumber > :after ORDER BY e.sequenceNumber")
+    List<OutboxEvent> findHistory(@Param("aggregateId") String aggregateId,
+                                  @Param("aggregateType") String aggregateType,
+                                  @Param("after") long after);
+
+    /**
+     * Events of one aggregate type after the given position, in log order
+     */
+    @Query("SELECT e FROM OutboxEvent e WHERE e.aggregateType = :aggregateType AND e.sequenceNumber > :after " +
+           "ORDER BY e.sequenceNumber")
+    List<OutboxEvent> findAfter(@Param("aggregateType") String aggregateType,
+                                @Param("after") long after,
+                                Pageable pageable);
+
+    @Query("SELECT MAX(e.sequenceNumber) FROM OutboxEvent e WHERE e.aggregateType = :aggregateType")
+    Long findLastSequenceNumber(@Param("aggregateType") String aggregateType);
+
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.publishedAt = :publishedAt WHERE e.id IN :ids")
+    int markPublished(@Param("ids") Collection<UUID> ids, @Param("publishedAt") Instant publishedAt);
+}
@@ -0,0 +1,34 @@
+package com.apex.core.outbox;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Envelope sent to Kafka for each outbox event; data is the stored JSON payload as-is
+ */
+public record OutboxMessage(
+    UUID eventId,
+    String eventType,
+    String aggregateType,
+    String aggregateId,
+    long sequenceNumber,
+    Instant occurredAt,
+    String createdBy,
+    @JsonRawValue String data
+) {
+
+    static OutboxMessage of(OutboxEvent event) {
+        return new OutboxMessage(
+            event.getId(),
+            event.getEventType(),
+            event.getAggregateType(),
+            event.getAggregateId(),
+            event.getSequenceNumber(),
+            event.getOccurredAt(),
+            event.getCreatedBy(),
+            event.getEventData()
+        );
+    }
+}
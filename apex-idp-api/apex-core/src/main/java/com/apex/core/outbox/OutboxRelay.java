@@ -0,0 +1,110 @@
+package com.apex.core.outbox;
+
+import com.apex.core.config.ApexProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Drains the outbox to Kafka in batches.
+ * Each batch is claimed with FOR UPDATE SKIP LOCKED in the relay's own short
+ * transaction, sent without waiting per record, and marked published once Kafka
+ * acknowledges it. Full batches are followed immediately by the next one;
+ * otherwise the relay lingers before polling again. Delivery is at-least-once:
+ * consumers de-duplicate on eventId and order by sequenceNumber per aggregate.
+ */
+@Slf4j
+@Component
+public class OutboxRelay {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final ApexProperties.Outbox config;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter published;
+    private final Timer lag;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       KafkaTemplate<String, Object> kafkaTemplate,
+                       ApexProperties apexProperties,
+                       PlatformTransactionManager transactionManager,
+                       MeterRegistry meterRegistry) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.kafkaTemplate = kafkaTemplate;
+        this.config = apexProperties.getOutbox();
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.published = Counter.builder("apex.outbox.published")
+            .description("Domain events relayed to Kafka")
+            .register(meterRegistry);
+        this.lag = Timer.builder("apex.outbox.lag")
+            .description("Time from event occurrence to Kafka acknowledgement")
+            .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${apex.outbox.linger-ms:200}")
+    public void relay() {
+        if (!config.isRelayEnabled()) {
+            return;
+        }
+        int claimed;
+        do {
+            claimed = transactionTemplate.execute(status -> relayBatch());
+        } while (claimed == config.getBatchSize());
+    }
+
+    private int relayBatch() {
+        List<OutboxEvent> batch = outboxEventRepository.lockUnpublished(config.getBatchSize());
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        List<CompletableFuture<?>> sends = new ArrayList<>(batch.size());
+        for (OutboxEvent event : batch) {
+            // Keyed by aggregate so each aggregate's events stay on one partition
+            sends.add(kafkaTemplate.send(config.getTopic(), event.getAggregateId(), OutboxMessage.of(event)));
+        }
+        kafkaTemplate.flush();
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(config.getSendTimeoutMs());
+        List<UUID> acknowledged = new ArrayList<>(batch.size());
+        Instant now = Instant.now();
+        for (int i = 0; i < batch.size(); i++) {
+            OutboxEvent event = batch.get(i);
+            try {
+                sends.get(i).get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                acknowledged.add(event.getId());
+                if (event.getOccurredAt() != null) {
+                    lag.record(Duration.between(event.getOccurredAt(), now));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (ExecutionException | TimeoutException e) {
+                log.warn("Outbox event {} not acknowledged, will retry: {}", event.getId(), e.getMessage());
+            }
+        }
+
+        if (!acknowledged.isEmpty()) {
+            outboxEventRepository.markPublished(acknowledged, now);
+            published.increment(acknowledged.size());
+        }
+        // A partially failed batch ends the drain loop, so a broker outage backs off to the linger interval
+        return acknowledged.size() == batch.size() ? batch.size() : 0;
+    }
+}
@@ -1,5 +1,6 @@
 package com.apex.core.security;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -16,6 +17,7 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 /**
@@ -34,28 +36,18 @@ public class JwtRequestFilter extends OncePerRequestFilter {
         
         final String requestTokenHeader = request.getHeader("Authorization");
         
-        String username = null;
-        String jwtToken = null;
-        
         // JWT token is in the form "Bearer token"
         if (requestTokenHeader != null && requestTokenHeader.startsWith("Bearer ")) {
-            jwtToken = requestTokenHeader.substring(7);
-            try {
-                username = jwtService.getUsernameFromToken(jwtToken);
-            } catch (Exception e) {
-                log.warn("Unable to get JWT Token: {}", e.getMessage());
-            }
-        } else {
-            log.debug("JWT Token does not begin with Bearer String");
-        }
-        
-        // Validate token and set authentication
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            if (jwtService.validateToken(jwtToken, username)) {
-                
-                // Extract roles from token (you'll need to implement this based on your token structure)
-                List<String> roles = extractRolesFromToken(jwtToken);
-                List<SimpleGrantedAuthority> authorities = roles.stream()
+            String jwtToken = requestTokenHeader.substring(7);
+            
+            // One verification yields the username, expiry and roles
+            Optional<Claims> claims = jwtService.verify(jwtToken);
+            if (claims.isEmpty()) {
+                log.warn("Unable to authenticate with JWT token");
+            } else if (claims.get().getSubject() != null
+                    && SecurityContextHolder.getContext().getAuthentication() == null) {
+                String username = claims.get().getSubject();
+                List<SimpleGrantedAuthority> authorities = extractRoles(claims.get()).stream()
                     .map(role -> new SimpleGrantedAuthority("ROLE_" + role))
                     .collect(Collectors.toList());
                 
@@ -66,20 +58,19 @@ public class JwtRequestFilter extends OncePerRequestFilter {
                 SecurityContextHolder.getContext().setAuthentication(authToken);
                 log.debug("Successfully authenticated user: {}", username);
             }
+        } else {
+            log.debug("JWT Token does not begin with Bearer String");
         }
         
         filterChain.doFilter(request, response);
     }
     
-    private List<String> extractRolesFromToken(String token) {
+    private List<String> extractRoles(Claims claims) {
         try {
-            // Extract roles from JWT claims
-            // This is a placeholder - implement based on your token structure
             @SuppressWarnings("unchecked")
-            List<String> roles = jwtService.getClaimFromToken(token, 
-                claims -> (List<String>) claims.get("roles"));
+            List<String> roles = (List<String>) claims.get("roles");
             return roles != null ? roles : List.of("USER");
-        } catch (Exception e) {
+        } catch (ClassCastException e) {
             log.warn("Could not extract roles from token: {}", e.getMessage());
             return List.of("USER"); // Default role
         }
@@ -1,26 +1,45 @@
 package com.apex.core.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.Base64;
 import java.util.Date;
 import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 /**
  * JWT token management service implementing the 15-minute token expiration
  * for HIPAA compliance with healthcare data access requirements.
+ * The signing key and parser are built once. Verified claims are cached by a hash of
+ * the token until the token expires, so a client sending the same token on every
+ * request pays for one signature check, not one per request.
  */
 @Slf4j
 @Service
+@RequiredArgsConstructor
 public class JwtService {
     
+    private final MeterRegistry meterRegistry;
+    
     @Value("${apex.jwt.secret:defaultSecretKeyThatShouldBeChangedInProduction}")
     private String jwtSecret;
     
@@ -30,8 +49,43 @@ public class JwtService {
     @Value("${apex.jwt.refresh-expiration:604800}") // 7 days default
     private int refreshExpirationSeconds;
     
+    @Value("${apex.jwt.claims-cache-size:10000}")
+    private long claimsCacheSize;
+    
+    private SecretKey signingKey;
+    private JwtParser parser;
+    private Cache<String, Claims> verifiedClaims;
+    
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        parser = Jwts.parser().verifyWith(signingKey).build();
+        verifiedClaims = Caffeine.newBuilder()
+            .maximumSize(claimsCacheSize)
+            .expireAfter(new Expiry<String, Claims>() {
+                @Override
+                public long expireAfterCreate(String key, Claims claims, long currentTime) {
+                    return TimeUnit.MILLISECONDS.toNanos(
+                        Math.max(0, claims.getExpiration().getTime() - System.currentTimeMillis()));
+                }
+                
+                @Override
+                public long expireAfterUpdate(String key, Claims claims, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+                
+                @Override
+                public long expireAfterRead(String key, Claims claims, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+            })
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, verifiedClaims, "jwt-claims");
+    }
+    
     private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        return signingKey;
     }
     
     /**
@@ -71,6 +125,28 @@ public class JwtService {
                 .compact();
     }
     
+    /**
+     * Verified, unexpired claims of a token; empty if the token is invalid or expired.
+     * Only tokens that verify are cached, and only until they expire.
+     */
+    public Optional<Claims> verify(String token) {
+        String key = hash(token);
+        Claims claims = verifiedClaims.getIfPresent(key);
+        if (claims == null) {
+            try {
+                claims = getAllClaimsFromToken(token);
+            } catch (JwtException | IllegalArgumentException e) {
+                return Optional.empty();
+            }
+            if (claims.getExpiration() == null) {
+                log.warn("Rejecting JWT token without expiration");
+                return Optional.empty();
+            }
+            verifiedClaims.put(key, claims);
+        }
+        return claims.getExpiration().after(new Date()) ? Optional.of(claims) : Optional.empty();
+    }
+    
     /**
      * Extracts username from JWT token
      */
@@ -105,11 +181,7 @@ public class JwtService {
      */
     private Claims getAllClaimsFromToken(String token) {
         try {
-            return Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload();
+            return parser.parseSignedClaims(token).getPayload();
         } catch (ExpiredJwtException e) {
             log.warn("JWT token is expired: {}", e.getMessage());
             throw e;
@@ -153,6 +225,15 @@ public class JwtService {
         }
     }
     
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+    
     @FunctionalInterface
     public interface ClaimsResolver<T> {
         T resolve(Claims claims);
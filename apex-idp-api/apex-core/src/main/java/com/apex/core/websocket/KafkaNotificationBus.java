@@ -0,0 +1,101 @@
+package com.apex.core.websocket;
+
+import com.apex.core.config.ApexProperties;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.KafkaMessageListenerContainer;
+import org.springframework.kafka.listener.MessageListener;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Fans notification frames out to every node through Kafka.
+ * Frames are published to one topic, and each node reads all of it with a consumer
+ * group of its own, then hands the frames to its local simple broker. Clients of any
+ * node therefore receive every frame; user destinations resolve against the sessions
+ * of the node that delivers them, so a user's frames reach them wherever they connected.
+ * A node only sees frames published after it started, like a STOMP subscription.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "apex.notification", name = "broker-mode", havingValue = "KAFKA")
+public class KafkaNotificationBus implements NotificationBus {
+
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final ObjectMapper objectMapper;
+    private final KafkaProperties kafkaProperties;
+    private final ApexProperties.Notification config;
+    private KafkaMessageListenerContainer<String, String> container;
+
+    public KafkaNotificationBus(KafkaTemplate<String, Object> kafkaTemplate,
+                                SimpMessagingTemplate messagingTemplate,
+                                ObjectMapper objectMapper,
+                                KafkaProperties kafkaProperties,
+                                ApexProperties apexProperties) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.messagingTemplate = messagingTemplate;
+        this.objectMapper = objectMapper;
+        this.kafkaProperties = kafkaProperties;
+        this.config = apexProperties.getNotification();
+    }
+
+    @Override
+    public void publish(String destination, Object frame) {
+        // Keyed by destination so a destination's frames stay in order
+        kafkaTemplate.send(config.getKafkaTopic(), destination, Map.of("destination", destination, "frame", frame))
+            .whenComplete((result, e) -> {
+                if (e != null) {
+                    log.warn("Could not publish notifications for {}: {}", destination, e.getMessage());
+                }
+            });
+    }
+
+    @PostConstruct
+    void start() {
+        Map<String, Object> consumerProperties = new HashMap<>();
+        consumerProperties.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, kafkaProperties.getBootstrapServers());
+        consumerProperties.put(ConsumerConfig.GROUP_ID_CONFIG, "apex-notifications-" + UUID.randomUUID());
+        consumerProperties.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest");
+        consumerProperties.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, true);
+
+        ContainerProperties containerProperties = new ContainerProperties(config.getKafkaTopic());
+        containerProperties.setMessageListener((MessageListener<String, String>) this::deliver);
+        container = new KafkaMessageListenerContainer<>(new DefaultKafkaConsumerFactory<>(
+            consumerProperties, new StringDeserializer(), new StringDeserializer()), containerProperties);
+        container.setBeanName("notification-fan-out");
+        container.start();
+        log.info("Relaying WebSocket notifications through Kafka topic {}", config.getKafkaTopic());
+    }
+
+    @PreDestroy
+    void stop() {
+        if (container != null) {
+            container.stop();
+        }
+    }
+
+    private void deliver(ConsumerRecord<String, String> record) {
+        try {
+            JsonNode message = objectMapper.readTree(record.value());
+            messagingTemplate.convertAndSend(message.path("destination").asText(), message.path("frame"));
+        } catch (Exception e) {
+            log.warn("Discarding unreadable notification frame for {}: {}", record.key(), e.getMessage());
+        }
+    }
+}
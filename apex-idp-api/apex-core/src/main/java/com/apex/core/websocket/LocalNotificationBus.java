@@ -0,0 +1,25 @@
+package com.apex.core.websocket;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Hands frames straight to this node's message broker.
+ * With the simple broker only clients of this node receive them - enough for a single
+ * node, development and tests, with no infrastructure. With the STOMP broker relay the
+ * external broker fans them out to every node.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnExpression("!'${apex.notification.broker-mode:SIMPLE}'.equalsIgnoreCase('KAFKA')")
+public class LocalNotificationBus implements NotificationBus {
+
+    private final SimpMessagingTemplate messagingTemplate;
+
+    @Override
+    public void publish(String destination, Object frame) {
+        messagingTemplate.convertAndSend(destination, frame);
+    }
+}
@@ -0,0 +1,11 @@
+package com.apex.core.websocket;
+
+/**
+ * Delivers notification frames to the WebSocket clients subscribed to a destination,
+ * wherever they are connected. Which implementation is active follows
+ * apex.notification.broker-mode.
+ */
+public interface NotificationBus {
+
+    void publish(String destination, Object frame);
+}
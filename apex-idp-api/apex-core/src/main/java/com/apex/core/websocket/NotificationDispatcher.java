@@ -0,0 +1,111 @@
+package com.apex.core.websocket;
+
+import com.apex.core.config.ApexProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.MessagingException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Coalescing, batching front of the notification bus.
+ * Messages wait per destination for one coalescing window. A message with a coalescing
+ * key replaces the pending one with the same key - a document that moves through three
+ * stages within the window produces one update with the latest stage. At the end of the
+ * window each destination gets a single frame: the message itself when only one is
+ * pending, otherwise a BATCH frame listing them in arrival order. A destination that
+ * falls further behind than its pending limit loses its oldest messages, never the newest.
+ */
+@Slf4j
+@Component
+public class NotificationDispatcher {
+
+    private final NotificationBus bus;
+    private final ApexProperties.Notification config;
+    private final Map<String, LinkedHashMap<String, Object>> pending = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong(); // keys of messages that are never coalesced
+    private final Counter coalesced;
+    private final Counter dropped;
+    private final Counter frames;
+
+    public NotificationDispatcher(NotificationBus bus,
+                                  ApexProperties apexProperties,
+                                  MeterRegistry meterRegistry) {
+        this.bus = bus;
+        this.config = apexProperties.getNotification();
+        this.coalesced = Counter.builder("apex.notifications.coalesced")
+            .description("Notifications replaced by a newer one for the same subject before sending")
+            .register(meterRegistry);
+        this.dropped = Counter.builder("apex.notifications.dropped")
+            .description("Notifications discarded because their destination fell behind")
+            .register(meterRegistry);
+        this.frames = Counter.builder("apex.notifications.frames")
+            .description("Frames handed to the notification bus")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Queue a message for the next frame to a destination.
+     *
+     * @param coalesceKey subject of the message, e.g. "document:&lt;id&gt;"; a later message with
+     *                    the same key replaces this one. Null means the message is always delivered.
+     */
+    public void send(String destination, String coalesceKey, Object message) {
+        if (config.getCoalesceWindowMs() <= 0) {
+            bus.publish(destination, message);
+            frames.increment();
+            return;
+        }
+        String key = coalesceKey != null ? coalesceKey : "#" + sequence.incrementAndGet();
+        pending.compute(destination, (target, messages) -> {
+            if (messages == null) {
+                messages = new LinkedHashMap<>();
+            }
+            if (messages.put(key, message) != null) {
+                coalesced.increment();
+            } else if (messages.size() > config.getMaxPendingPerDestination()) {
+                Iterator<String> oldest = messages.keySet().iterator();
+                oldest.next();
+                oldest.remove();
+                dropped.increment();
+            }
+            return messages;
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${apex.notification.coalesce-window-ms:250}")
+    public void flush() {
+        for (String destination : pending.keySet()) {
+            // Taking the map out leaves later messages to a fresh one, so it is only read here
+            LinkedHashMap<String, Object> messages = pending.remove(destination);
+            if (messages == null) {
+                continue;
+            }
+            List<Object> batch = new ArrayList<>(messages.values());
+            for (int from = 0; from < batch.size(); from += config.getMaxBatchSize()) {
+                List<Object> chunk = batch.subList(from, Math.min(batch.size(), from + config.getMaxBatchSize()));
+                Object frame = chunk.size() == 1 ? chunk.get(0) : Map.of(
+                    "type", "BATCH",
+                    "messages", chunk,
+                    "timestamp", System.currentTimeMillis()
+                );
+                try {
+                    bus.publish(destination, frame);
+                    frames.increment();
+                } catch (MessagingException e) {
+                    dropped.increment(chunk.size());
+                    log.warn("Could not send {} notifications to {}: {}", chunk.size(), destination, e.getMessage());
+                }
+            }
+        }
+    }
+}
@@ -2,7 +2,6 @@ package com.apex.core.websocket;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 
 import java.util.Map;
@@ -10,13 +9,15 @@ import java.util.UUID;
 
 /**
  * Service for sending real-time notifications via WebSocket
+ * Status updates are coalesced per subject, so only the latest status within a
+ * dispatch window reaches the client; other notifications are batched but always delivered.
  */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class NotificationService {
 
-    private final SimpMessagingTemplate messagingTemplate;
+    private final NotificationDispatcher dispatcher;
 
     /**
      * Send document processing status update to user
@@ -32,7 +33,7 @@ public class NotificationService {
             "timestamp", System.currentTimeMillis()
         );
 
-        messagingTemplate.convertAndSend(destination, message);
+        dispatcher.send(destination, "document:" + documentId, message);
         log.debug("Sent document processing update to user {}: {}", userId, status);
     }
 
@@ -49,7 +50,7 @@ public class NotificationService {
             "timestamp", System.currentTimeMillis()
         );
 
-        messagingTemplate.convertAndSend(destination, message);
+        dispatcher.send(destination, null, message);
         log.debug("Sent financial notification to user {}: {}", userId, operationType);
     }
 
@@ -67,7 +68,7 @@ public class NotificationService {
             "timestamp", System.currentTimeMillis()
         );
 
-        messagingTemplate.convertAndSend(destination, message);
+        dispatcher.send(destination, "contract:" + contractId, message);
         log.debug("Sent contract update to user {}: {}", userId, status);
     }
 
@@ -85,7 +86,7 @@ public class NotificationService {
             "timestamp", System.currentTimeMillis()
         );
 
-        messagingTemplate.convertAndSend(destination, message);
+        dispatcher.send(destination, "vendor:" + vendorId, message);
         log.debug("Sent vendor update to organization {}: {}", organizationId, status);
     }
 
@@ -103,7 +104,7 @@ public class NotificationService {
             "timestamp", System.currentTimeMillis()
         );
 
-        messagingTemplate.convertAndSend(destination, notification);
+        dispatcher.send(destination, null, notification);
         log.debug("Sent notification to user {}: {}", userId, title);
     }
 
@@ -119,7 +120,7 @@ public class NotificationService {
             "timestamp", System.currentTimeMillis()
         );
 
-        messagingTemplate.convertAndSend("/topic/notifications", notification);
+        dispatcher.send("/topic/notifications", null, notification);
         log.info("Broadcasted system notification: {}", title);
     }
 }
@@ -1,16 +1,22 @@
 package com.apex.core.websocket;
 
+import com.apex.core.config.ApexProperties;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.messaging.simp.config.StompBrokerRelayRegistration;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
 
 /**
  * WebSocket configuration for real-time notifications and updates
  * Supports document processing status updates and financial notifications
+ * apex.notification.broker-mode selects where subscriptions live: the in-memory simple
+ * broker (SIMPLE, and KAFKA, which feeds every node's simple broker from Kafka) or an
+ * external STOMP broker such as RabbitMQ (RELAY).
  */
 @Configuration
 @EnableWebSocketMessageBroker
@@ -18,16 +24,37 @@ import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerCo
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
     private final WebSocketAuthInterceptor webSocketAuthInterceptor;
+    private final ApexProperties apexProperties;
 
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
-        config.enableSimpleBroker(
-            "/topic/documents",      // Document processing updates
-            "/topic/financial",      // Financial operation notifications
-            "/topic/contracts",      // Contract management updates
-            "/topic/vendors",        // Vendor status updates
-            "/topic/notifications"   // General notifications
-        );
+        ApexProperties.Notification notification = apexProperties.getNotification();
+        if ("RELAY".equalsIgnoreCase(notification.getBrokerMode())) {
+            // Subscriptions live in the external broker, so every node reaches every client;
+            // user destinations and the user registry are shared through it as well
+            ApexProperties.Notification.Relay relay = notification.getRelay();
+            StompBrokerRelayRegistration registration = config.enableStompBrokerRelay("/topic", "/queue")
+                .setRelayHost(relay.getHost())
+                .setRelayPort(relay.getPort())
+                .setClientLogin(relay.getClientLogin())
+                .setClientPasscode(relay.getClientPasscode())
+                .setSystemLogin(relay.getSystemLogin())
+                .setSystemPasscode(relay.getSystemPasscode())
+                .setUserDestinationBroadcast("/topic/unresolved-user-destination")
+                .setUserRegistryBroadcast("/topic/simp-user-registry");
+            if (relay.getVirtualHost() != null) {
+                registration.setVirtualHost(relay.getVirtualHost());
+            }
+        } else {
+            config.enableSimpleBroker(
+                "/topic/documents",      // Document processing updates
+                "/topic/financial",      // Financial operation notifications
+                "/topic/contracts",      // Contract management updates
+                "/topic/vendors",        // Vendor status updates
+                "/topic/notifications",  // General notifications
+                "/queue"                 // Per-user queues (document processed, validation complete, errors)
+            );
+        }
         config.setApplicationDestinationPrefixes("/app");
         config.setUserDestinationPrefix("/user");
     }
@@ -42,6 +69,16 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
                 .setAllowedOriginPatterns("*");
     }
 
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        // Bound what a slow client can hold per session; past either limit its session is closed
+        // instead of frames piling up for it in the broker
+        ApexProperties.Notification config = apexProperties.getNotification();
+        registration.setSendTimeLimit(config.getSessionSendTimeLimitMs())
+                .setSendBufferSizeLimit(config.getSessionSendBufferSizeKb() * 1024)
+                .setMessageSizeLimit(config.getMessageSizeLimitKb() * 1024);
+    }
+
     @Override
     public void configureClientInboundChannel(ChannelRegistration registration) {
         registration.interceptors(webSocketAuthInterceptor);
@@ -0,0 +1,47 @@
+package com.apex.core.api;
+
+import com.apex.core.exceptions.BusinessValidationException;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PageCursorTest {
+
+    @Test
+    void decodesTheKeyItEncoded() {
+        List<String> key = Arrays.asList("2026-03-02T09:00:00Z", null, "b_w-8", "3f0c6f1e-6a1b-4c5e-9f1a-0d2c3b4a5e6f");
+
+        String cursor = PageCursor.encode("search", key);
+
+        assertThat(cursor).matches("[A-Za-z0-9_-]+");
+        assertThat(PageCursor.decode(cursor, "search", key.size())).isEqualTo(key);
+    }
+
+    @Test
+    void rejectsCursorOfAnotherListing() {
+        String cursor = PageCursor.encode("validation-queue", List.of("0.5", "id"));
+
+        assertThatThrownBy(() -> PageCursor.decode(cursor, "search", 2))
+            .isInstanceOf(BusinessValidationException.class);
+    }
+
+    @Test
+    void rejectsCursorWithAnotherKeySize() {
+        String cursor = PageCursor.encode("search", List.of("0.5", "id"));
+
+        assertThatThrownBy(() -> PageCursor.decode(cursor, "search", 3))
+            .isInstanceOf(BusinessValidationException.class);
+    }
+
+    @Test
+    void rejectsGarbage() {
+        assertThatThrownBy(() -> PageCursor.decode("not a cursor!", "search", 1))
+            .isInstanceOf(BusinessValidationException.class);
+        assertThatThrownBy(() -> PageCursor.decode("eyJhIjoxfQ", "search", 1)) // {"a":1}
+            .isInstanceOf(BusinessValidationException.class);
+    }
+}
@@ -0,0 +1,67 @@
+package com.apex.core.security;
+
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of authenticating a request whose bearer token was seen before, with and without
+ * the verified-claims cache. The uncached case is one full parse and signature check;
+ * the filter used to do four of those per request.
+ * Not a unit test - run main(), e.g. from the IDE, after mvn test-compile.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtVerificationBenchmark {
+
+    private JwtService jwtService;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtService = new JwtService(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(jwtService, "jwtSecret", "benchmark-secret-key-of-at-least-256-bits-length");
+        ReflectionTestUtils.setField(jwtService, "jwtExpirationSeconds", 900);
+        ReflectionTestUtils.setField(jwtService, "claimsCacheSize", 10_000L);
+        jwtService.init();
+        token = jwtService.generateToken("clerk", "42", Map.of("roles", List.of("AP_CLERK")));
+    }
+
+    @Benchmark
+    public Optional<Claims> cachedVerify() {
+        return jwtService.verify(token);
+    }
+
+    @Benchmark
+    public Claims uncachedParse() {
+        return jwtService.getClaimFromToken(token, claims -> claims);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(JwtVerificationBenchmark.class.getSimpleName())
+            .build()).run();
+    }
+}
@@ -0,0 +1,145 @@
+package com.apex.document.api;
+
+import com.apex.document.domain.DocumentRepository;
+import com.apex.document.infrastructure.rendition.RenditionImage;
+import com.apex.document.infrastructure.storage.DocumentStorageService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRange;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Writes stored document content to an HTTP response.
+ * A single byte range is honoured so viewers can fetch pages on demand and interrupted
+ * downloads can resume; requests for several ranges get the whole document. Local files
+ * are handed to the container's sendfile support, so the kernel copies them to the socket.
+ * MinIO objects are requested for just the range and copied through a small buffer, so
+ * memory per download stays constant whatever the document size. Page images are
+ * served the same way; they are never rewritten, so clients may cache them for good.
+ */
+@Component
+@RequiredArgsConstructor
+class DocumentContentStreamer {
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    // Content never changes under a storage path, so clients may reuse what they fetched
+    private static final String CACHE_CONTROL = CacheControl.maxAge(Duration.ofHours(1)).cachePrivate().getHeaderValue();
+    private static final String IMAGE_CACHE_CONTROL =
+        CacheControl.maxAge(Duration.ofDays(30)).cachePrivate().immutable().getHeaderValue();
+
+    private final DocumentStorageService storageService;
+
+    void stream(DocumentRepository.StoredContent content, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        stream(content.getStoragePath(),
+            content.getFileName() != null ? content.getFileName() : "document",
+            content.getMimeType() != null ? content.getMimeType() : MediaType.APPLICATION_OCTET_STREAM_VALUE,
+            content.getFileSize(),
+            content.getContentHash() != null ? "\"" + content.getContentHash() + "\"" : null,
+            CACHE_CONTROL, request, response);
+    }
+
+    void stream(RenditionImage image, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        stream(image.storagePath(), image.fileName(), RenditionImage.CONTENT_TYPE, image.size(), null,
+            IMAGE_CACHE_CONTROL, request, response);
+    }
+
+    private void stream(String storagePath, String fileName, String contentType, Long fileSize, String etag,
+                        String cacheControl, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        response.setContentType(contentType);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.inline()
+            .filename(fileName, StandardCharsets.UTF_8)
+            .build().toString());
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+        if (etag != null) {
+            response.setHeader(HttpHeaders.ETAG, etag);
+            if (etag.equals(request.getHeader(HttpHeaders.IF_NONE_MATCH))) {
+                response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+                return;
+            }
+        }
+
+        if (fileSize == null) {
+            if (!HttpMethod.HEAD.matches(request.getMethod())) {
+                try (InputStream in = storageService.openDocument(storagePath)) {
+                    in.transferTo(response.getOutputStream());
+                }
+            }
+            return;
+        }
+
+        long size = fileSize;
+        long start = 0;
+        long end = size - 1;
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        HttpRange range = requestedRange(request, etag);
+        if (range != null) {
+            start = range.getRangeStart(size);
+            end = range.getRangeEnd(size);
+            if (start > end) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+                response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return;
+            }
+            response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + size);
+        }
+        long length = end - start + 1;
+        response.setContentLengthLong(length);
+        if (length == 0 || HttpMethod.HEAD.matches(request.getMethod())) {
+            return;
+        }
+
+        Optional<Path> file = storageService.localFile(storagePath);
+        if (file.isPresent() && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, file.get().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            return;
+        }
+        try (InputStream in = storageService.openDocument(storagePath, start, length)) {
+            StreamUtils.copyRange(in, response.getOutputStream(), 0, length - 1);
+        }
+    }
+
+    /**
+     * The single range to send, or null for the whole document. A Range that cannot be
+     * parsed is ignored, as is one whose If-Range names an older version of the content.
+     */
+    private static HttpRange requestedRange(HttpServletRequest request, String etag) {
+        String header = request.getHeader(HttpHeaders.RANGE);
+        if (header == null) {
+            return null;
+        }
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange != null && !ifRange.equals(etag)) {
+            return null;
+        }
+        try {
+            List<HttpRange> ranges = HttpRange.parseRanges(header);
+            return ranges.size() == 1 ? ranges.get(0) : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -1,29 +1,42 @@
 package com.apex.document.api;
 
 import com.apex.core.api.ApiResponse;
+import com.apex.core.api.CursorPage;
+import com.apex.core.exceptions.ResourceNotFoundException;
 import com.apex.core.security.SecurityUtils;
+import com.apex.document.application.DocumentBatchUploadService;
 import com.apex.document.application.DocumentCommandService;
 import com.apex.document.application.DocumentQueryService;
+import com.apex.document.application.ValidationWorkDispenser;
 import com.apex.document.application.dto.*;
 import com.apex.document.domain.DocumentType;
+import com.apex.document.domain.ProcessingPriority;
+import com.apex.document.infrastructure.lock.DocumentLock;
+import com.apex.document.infrastructure.projection.DocumentProjector;
 import com.apex.document.infrastructure.websocket.WebSocketNotificationService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.MediaType;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.math.BigDecimal;
 import java.time.LocalDate;
-import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 /**
@@ -40,7 +53,13 @@ public class DocumentController {
     
     private final DocumentCommandService commandService;
     private final DocumentQueryService queryService;
+    private final DocumentBatchUploadService batchUploadService;
+    private final ValidationWorkDispenser workDispenser;
     private final WebSocketNotificationService notificationService;
+    private final DocumentProjector documentProjector;
+    private final DocumentContentStreamer contentStreamer;
+    
+    private static final int MAX_CURSOR_PAGE_SIZE = 100;
     
     /**
      * Upload a single document for processing.
@@ -61,7 +80,7 @@ public class DocumentController {
             vendorId = SecurityUtils.getCurrentVendorId();
         }
         
-        UUID documentId = commandService.uploadDocument(file, vendorId);
+        UUID documentId = commandService.uploadDocument(file, vendorId, ProcessingPriority.from(priority));
         
         // Send real-time notification about upload
         notificationService.notifyDocumentUploaded(documentId);
@@ -76,9 +95,53 @@ public class DocumentController {
         );
     }
     
+    /**
+     * Upload a single document by streaming the raw request body.
+     * Avoids multipart buffering so large files never fill the heap or temp disk.
+     */
+    @PostMapping(value = "/upload/stream", consumes = {
+        MediaType.APPLICATION_OCTET_STREAM_VALUE,
+        MediaType.APPLICATION_PDF_VALUE,
+        "image/*",
+        "application/msword",
+        "application/vnd.openxmlformats-officedocument.wordprocessingml.document"
+    })
+    @Operation(summary = "Upload a document by streaming the request body")
+    @PreAuthorize("hasAnyRole('AP_CLERK', 'VENDOR')")
+    public ApiResponse<DocumentUploadResponse> uploadDocumentStream(
+            InputStream body,
+            @RequestParam("fileName") String fileName,
+            @RequestParam(value = "vendorId", required = false) UUID vendorId,
+            @RequestParam(value = "priority", defaultValue = "NORMAL") String priority) {
+        
+        log.info("Received streaming document upload request: {}", fileName);
+        
+        // If vendor is uploading, use their ID from security context
+        if (vendorId == null && SecurityUtils.hasRole("VENDOR")) {
+            vendorId = SecurityUtils.getCurrentVendorId();
+        }
+        
+        UUID documentId = commandService.uploadDocumentStream(body, fileName, vendorId,
+            ProcessingPriority.from(priority));
+        
+        // Send real-time notification about upload
+        notificationService.notifyDocumentUploaded(documentId);
+        
+        return ApiResponse.success(
+            DocumentUploadResponse.builder()
+                .documentId(documentId)
+                .fileName(fileName)
+                .status("UPLOADED")
+                .message("Document uploaded successfully and queued for processing")
+                .build()
+        );
+    }
+    
     /**
      * Upload multiple documents for batch processing.
      * Implements Story 2.3 from the epic breakdown.
+     * Returns as soon as the files are accepted; poll the batch or follow
+     * /topic/documents for per-file progress.
      */
     @PostMapping(value = "/upload/batch", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     @Operation(summary = "Upload multiple documents for batch processing")
@@ -86,21 +149,28 @@ public class DocumentController {
     public ApiResponse<BatchUploadResponse> uploadBatch(
             @RequestParam("files") List<MultipartFile> files,
             @RequestParam(value = "batchName") String batchName,
-            @RequestParam(value = "vendorId", required = false) UUID vendorId) {
+            @RequestParam(value = "vendorId", required = false) UUID vendorId,
+            @RequestParam(value = "priority", defaultValue = "NORMAL") String priority) {
         
         log.info("Received batch upload request: {} files", files.size());
         
-        BatchUploadResult result = commandService.uploadBatch(files, batchName, vendorId);
-        
-        return ApiResponse.success(
-            BatchUploadResponse.builder()
-                .batchId(result.getBatchId())
-                .totalFiles(files.size())
-                .successfulUploads(result.getSuccessfulUploads())
-                .failedUploads(result.getFailedUploads())
-                .uploadResults(result.getResults())
-                .build()
-        );
+        BatchUploadResult result = batchUploadService.uploadBatch(files, batchName, vendorId,
+            ProcessingPriority.from(priority));
+        return ApiResponse.success(toBatchUploadResponse(result));
+    }
+    
+    /**
+     * Get progress of a batch upload.
+     * Batch progress is held by the node that received the upload, so behind a load
+     * balancer poll with session affinity or follow /topic/documents instead.
+     */
+    @GetMapping("/upload/batch/{batchId}")
+    @Operation(summary = "Get batch upload progress")
+    @PreAuthorize("hasRole('AP_CLERK')")
+    public ApiResponse<BatchUploadResponse> getBatchUpload(@PathVariable String batchId) {
+        BatchUploadResult result = batchUploadService.getBatch(batchId)
+            .orElseThrow(() -> new ResourceNotFoundException("Batch upload", batchId));
+        return ApiResponse.success(toBatchUploadResponse(result));
     }
     
     /**
@@ -118,6 +188,53 @@ public class DocumentController {
         return ApiResponse.success(queue);
     }
     
+    /**
+     * Get documents pending validation, one keyset page at a time.
+     * Pass the nextCursor of a page to get the following one; deep pages stay as fast as the first.
+     */
+    @GetMapping("/validation/queue/cursor")
+    @Operation(summary = "Get documents pending validation with cursor pagination")
+    @PreAuthorize("hasAnyRole('AP_CLERK', 'SUPERVISOR')")
+    public ApiResponse<CursorPage<ValidationQueueDTO>> getValidationQueuePage(
+            @RequestParam(value = "confidenceThreshold", defaultValue = "0.80") BigDecimal threshold,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", defaultValue = "20") int size) {
+        
+        return ApiResponse.success(queryService.getValidationQueue(threshold, cursor, cursorPageSize(size)));
+    }
+    
+    /**
+     * Claim the most urgent document nobody else is validating.
+     * The response carries the validation lock, as when opening a document directly.
+     */
+    @PostMapping("/validation/next")
+    @Operation(summary = "Claim the next document to validate")
+    @PreAuthorize("hasAnyRole('AP_CLERK', 'SUPERVISOR')")
+    public ApiResponse<DocumentValidationDTO> claimNextDocumentForValidation() {
+        Optional<DocumentLock> lock = workDispenser.next(SecurityUtils.getCurrentUserId());
+        if (lock.isEmpty()) {
+            return ApiResponse.success("No documents waiting for validation");
+        }
+        
+        DocumentValidationDTO document = queryService.getDocumentForValidation(lock.get().documentId().toString());
+        document.setPages(queryService.findPageRenditions(lock.get().documentId(), pagesUrl(lock.get().documentId())));
+        document.setLockToken(lock.get().fencingToken());
+        document.setLockExpiresAt(lock.get().expiresAt());
+        
+        return ApiResponse.success(document);
+    }
+    
+    /**
+     * Return the documents claimed ahead for the current clerk, e.g. when they stop validating.
+     */
+    @DeleteMapping("/validation/claims")
+    @Operation(summary = "Release documents claimed ahead for the current user")
+    @PreAuthorize("hasAnyRole('AP_CLERK', 'SUPERVISOR')")
+    public ApiResponse<Void> releaseValidationClaims() {
+        workDispenser.releasePrefetched(SecurityUtils.getCurrentUserId());
+        return ApiResponse.success("Validation claims released");
+    }
+    
     /**
      * Get document details for validation.
      * Returns document with extracted fields and confidence scores.
@@ -129,13 +246,45 @@ public class DocumentController {
             @PathVariable UUID documentId) {
         
         DocumentValidationDTO document = queryService.getDocumentForValidation(documentId.toString());
+        document.setPages(queryService.findPageRenditions(documentId, pagesUrl(documentId)));
         
         // Lock document for current user to prevent concurrent editing
-        commandService.lockDocumentForValidation(documentId, SecurityUtils.getCurrentUserId().toString());
+        DocumentLock lock = commandService.lockDocumentForValidation(
+            documentId, SecurityUtils.getCurrentUserId().toString());
+        document.setLockToken(lock.fencingToken());
+        document.setLockExpiresAt(lock.expiresAt());
         
         return ApiResponse.success(document);
     }
     
+    /**
+     * Keep the validation lock alive while the document is open.
+     */
+    @PutMapping("/{documentId}/lock/heartbeat")
+    @Operation(summary = "Renew the validation lock on a document")
+    @PreAuthorize("hasAnyRole('AP_CLERK', 'SUPERVISOR')")
+    public ApiResponse<DocumentLock> renewValidationLock(
+            @PathVariable UUID documentId,
+            @RequestParam long token) {
+        
+        return ApiResponse.success(commandService.renewValidationLock(
+            documentId, SecurityUtils.getCurrentUserId().toString(), token));
+    }
+    
+    /**
+     * Release the validation lock when the document is closed without validating it.
+     */
+    @DeleteMapping("/{documentId}/lock")
+    @Operation(summary = "Release the validation lock on a document")
+    @PreAuthorize("hasAnyRole('AP_CLERK', 'SUPERVISOR')")
+    public ApiResponse<Void> releaseValidationLock(
+            @PathVariable UUID documentId,
+            @RequestParam long token) {
+        
+        commandService.releaseValidationLock(documentId, SecurityUtils.getCurrentUserId().toString(), token);
+        return ApiResponse.success("Validation lock released");
+    }
+    
     /**
      * Submit validation results for a document.
      * Implements Story 5.2 from the epic breakdown.
@@ -149,7 +298,7 @@ public class DocumentController {
         
         log.info("Validating document: {} by user: {}", documentId, SecurityUtils.getCurrentUserId());
         
-        commandService.validateDocument(documentId, request);
+        commandService.validateDocument(documentId, SecurityUtils.getCurrentUserId(), request);
         
         // Send notification about validation completion
         notificationService.notifyValidationComplete(
@@ -171,6 +320,16 @@ public class DocumentController {
         return ApiResponse.success(status);
     }
     
+    /**
+     * Rebuild a document from its event history, to audit it against the stored row.
+     */
+    @GetMapping("/{documentId}/history")
+    @Operation(summary = "Rebuild a document from its event history")
+    @PreAuthorize("hasAnyRole('SUPERVISOR', 'ADMIN')")
+    public ApiResponse<DocumentHistoryDTO> getDocumentHistory(@PathVariable UUID documentId) {
+        return ApiResponse.success(queryService.getDocumentHistory(documentId));
+    }
+    
     /**
      * Search documents using full-text search.
      * Implements search functionality across all processed documents.
@@ -197,6 +356,32 @@ public class DocumentController {
         return ApiResponse.success(results);
     }
     
+    /**
+     * Search documents one keyset page at a time.
+     * The sort must stay the same across the pages of one cursor.
+     */
+    @GetMapping("/search/cursor")
+    @Operation(summary = "Search documents with cursor pagination")
+    @PreAuthorize("isAuthenticated()")
+    public ApiResponse<CursorPage<DocumentDTO>> searchDocumentsPage(
+            @RequestParam("query") String query,
+            @RequestParam(value = "type", required = false) DocumentType type,
+            @RequestParam(value = "dateFrom", required = false) LocalDate dateFrom,
+            @RequestParam(value = "dateTo", required = false) LocalDate dateTo,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", defaultValue = "20") int size,
+            Sort sort) {
+        
+        SearchCriteria criteria = SearchCriteria.builder()
+            .query(query)
+            .documentType(type)
+            .dateFrom(dateFrom != null ? dateFrom.toString() : null)
+            .dateTo(dateTo != null ? dateTo.toString() : null)
+            .build();
+        
+        return ApiResponse.success(queryService.searchDocuments(criteria, sort, cursor, cursorPageSize(size)));
+    }
+    
     /**
      * Get processing statistics for dashboard
      */
@@ -209,19 +394,96 @@ public class DocumentController {
     }
     
     /**
-     * Get document preview/download URL
+     * Rebuild the document read model from the write model.
+     * Runs in the background; queries see partial results until it finishes.
+     */
+    @PostMapping("/projections/rebuild")
+    @Operation(summary = "Rebuild document projections")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ApiResponse<Void> rebuildProjections() {
+        if (!documentProjector.startRebuild()) {
+            return ApiResponse.error("Projection rebuild already running");
+        }
+        return ApiResponse.success("Projection rebuild started");
+    }
+    
+    /**
+     * Get document preview/download URL.
+     * Points at MinIO directly when documents are stored there, otherwise at the content endpoint.
      */
     @GetMapping("/{documentId}/download")
     @Operation(summary = "Get secure download URL for document")
     @PreAuthorize("isAuthenticated()")
     public ApiResponse<DocumentDownloadResponse> getDocumentDownload(@PathVariable UUID documentId) {
-        String downloadUrl = queryService.generateSecureDownloadUrl(documentId.toString());
-        return ApiResponse.success(
-            DocumentDownloadResponse.builder()
-                .documentId(documentId.toString())
-                .downloadUrl(downloadUrl)
-                .expiresAt(LocalDateTime.now().plusMinutes(15))
-                .build()
-        );
+        String contentUrl = ServletUriComponentsBuilder.fromCurrentContextPath()
+            .path("/v1/documents/{documentId}/content")
+            .buildAndExpand(documentId)
+            .toUriString();
+        return ApiResponse.success(queryService.getDownload(documentId, contentUrl));
+    }
+    
+    /**
+     * Stream document content, honouring HTTP Range requests
+     */
+    @GetMapping("/{documentId}/content")
+    @Operation(summary = "Stream document content")
+    @PreAuthorize("isAuthenticated()")
+    public void streamDocumentContent(@PathVariable UUID documentId,
+                                      HttpServletRequest request,
+                                      HttpServletResponse response) throws IOException {
+        contentStreamer.stream(queryService.getStoredContent(documentId), request, response);
+    }
+    
+    /**
+     * Page images of a document with their sizes, for overlaying extracted field boxes.
+     * Renders the pages first if they have not been rendered yet.
+     */
+    @GetMapping("/{documentId}/pages")
+    @Operation(summary = "List rendered pages of a document")
+    @PreAuthorize("isAuthenticated()")
+    public ApiResponse<List<PageRenditionDTO>> getDocumentPages(@PathVariable UUID documentId) {
+        return ApiResponse.success(queryService.getPageRenditions(documentId, pagesUrl(documentId)));
+    }
+    
+    @GetMapping("/{documentId}/pages/{pageNumber}")
+    @Operation(summary = "Stream a rendered page image")
+    @PreAuthorize("isAuthenticated()")
+    public void streamPageImage(@PathVariable UUID documentId,
+                                @PathVariable int pageNumber,
+                                HttpServletRequest request,
+                                HttpServletResponse response) throws IOException {
+        contentStreamer.stream(queryService.getPageImage(documentId, pageNumber, false), request, response);
+    }
+    
+    @GetMapping("/{documentId}/pages/{pageNumber}/thumbnail")
+    @Operation(summary = "Stream a page thumbnail")
+    @PreAuthorize("isAuthenticated()")
+    public void streamPageThumbnail(@PathVariable UUID documentId,
+                                    @PathVariable int pageNumber,
+                                    HttpServletRequest request,
+                                    HttpServletResponse response) throws IOException {
+        contentStreamer.stream(queryService.getPageImage(documentId, pageNumber, true), request, response);
+    }
+    
+    private BatchUploadResponse toBatchUploadResponse(BatchUploadResult result) {
+        return BatchUploadResponse.builder()
+            .batchId(result.getBatchId())
+            .status(result.getStatus())
+            .totalFiles(result.getTotalFiles())
+            .successfulUploads(result.getSuccessfulUploads())
+            .failedUploads(result.getFailedUploads())
+            .uploadResults(result.getResults())
+            .build();
+    }
+    
+    private static String pagesUrl(UUID documentId) {
+        return ServletUriComponentsBuilder.fromCurrentContextPath()
+            .path("/v1/documents/{documentId}/pages")
+            .buildAndExpand(documentId)
+            .toUriString();
+    }
+    
+    private static int cursorPageSize(int requested) {
+        return Math.min(Math.max(requested, 1), MAX_CURSOR_PAGE_SIZE);
     }
 }
@@ -0,0 +1,284 @@
+package com.apex.document.application;
+
+import com.apex.core.config.ApexProperties;
+import com.apex.document.application.dto.BatchUploadResult;
+import com.apex.document.application.dto.DocumentUploadResponse;
+import com.apex.document.domain.ProcessingPriority;
+import com.apex.document.infrastructure.websocket.WebSocketNotificationService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.concurrent.DelegatingSecurityContextRunnable;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Concurrent batch ingestion engine.
+ * Files are spooled out of the multipart request, then stored in parallel up to
+ * the configured limit. Each file is ingested in its own transaction, so one bad
+ * file never rolls back the rest of the batch. Progress can be polled by batch ID
+ * and is streamed per file over the /topic/documents WebSocket destination.
+ * Batch state lives in this node's memory only: polling works on the node that
+ * received the upload, and a batch interrupted by a restart is gone. Its spool
+ * directory is swept on the next startup.
+ */
+@Slf4j
+@Service
+public class DocumentBatchUploadService {
+
+    private static final String STATUS_RUNNING = "RUNNING";
+    private static final String STATUS_COMPLETED = "COMPLETED";
+
+    private final DocumentCommandService commandService;
+    private final WebSocketNotificationService notificationService;
+    private final ApexProperties apexProperties;
+
+    private final Map<String, BatchTracker> batches = new ConcurrentHashMap<>();
+    private ExecutorService executor;
+
+    public DocumentBatchUploadService(DocumentCommandService commandService,
+                                      WebSocketNotificationService notificationService,
+                                      ApexProperties apexProperties) {
+        this.commandService = commandService;
+        this.notificationService = notificationService;
+        this.apexProperties = apexProperties;
+    }
+
+    @PostConstruct
+    void start() {
+        int concurrency = apexProperties.getProcessing().getBatchUpload().getConcurrency();
+        executor = new ThreadPoolExecutor(
+            concurrency,
+            concurrency,
+            0L,
+            TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(),
+            new CustomizableThreadFactory("batch-upload-")
+        );
+        sweepSpool();
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdown();
+    }
+
+    /**
+     * Start a batch upload and return immediately with a RUNNING snapshot.
+     */
+    public BatchUploadResult uploadBatch(List<MultipartFile> files, String batchName, UUID vendorId,
+                                         ProcessingPriority priority) {
+        String batchId = UUID.randomUUID().toString();
+        Path spoolDirectory = Paths.get(apexProperties.getProcessing().getBatchUpload().getSpoolDirectory(), batchId);
+        BatchTracker tracker = new BatchTracker(batchId, batchName, files.size(), spoolDirectory);
+        batches.put(batchId, tracker);
+
+        log.info("Starting batch upload {} ({}): {} files", batchId, batchName, files.size());
+
+        for (MultipartFile file : files) {
+            String fileName = file.getOriginalFilename();
+            Path spooled;
+            try {
+                // Multipart content is deleted when the request ends; moving the part to the
+                // spool directory keeps it available to the workers without copying it into memory
+                Files.createDirectories(spoolDirectory);
+                spooled = spoolDirectory.resolve(UUID.randomUUID().toString());
+                file.transferTo(spooled.toFile());
+            } catch (IOException e) {
+                recordFailure(tracker, fileName, "Upload failed: " + e.getMessage());
+                continue;
+            }
+            executor.execute(new DelegatingSecurityContextRunnable(
+                () -> ingest(tracker, spooled, fileName, vendorId, priority)));
+        }
+
+        return tracker.snapshot();
+    }
+
+    /**
+     * Current state of a running or recently finished batch received by this node.
+     */
+    public Optional<BatchUploadResult> getBatch(String batchId) {
+        return Optional.ofNullable(batches.get(batchId)).map(BatchTracker::snapshot);
+    }
+
+    @Scheduled(fixedDelay = 60000)
+    public void evictFinishedBatches() {
+        Instant cutoff = Instant.now().minus(
+            Duration.ofMinutes(apexProperties.getProcessing().getBatchUpload().getRetentionMinutes()));
+        batches.values().removeIf(tracker -> tracker.isFinishedBefore(cutoff));
+    }
+
+    /**
+     * Remove spool directories left by batches a previous run did not finish. Directories
+     * touched within the retention window are kept, since another instance may share the spool.
+     */
+    private void sweepSpool() {
+        ApexProperties.Processing.BatchUpload config = apexProperties.getProcessing().getBatchUpload();
+        Path root = Paths.get(config.getSpoolDirectory());
+        if (!Files.isDirectory(root)) {
+            return;
+        }
+        Instant cutoff = Instant.now().minus(Duration.ofMinutes(config.getRetentionMinutes()));
+        try (Stream<Path> directories = Files.list(root)) {
+            directories
+                .filter(directory -> isUntouchedSince(directory, cutoff))
+                .forEach(directory -> {
+                    log.info("Removing stale batch upload spool {}", directory);
+                    deleteRecursively(directory);
+                });
+        } catch (IOException e) {
+            log.warn("Could not sweep batch upload spool {}: {}", root, e.getMessage());
+        }
+    }
+
+    private boolean isUntouchedSince(Path directory, Instant cutoff) {
+        try {
+            return Files.isDirectory(directory)
+                && Files.getLastModifiedTime(directory).toInstant().isBefore(cutoff);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private void deleteRecursively(Path directory) {
+        try (Stream<Path> files = Files.list(directory)) {
+            files.forEach(this::deleteQuietly);
+        } catch (IOException e) {
+            log.debug("Could not list spool directory {}: {}", directory, e.getMessage());
+        }
+        deleteQuietly(directory);
+    }
+
+    private void ingest(BatchTracker tracker, Path spooled, String fileName, UUID vendorId,
+                        ProcessingPriority priority) {
+        UUID documentId;
+        try (InputStream content = Files.newInputStream(spooled)) {
+            documentId = commandService.uploadDocumentStream(content, fileName, vendorId, priority);
+        } catch (Exception e) {
+            log.warn("Batch {} failed to upload {}: {}", tracker.batchId, fileName, e.getMessage());
+            deleteQuietly(spooled);
+            recordFailure(tracker, fileName, "Upload failed: " + e.getMessage());
+            return;
+        }
+        deleteQuietly(spooled);
+
+        DocumentUploadResponse response = DocumentUploadResponse.builder()
+            .documentId(documentId)
+            .fileName(fileName)
+            .status("SUCCESS")
+            .message("Document uploaded successfully")
+            .build();
+        record(tracker, response, true);
+    }
+
+    private void record(BatchTracker tracker, DocumentUploadResponse response, boolean success) {
+        boolean finished = tracker.record(response, success);
+        notificationService.notifyBatchProgress(tracker.batchId, response, tracker.completed(), tracker.totalFiles);
+        if (finished) {
+            deleteQuietly(tracker.spoolDirectory);
+            BatchUploadResult result = tracker.snapshot();
+            log.info("Batch upload {} completed: {} succeeded, {} failed",
+                tracker.batchId, result.getSuccessfulUploads(), result.getFailedUploads());
+        }
+    }
+
+    private void recordFailure(BatchTracker tracker, String fileName, String message) {
+        DocumentUploadResponse response = DocumentUploadResponse.builder()
+            .fileName(fileName)
+            .status("FAILED")
+            .message(message)
+            .build();
+        record(tracker, response, false);
+    }
+
+    private void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.debug("Could not remove spooled file {}: {}", path, e.getMessage());
+        }
+    }
+
+    private static class BatchTracker {
+        private final String batchId;
+        private final String batchName;
+        private final int totalFiles;
+        private final Path spoolDirectory;
+        private final List<DocumentUploadResponse> results = new ArrayList<>();
+        private final List<UUID> documentIds = new ArrayList<>();
+        private int successful;
+        private int failed;
+        private Instant finishedAt;
+
+        BatchTracker(String batchId, String batchName, int totalFiles, Path spoolDirectory) {
+            this.batchId = batchId;
+            this.batchName = batchName;
+            this.totalFiles = totalFiles;
+            this.spoolDirectory = spoolDirectory;
+            if (totalFiles == 0) {
+                this.finishedAt = Instant.now();
+            }
+        }
+
+        /**
+         * Record a file outcome; returns true when this was the last file of the batch.
+         */
+        synchronized boolean record(DocumentUploadResponse response, boolean success) {
+            results.add(response);
+            if (success) {
+                successful++;
+                documentIds.add(response.getDocumentId());
+            } else {
+                failed++;
+            }
+            if (completed() == totalFiles) {
+                finishedAt = Instant.now();
+                return true;
+            }
+            return false;
+        }
+
+        synchronized int completed() {
+            return successful + failed;
+        }
+
+        synchronized boolean isFinishedBefore(Instant cutoff) {
+            return finishedAt != null && finishedAt.isBefore(cutoff);
+        }
+
+        synchronized BatchUploadResult snapshot() {
+            return BatchUploadResult.builder()
+                .batchId(batchId)
+                .batchName(batchName)
+                .status(finishedAt != null ? STATUS_COMPLETED : STATUS_RUNNING)
+                .totalFiles(totalFiles)
+                .successfulUploads(successful)
+                .failedUploads(failed)
+                .results(List.copyOf(results))
+                .documentIds(List.copyOf(documentIds))
+                .build();
+        }
+    }
+}
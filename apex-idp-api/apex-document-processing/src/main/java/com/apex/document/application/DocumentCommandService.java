@@ -3,19 +3,32 @@ package com.apex.document.application;
 import com.apex.document.domain.Document;
 import com.apex.document.domain.DocumentRepository;
 import com.apex.document.domain.DocumentStatus;
-import com.apex.document.domain.ProcessingStage;
+import com.apex.document.domain.ProcessingPriority;
+import com.apex.document.infrastructure.lock.DocumentLock;
+import com.apex.document.infrastructure.lock.DocumentLockService;
+import com.apex.document.infrastructure.lock.DocumentLockedException;
+import com.apex.document.infrastructure.rendition.PageRenditionService;
+import com.apex.document.infrastructure.search.DocumentText;
+import com.apex.document.infrastructure.search.DocumentTextRepository;
+import com.apex.document.infrastructure.storage.ContentInspectingInputStream;
+import com.apex.document.infrastructure.storage.DocumentStorageException;
 import com.apex.document.infrastructure.storage.DocumentStorageService;
-import com.apex.document.infrastructure.ocr.OcrService;
-import com.apex.document.infrastructure.ocr.OcrResult;
+import com.apex.document.infrastructure.storage.StoredDocument;
 import com.apex.document.application.dto.ValidationRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.Optional;
 import java.util.UUID;
 
 import java.util.UUID;
@@ -31,92 +44,143 @@ public class DocumentCommandService {
     
     private final DocumentRepository documentRepository;
     private final DocumentStorageService storageService;
-    private final OcrService ocrService;
     private final DocumentProcessingOrchestrator orchestrator;
+    private final DocumentTextRepository textRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final DocumentLockService documentLockService;
+    private final PageRenditionService renditionService;
+    
+    private static final long MAX_FILE_SIZE_BYTES = 50L * 1024 * 1024;
     
     // Stub services for now
     private final VirusScanService virusScanService = new VirusScanService();
-    private final AIClassificationService aiClassificationService = new AIClassificationService();
     private final IntegrationService integrationService = new IntegrationService();
-    private final DocumentLockService documentLockService = new DocumentLockService();
     
     /**
      * Upload a new document and initiate processing pipeline.
-     * This is the entry point for document ingestion.
+     * This is the entry point for document ingestion. No transaction is held while the
+     * content is transferred; the document is registered in a short one afterwards.
      */
-    @Transactional
-    public UUID uploadDocument(MultipartFile file, UUID vendorId) {
+    public UUID uploadDocument(MultipartFile file, UUID vendorId, ProcessingPriority priority) {
         log.info("Uploading document: {} for vendor: {}", file.getOriginalFilename(), vendorId);
         
         // Validate file
         validateFile(file);
         
-        // Store file in MinIO
-        String storagePath = storageService.storeDocument(file);
+        try (InputStream content = file.getInputStream()) {
+            return ingest(content, file.getOriginalFilename(), vendorId, priority);
+        } catch (IOException e) {
+            throw new DocumentStorageException("Failed to read uploaded file: " + file.getOriginalFilename(), e);
+        }
+    }
+    
+    /**
+     * Upload a document by streaming its content straight into storage.
+     * Nothing is buffered beyond the storage part size, and no database connection
+     * is held while the content is transferred.
+     */
+    public UUID uploadDocumentStream(InputStream content, String fileName, UUID vendorId,
+                                     ProcessingPriority priority) {
+        log.info("Streaming document upload: {} for vendor: {}", fileName, vendorId);
+        
+        try {
+            return ingest(content, fileName, vendorId, priority);
+        } catch (IOException e) {
+            throw new DocumentStorageException("Failed to stream document: " + fileName, e);
+        }
+    }
+    
+    private UUID ingest(InputStream content, String fileName, UUID vendorId, ProcessingPriority priority)
+            throws IOException {
+        ContentInspectingInputStream inspected = new ContentInspectingInputStream(content, MAX_FILE_SIZE_BYTES);
+        
+        // Sniff the real type from the content instead of trusting the declared one
+        String contentType = storageService.detectContentType(inspected.getHeader(), fileName);
+        if (!isValidFileType(contentType)) {
+            throw new InvalidFileTypeException("Unsupported file type: " + contentType);
+        }
+        
+        // Store file in MinIO - size and hash are computed in the same pass
+        StoredDocument stored;
+        try {
+            stored = storageService.storeDocument(inspected, fileName, contentType);
+        } catch (ContentInspectingInputStream.ContentLengthExceededException e) {
+            throw new FileTooLargeException("File exceeds 50MB limit");
+        }
+        
+        if (stored.size() == 0) {
+            discardStoredCopy(stored.storagePath());
+            throw new InvalidFileTypeException("Uploaded file is empty");
+        }
+        
+        // Registration opens its own short transaction once the content is stored
+        try {
+            return transactionTemplate.execute(status -> register(stored, fileName, vendorId, priority));
+        } catch (RuntimeException e) {
+            // Nothing was registered, so nothing refers to the stored content
+            discardStoredCopy(stored.storagePath());
+            throw e;
+        }
+    }
+    
+    /**
+     * Create the document aggregate, deduplicating on vendor and content hash.
+     * An exact re-upload of a processed document reuses the stored object and earlier
+     * results instead of running the pipeline; either way it is flagged as a possible
+     * duplicate payment.
+     */
+    private UUID register(StoredDocument stored, String fileName, UUID vendorId, ProcessingPriority priority) {
+        Document original = findOriginal(vendorId, stored.sha256()).orElse(null);
+        
+        if (original != null && original.hasReusableResults()) {
+            Document duplicate = documentRepository.save(Document.createDuplicateOf(original, fileName, vendorId, priority));
+            textRepository.findById(original.getId())
+                .ifPresent(text -> textRepository.save(new DocumentText(duplicate.getId(), text.getText())));
+            discardStoredCopy(stored.storagePath());
+            log.warn("Document {} is an exact duplicate of {} for vendor {} - reused results, flagged for review",
+                duplicate.getId(), original.getId(), vendorId);
+            return duplicate.getId();
+        }
         
         // Create document aggregate
         Document document = Document.createFromUpload(
-            file.getOriginalFilename(),
-            file.getSize(),
-            file.getContentType(),
-            storagePath,
-            vendorId
+            fileName,
+            stored.size(),
+            stored.contentType(),
+            stored.storagePath(),
+            stored.sha256(),
+            vendorId,
+            priority
         );
+        if (original != null) {
+            // Original still in the pipeline - nothing to reuse yet, but the copy is still suspect
+            document.flagPossibleDuplicate(original);
+            log.warn("Document {} duplicates {} which is still processing", fileName, original.getId());
+        }
         
         // Save to repository - this will also publish domain events
         document = documentRepository.save(document);
         
         // Initiate async processing pipeline
-        orchestrator.startProcessingPipeline(document.getId());
+        orchestrator.startProcessingPipeline(document);
+        afterCommit(() -> renditionService.submit(stored.storagePath(), stored.contentType()));
         
         log.info("Document uploaded successfully with ID: {}", document.getId());
         return document.getId();
     }
     
-    /**
-     * Process OCR for a document.
-     * Called by the processing pipeline orchestrator.
-     */
-    @Transactional
-    public void processOcr(UUID documentId) {
-        Document document = documentRepository.findById(documentId)
-            .orElseThrow(() -> new DocumentNotFoundException(documentId));
-        
-        try {
-            document.startOcrProcessing();
-            documentRepository.save(document);
-            
-            // Perform OCR using ensemble of engines
-            OcrResult result = ocrService.performOcr(document.getStoragePath());
-            
-            document.completeOcrProcessing(result.getText(), result.getPageCount());
-            documentRepository.save(document);
-            
-            // Continue to next stage
-            orchestrator.proceedToClassification(documentId);
-            
-        } catch (Exception e) {
-            log.error("OCR processing failed for document: {}", documentId, e);
-            document.recordProcessingError("OCR_FAILED", e.getMessage());
-            documentRepository.save(document);
-        }
+    private Optional<Document> findOriginal(UUID vendorId, String contentHash) {
+        return vendorId != null
+            ? documentRepository.findFirstByVendorIdAndContentHashOrderByCreatedAtAsc(vendorId, contentHash)
+            : documentRepository.findFirstByVendorIdIsNullAndContentHashOrderByCreatedAtAsc(contentHash);
     }
     
-    /**
-     * Apply AI classification to determine document type.
-     */
-    @Transactional
-    public void classifyDocument(UUID documentId) {
-        Document document = documentRepository.findById(documentId)
-            .orElseThrow(() -> new DocumentNotFoundException(documentId));
-        
-        ClassificationResult result = aiClassificationService.classify(document);
-        
-        document.applyClassification(result.getType(), result.getConfidence());
-        documentRepository.save(document);
-        
-        if (document.getStage() == ProcessingStage.PENDING_EXTRACTION) {
-            orchestrator.proceedToExtraction(documentId);
+    private void discardStoredCopy(String storagePath) {
+        try {
+            storageService.deleteDocument(storagePath);
+        } catch (DocumentStorageException e) {
+            // An orphaned object wastes space but no document refers to it
+            log.warn("Could not remove unused content at {}: {}", storagePath, e.getMessage());
         }
     }
     
@@ -125,7 +189,14 @@ public class DocumentCommandService {
      * This is called when an AP Clerk approves/corrects extracted data.
      */
     @Transactional
-    public void validateDocument(UUID documentId, ValidationRequest request) {
+    public void validateDocument(UUID documentId, String reviewerId, ValidationRequest request) {
+        // Refuse results from a reviewer whose lock expired or was taken over
+        documentLockService.verify(documentId, reviewerId, request.getLockToken());
+        // The lease can still lapse before commit, so the row itself refuses tokens older than the last write
+        if (documentRepository.advanceValidationFence(documentId, request.getLockToken()) == 0) {
+            throw DocumentLockedException.lost(documentId);
+        }
+        
         Document document = documentRepository.findById(documentId)
             .orElseThrow(() -> new DocumentNotFoundException(documentId));
         
@@ -142,6 +213,7 @@ public class DocumentCommandService {
         }
         
         documentRepository.save(document);
+        afterCommit(() -> documentLockService.release(documentId, reviewerId, request.getLockToken()));
         
         // If approved, send to ERP integration
         if (document.getStatus() == DocumentStatus.APPROVED) {
@@ -150,21 +222,25 @@ public class DocumentCommandService {
     }
     
     /**
-     * Lock document for validation to prevent concurrent editing
+     * Lock document for validation to prevent concurrent editing.
+     * The lock is a lease: the reviewer renews it while the document is open and
+     * presents its fencing token when submitting the validation.
      */
-    @Transactional
-    public void lockDocumentForValidation(UUID documentId, String userId) {
-        Document document = documentRepository.findById(documentId)
-            .orElseThrow(() -> new DocumentNotFoundException(documentId));
-        
-        // Implementation would check if document is already locked
-        // and set lock with expiration time
-        documentLockService.lockDocument(documentId, userId);
+    public DocumentLock lockDocumentForValidation(UUID documentId, String userId) {
+        return documentLockService.acquire(documentId, userId);
+    }
+    
+    public DocumentLock renewValidationLock(UUID documentId, String userId, long lockToken) {
+        return documentLockService.renew(documentId, userId, lockToken);
+    }
+    
+    public void releaseValidationLock(UUID documentId, String userId, long lockToken) {
+        documentLockService.release(documentId, userId, lockToken);
     }
     
     private void validateFile(MultipartFile file) {
         // Check file size (50MB limit as per requirements)
-        if (file.getSize() > 50 * 1024 * 1024) {
+        if (file.getSize() > MAX_FILE_SIZE_BYTES) {
             throw new FileTooLargeException("File exceeds 50MB limit");
         }
         
@@ -178,6 +254,19 @@ public class DocumentCommandService {
         virusScanService.scan(file);
     }
     
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+    
     private boolean isValidFileType(String contentType) {
         return contentType != null && (
             contentType.equals("application/pdf") ||
@@ -186,47 +275,6 @@ public class DocumentCommandService {
             contentType.equals("application/msword")
         );
     }
-    
-    /**
-     * Upload batch of documents
-     */
-    @Transactional
-    public com.apex.document.application.dto.BatchUploadResult uploadBatch(
-            List<MultipartFile> files, String vendorIdStr, java.util.UUID userId) {
-        
-        java.util.UUID vendorId = java.util.UUID.fromString(vendorIdStr);
-        List<com.apex.document.application.dto.DocumentUploadResponse> results = new java.util.ArrayList<>();
-        int successCount = 0;
-        int failureCount = 0;
-        
-        for (MultipartFile file : files) {
-            try {
-                java.util.UUID documentId = uploadDocument(file, vendorId);
-                results.add(com.apex.document.application.dto.DocumentUploadResponse.builder()
-                    .documentId(documentId)
-                    .fileName(file.getOriginalFilename())
-                    .status("SUCCESS")
-                    .message("Document uploaded successfully")
-                    .build());
-                successCount++;
-            } catch (Exception e) {
-                results.add(com.apex.document.application.dto.DocumentUploadResponse.builder()
-                    .fileName(file.getOriginalFilename())
-                    .status("FAILED")
-                    .message("Upload failed: " + e.getMessage())
-                    .build());
-                failureCount++;
-            }
-        }
-        
-        return com.apex.document.application.dto.BatchUploadResult.builder()
-            .batchId(java.util.UUID.randomUUID().toString())
-            .totalFiles(files.size())
-            .successfulUploads(successCount)
-            .failedUploads(failureCount)
-            .results(results)
-            .build();
-    }
 }
 
 // Stub service classes for compilation
@@ -256,14 +304,15 @@ class ClassificationResult {
     public java.math.BigDecimal getConfidence() { return confidence; }
 }
 
-class IntegrationService {
-    public void sendToErp(UUID documentId) {
-        // TODO: Implement ERP integration
+class FieldExtractionService {
+    public java.util.List<com.apex.document.domain.ExtractedField> extract(Document document) {
+        // TODO: Implement AI field extraction
+        return java.util.List.of();
     }
 }
 
-class DocumentLockService {
-    public void lockDocument(UUID documentId, String userId) {
-        // TODO: Implement document locking
+class IntegrationService {
+    public void sendToErp(UUID documentId) {
+        // TODO: Implement ERP integration
     }
 }
@@ -1,26 +1,258 @@
 package com.apex.document.application;
 
+import com.apex.core.config.ApexProperties;
+import com.apex.document.domain.Document;
+import com.apex.document.domain.DocumentRepository;
+import com.apex.document.domain.ProcessingPriority;
+import com.apex.document.domain.ProcessingStage;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 
 /**
- * Orchestrates the document processing pipeline
+ * Orchestrates the document processing pipeline.
+ * Each stage has its own bounded queue and worker pool. Submissions never block:
+ * when a stage queue is full the document simply stays in its pending stage and is
+ * picked up by the recovery sweep once capacity frees up, so a slow OCR stage
+ * applies backpressure without stalling uploads.
+ * Stage queues are weighted fair queues over upload priority and vendor (see
+ * FairSchedulingQueue), so bulk submissions cannot starve urgent uploads.
+ * A failed run is recorded on the document, which the sweep retries until
+ * apex.processing.retry-attempts runs have failed; OCR claims that outlive their
+ * lease, because the worker died, are released the same way.
  */
+@Slf4j
 @Service
 public class DocumentProcessingOrchestrator {
-    
-    public void startProcessingPipeline(UUID documentId) {
-        // TODO: Implement async processing pipeline
-        System.out.println("Starting processing pipeline for document: " + documentId);
-    }
-    
-    public void proceedToClassification(UUID documentId) {
-        // TODO: Implement classification step
-        System.out.println("Proceeding to classification for document: " + documentId);
-    }
-    
-    public void proceedToExtraction(UUID documentId) {
-        // TODO: Implement extraction step
-        System.out.println("Proceeding to extraction for document: " + documentId);
+
+    private final DocumentProcessingStages stages;
+    private final DocumentRepository documentRepository;
+    private final ApexProperties apexProperties;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<ProcessingStage, StageExecutor> executors = new EnumMap<>(ProcessingStage.class);
+    private final Set<UUID> inFlight = ConcurrentHashMap.newKeySet();
+
+    public DocumentProcessingOrchestrator(DocumentProcessingStages stages,
+                                          DocumentRepository documentRepository,
+                                          ApexProperties apexProperties,
+                                          MeterRegistry meterRegistry) {
+        this.stages = stages;
+        this.documentRepository = documentRepository;
+        this.apexProperties = apexProperties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    void start() {
+        ApexProperties.Processing.Pipeline pipeline = apexProperties.getProcessing().getPipeline();
+        executors.put(ProcessingStage.PENDING_OCR,
+            new StageExecutor(ProcessingStage.PENDING_OCR, "ocr", pipeline.getOcr(), stages::runOcr));
+        executors.put(ProcessingStage.PENDING_CLASSIFICATION,
+            new StageExecutor(ProcessingStage.PENDING_CLASSIFICATION, "classification",
+                pipeline.getClassification(), stages::runClassification));
+        executors.put(ProcessingStage.PENDING_EXTRACTION,
+            new StageExecutor(ProcessingStage.PENDING_EXTRACTION, "extraction",
+                pipeline.getExtraction(), stages::runExtraction));
+    }
+
+    @PreDestroy
+    void stop() {
+        executors.values().forEach(executor -> executor.pool.shutdown());
+    }
+
+    public void startProcessingPipeline(Document document) {
+        PipelineTask.Key key = PipelineTask.of(document);
+        afterCommit(() -> submit(ProcessingStage.PENDING_OCR, key));
+    }
+
+    public void proceedToClassification(Document document) {
+        PipelineTask.Key key = PipelineTask.of(document);
+        afterCommit(() -> submit(ProcessingStage.PENDING_CLASSIFICATION, key));
+    }
+
+    public void proceedToExtraction(Document document) {
+        PipelineTask.Key key = PipelineTask.of(document);
+        afterCommit(() -> submit(ProcessingStage.PENDING_EXTRACTION, key));
+    }
+
+    /**
+     * Refill stage queues from the database.
+     * Picks up documents rejected by a full queue, work lost on restart, failed runs
+     * waiting for another attempt, and OCR claims whose worker died.
+     */
+    @Scheduled(fixedDelayString = "${apex.processing.pipeline.recovery-interval-ms:30000}")
+    public void recoverPendingDocuments() {
+        int batchSize = apexProperties.getProcessing().getPipeline().getRecoveryBatchSize();
+        releaseExpiredOcrClaims(batchSize);
+        executors.forEach((stage, executor) -> {
+            int capacity = Math.min(executor.pool.getQueue().remainingCapacity(), batchSize);
+            if (capacity <= 0) {
+                return;
+            }
+            List<DocumentRepository.PendingDocument> pending =
+                documentRepository.findPendingByStage(stage, PageRequest.of(0, capacity));
+            pending.forEach(document -> submit(stage, PipelineTask.of(document)));
+            if (!pending.isEmpty()) {
+                log.debug("Recovered {} documents waiting in stage {}", pending.size(), stage);
+            }
+        });
+    }
+
+    private void releaseExpiredOcrClaims(int batchSize) {
+        int leaseSeconds = apexProperties.getProcessing().getPipeline().getOcrLeaseSeconds();
+        Instant cutoff = Instant.now().minusSeconds(leaseSeconds);
+        for (UUID documentId : documentRepository.findExpiredOcrClaims(cutoff, PageRequest.of(0, batchSize))) {
+            if (inFlight.contains(documentId)) {
+                // Still running on this node, just slow
+                continue;
+            }
+            try {
+                stages.recordFailure(ProcessingStage.PENDING_OCR, documentId, "OCR_LEASE_EXPIRED",
+                    "OCR claim not completed within " + leaseSeconds + "s");
+                log.warn("Released expired OCR claim on document {}", documentId);
+            } catch (ConcurrencyFailureException e) {
+                log.debug("Expired OCR claim on document {} was released concurrently", documentId);
+            }
+        }
+    }
+
+    private void submit(ProcessingStage stage, PipelineTask.Key key) {
+        StageExecutor executor = executors.get(stage);
+        if (executor == null || !inFlight.add(key.documentId())) {
+            return;
+        }
+        try {
+            executor.pool.execute(key.task(() -> run(executor, key)));
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(key.documentId());
+            executor.rejected.increment();
+            log.debug("Stage {} queue full, document {} left for recovery sweep", executor.name, key.documentId());
+        }
+    }
+
+    private void run(StageExecutor executor, PipelineTask.Key key) {
+        ProcessingStage next;
+        try {
+            next = executor.work.apply(key.documentId());
+        } catch (ConcurrencyFailureException e) {
+            // Another worker changed the document first; not a failure of this document
+            log.debug("Stage {} lost a concurrent update of document {}", executor.name, key.documentId());
+            return;
+        } catch (Exception e) {
+            log.error("Stage {} failed for document: {}", executor.name, key.documentId(), e);
+            recordFailure(executor, key.documentId(), e);
+            return;
+        } finally {
+            inFlight.remove(key.documentId());
+        }
+        if (next != null && executors.containsKey(next)) {
+            submit(next, key);
+        }
+    }
+
+    private void recordFailure(StageExecutor executor, UUID documentId, Exception failure) {
+        String message = failure.getMessage() != null ? failure.getMessage() : failure.getClass().getName();
+        try {
+            // Left in its pending stage, or in ERROR, for the recovery sweep to pick up or skip
+            stages.recordFailure(executor.stage, documentId, executor.errorType, message);
+        } catch (Exception e) {
+            log.error("Could not record {} failure for document {}", executor.name, documentId, e);
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        // Workers must not see the document before the uploading transaction commits
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private class StageExecutor {
+        private final ProcessingStage stage;
+        private final String name;
+        private final String errorType;
+        private final ThreadPoolExecutor pool;
+        private final Function<UUID, ProcessingStage> work;
+        private final Counter rejected;
+        private final Map<ProcessingPriority, Timer> waitTimers = new EnumMap<>(ProcessingPriority.class);
+
+        StageExecutor(ProcessingStage stage, String name, ApexProperties.Processing.Stage config,
+                      Function<UUID, ProcessingStage> work) {
+            this.stage = stage;
+            this.name = name;
+            this.errorType = name.toUpperCase() + "_FAILED";
+            this.work = work;
+            FairSchedulingQueue queue = new FairSchedulingQueue(config.getQueueCapacity(), this::displaced);
+            this.pool = new ThreadPoolExecutor(
+                config.getWorkers(),
+                config.getWorkers(),
+                0L,
+                TimeUnit.MILLISECONDS,
+                queue,
+                new CustomizableThreadFactory("pipeline-" + name + "-"),
+                new ThreadPoolExecutor.AbortPolicy()
+            ) {
+                @Override
+                protected void beforeExecute(Thread thread, Runnable runnable) {
+                    PipelineTask task = (PipelineTask) runnable;
+                    waitTimers.get(task.priority).record(System.nanoTime() - task.enqueuedNanos, TimeUnit.NANOSECONDS);
+                }
+            };
+            this.rejected = Counter.builder("apex.pipeline.rejected")
+                .tag("stage", name)
+                .description("Documents not enqueued because the stage queue was full")
+                .register(meterRegistry);
+            Gauge.builder("apex.pipeline.active.workers", pool, ThreadPoolExecutor::getActiveCount)
+                .tag("stage", name)
+                .register(meterRegistry);
+            for (ProcessingPriority priority : ProcessingPriority.values()) {
+                Gauge.builder("apex.pipeline.queue.depth", queue, q -> q.countByPriority(priority))
+                    .tag("stage", name)
+                    .tag("priority", priority.name())
+                    .register(meterRegistry);
+                waitTimers.put(priority, Timer.builder("apex.pipeline.queue.wait")
+                    .tag("stage", name)
+                    .tag("priority", priority.name())
+                    .description("Time documents spent queued before a worker picked them up")
+                    .register(meterRegistry));
+            }
+        }
+
+        private void displaced(PipelineTask task) {
+            // Pushed out by higher-ranked work; still pending in the database
+            inFlight.remove(task.documentId);
+            rejected.increment();
+        }
     }
 }
@@ -0,0 +1,153 @@
+package com.apex.document.application;
+
+import com.apex.core.config.ApexProperties;
+import com.apex.document.domain.Document;
+import com.apex.document.domain.DocumentRepository;
+import com.apex.document.domain.ExtractedField;
+import com.apex.document.domain.ProcessingStage;
+import com.apex.document.infrastructure.ocr.OcrResult;
+import com.apex.document.infrastructure.ocr.OcrService;
+import com.apex.document.infrastructure.search.DocumentText;
+import com.apex.document.infrastructure.search.DocumentTextRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Work performed by each stage of the processing pipeline.
+ * Every stage commits its own short transaction; slow work such as OCR runs
+ * between transactions so it never holds a database connection.
+ * Each method returns the stage the document moved to, or null if the document
+ * was not in the expected stage (already handled elsewhere). A stage that throws
+ * leaves the document in place; the orchestrator records the failed attempt.
+ */
+@Slf4j
+@Service
+public class DocumentProcessingStages {
+
+    private final DocumentRepository documentRepository;
+    private final OcrService ocrService;
+    private final DocumentTextRepository textRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxAttempts;
+
+    // Stub services for now
+    private final AIClassificationService aiClassificationService = new AIClassificationService();
+    private final FieldExtractionService fieldExtractionService = new FieldExtractionService();
+
+    public DocumentProcessingStages(DocumentRepository documentRepository,
+                                    OcrService ocrService,
+                                    DocumentTextRepository textRepository,
+                                    ApexProperties apexProperties,
+                                    PlatformTransactionManager transactionManager) {
+        this.documentRepository = documentRepository;
+        this.ocrService = ocrService;
+        this.textRepository = textRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxAttempts = Math.max(1, apexProperties.getProcessing().getRetryAttempts());
+    }
+
+    /**
+     * Run OCR for a document.
+     * The document is claimed in one transaction, OCR runs with no transaction open,
+     * and the result is recorded in a second transaction. The claim is timestamped so
+     * the recovery sweep can release it if this worker dies before finishing.
+     */
+    public ProcessingStage runOcr(UUID documentId) {
+        Document claimed = transactionTemplate.execute(status -> {
+            Document document = load(documentId);
+            if (document.getStage() != ProcessingStage.PENDING_OCR) {
+                return null;
+            }
+            document.startOcrProcessing();
+            return documentRepository.save(document);
+        });
+        if (claimed == null) {
+            return null;
+        }
+
+        // Perform OCR using ensemble of engines - cached by content hash
+        OcrResult result = ocrService.performOcr(claimed.getStoragePath(), claimed.getContentHash());
+
+        return transactionTemplate.execute(status -> {
+            Document document = load(documentId);
+            if (document.getStage() != ProcessingStage.OCR_IN_PROGRESS) {
+                // The claim expired and was released while OCR was running
+                return null;
+            }
+            String text = result.getText();
+            document.completeOcrProcessing(text, result.getPageCount());
+            // Kept for full-text search; events only carry the length
+            textRepository.save(new DocumentText(documentId, text));
+            return documentRepository.save(document).getStage();
+        });
+    }
+
+    /**
+     * Apply AI classification to determine document type.
+     */
+    public ProcessingStage runClassification(UUID documentId) {
+        return transactionTemplate.execute(status -> {
+            Document document = load(documentId);
+            if (document.getStage() != ProcessingStage.PENDING_CLASSIFICATION) {
+                return null;
+            }
+
+            ClassificationResult result = aiClassificationService.classify(document);
+            document.applyClassification(result.getType(), result.getConfidence());
+            return documentRepository.save(document).getStage();
+        });
+    }
+
+    /**
+     * Extract fields and decide whether the document needs human validation.
+     */
+    public ProcessingStage runExtraction(UUID documentId) {
+        return transactionTemplate.execute(status -> {
+            Document document = load(documentId);
+            if (document.getStage() != ProcessingStage.PENDING_EXTRACTION) {
+                return null;
+            }
+
+            List<ExtractedField> fields = fieldExtractionService.extract(document);
+            document.addExtractedFields(fields);
+            document.validateExtraction();
+            return documentRepository.save(document).getStage();
+        });
+    }
+
+    /**
+     * Record a failed run of a stage, unless the document has moved on in the meantime.
+     * Returns the stage the document is left in: the pending stage again while attempts
+     * remain, ERROR once apex.processing.retry-attempts runs have failed.
+     */
+    public ProcessingStage recordFailure(ProcessingStage pendingStage, UUID documentId,
+                                         String errorType, String message) {
+        return transactionTemplate.execute(status -> {
+            Document document = documentRepository.findById(documentId).orElse(null);
+            if (document == null || !isAwaiting(document, pendingStage)) {
+                return null;
+            }
+            document.failProcessingAttempt(pendingStage, errorType, message, maxAttempts);
+            ProcessingStage stage = documentRepository.save(document).getStage();
+            if (stage == ProcessingStage.ERROR) {
+                log.error("Document {} failed {} times, giving up: {}", documentId, maxAttempts, message);
+            }
+            return stage;
+        });
+    }
+
+    private static boolean isAwaiting(Document document, ProcessingStage pendingStage) {
+        return document.getStage() == pendingStage
+            || pendingStage == ProcessingStage.PENDING_OCR && document.getStage() == ProcessingStage.OCR_IN_PROGRESS;
+    }
+
+    private Document load(UUID documentId) {
+        return documentRepository.findById(documentId)
+            .orElseThrow(() -> new DocumentNotFoundException(documentId));
+    }
+}
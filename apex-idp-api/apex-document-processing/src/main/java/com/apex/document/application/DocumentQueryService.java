@@ -1,25 +1,45 @@
 package com.apex.document.application;
 
+import com.apex.core.api.CursorPage;
+import com.apex.core.api.PageCursor;
+import com.apex.core.exceptions.BusinessValidationException;
+import com.apex.core.exceptions.ResourceNotFoundException;
+import com.apex.document.application.dto.DocumentDownloadResponse;
 import com.apex.document.application.dto.DocumentDTO;
+import com.apex.document.application.dto.DocumentHistoryDTO;
 import com.apex.document.application.dto.DocumentStatusDTO;
 import com.apex.document.application.dto.DocumentValidationDTO;
+import com.apex.document.application.dto.PageRenditionDTO;
 import com.apex.document.application.dto.ProcessingStatistics;
 import com.apex.document.application.dto.SearchCriteria;
 import com.apex.document.application.dto.ValidationQueueDTO;
 import com.apex.document.infrastructure.projection.DocumentProjection;
 import com.apex.document.infrastructure.projection.DocumentProjectionRepository;
 import com.apex.document.infrastructure.search.DocumentSearchService;
+import com.apex.document.infrastructure.statistics.ProcessingStatisticsEngine;
+import com.apex.document.infrastructure.eventstore.DocumentEventSourcedRepository;
+import com.apex.document.infrastructure.rendition.PageRenditionService;
+import com.apex.document.infrastructure.rendition.RenditionImage;
+import com.apex.document.infrastructure.rendition.RenditionManifest;
 import com.apex.document.infrastructure.storage.DocumentStorageService;
+import com.apex.document.infrastructure.storage.PresignedUrl;
+import com.apex.document.domain.Document;
+import com.apex.document.domain.DocumentRepository;
 import com.apex.document.domain.ProcessingStage;
 import com.apex.document.domain.DocumentType;
+import com.apex.document.domain.ProcessingPriority;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -50,7 +70,12 @@ public class DocumentQueryService {
     private final DocumentProjectionRepository projectionRepository;
     private final DocumentSearchService searchService;
     private final DocumentStorageService storageService;
-    private static final String PENDING_REVIEW_STATUS = "PENDING_REVIEW";
+    private final DocumentRepository documentRepository;
+    private final PageRenditionService renditionService;
+    private final ProcessingStatisticsEngine statisticsEngine;
+    private final DocumentEventSourcedRepository eventSourcedRepository;
+    private static final String PENDING_VALIDATION_STAGE = ProcessingStage.PENDING_VALIDATION.name();
+    private static final String VALIDATION_QUEUE_LISTING = "validation-queue";
     
     /**
      * Get documents pending validation for AP Clerks.
@@ -58,12 +83,43 @@ public class DocumentQueryService {
      */
     public Page<ValidationQueueDTO> getValidationQueue(Pageable pageable) {
         return projectionRepository.findByStageAndConfidenceScoreLessThan(
-            PENDING_REVIEW_STATUS,
+            PENDING_VALIDATION_STAGE,
             0.80,
             pageable
         ).map(this::toValidationQueueDTO);
     }
     
+    /**
+     * Get one keyset page of the validation queue, lowest confidence first.
+     * The cursor from the previous page replaces an offset, so deep pages are as cheap as the first.
+     */
+    public CursorPage<ValidationQueueDTO> getValidationQueue(BigDecimal threshold, String cursor, int size) {
+        Limit limit = Limit.of(size + 1);
+        List<DocumentProjection> rows;
+        if (cursor == null) {
+            rows = projectionRepository.findValidationQueue(PENDING_VALIDATION_STAGE, threshold.doubleValue(), limit);
+        } else {
+            List<String> after = PageCursor.decode(cursor, VALIDATION_QUEUE_LISTING, 3);
+            try {
+                rows = projectionRepository.findValidationQueueAfter(PENDING_VALIDATION_STAGE, threshold.doubleValue(),
+                    Double.valueOf(after.get(0)), LocalDateTime.parse(after.get(1)), after.get(2), limit);
+            } catch (NullPointerException | IllegalArgumentException | DateTimeParseException e) {
+                throw new BusinessValidationException("Invalid page cursor");
+            }
+        }
+        
+        String next = null;
+        if (rows.size() > size) {
+            rows = rows.subList(0, size);
+            DocumentProjection last = rows.get(size - 1);
+            // Same key the queue is ordered by: a missing confidence sorts as zero
+            double confidence = last.getConfidenceScore() != null ? last.getConfidenceScore() : 0.0;
+            next = PageCursor.encode(VALIDATION_QUEUE_LISTING, List.of(
+                Double.toString(confidence), last.getUploadedAt().toString(), last.getId()));
+        }
+        return new CursorPage<>(rows, next).map(this::toValidationQueueDTO);
+    }
+    
     /**
      * Get document details with extracted fields for validation UI.
      */
@@ -76,34 +132,69 @@ public class DocumentQueryService {
             .filename(projection.getFileName())
             .stage(ProcessingStage.valueOf(projection.getStage()))
             .isValid(projection.isValid())
-            .extractedFields(convertToObjectMap(projection.getExtractedFields()))
+            .extractedFields(extractedFields(projection))
             .overallConfidence(projection.getExtractionConfidence())
             .build();
     }
     
     /**
-     * Search documents using Elasticsearch for full-text search.
+     * Search documents using the full-text index.
      */
     public Page<DocumentDTO> searchDocuments(SearchCriteria criteria, Pageable pageable) {
         return searchService.search(criteria, pageable)
             .map(this::toDocumentDTO);
     }
     
+    /**
+     * Search documents one keyset page at a time.
+     */
+    public CursorPage<DocumentDTO> searchDocuments(SearchCriteria criteria, Sort sort, String cursor, int size) {
+        return searchService.search(criteria, sort, cursor, size)
+            .map(this::toDocumentDTO);
+    }
+    
     /**
      * Get processing statistics for dashboard.
+     * Maintained incrementally from domain events, so this never touches the database.
      */
     public ProcessingStatistics getProcessingStatistics() {
-        return ProcessingStatistics.builder()
-            .totalDocuments(projectionRepository.count())
-            .documentsProcessed(projectionRepository.countByStage(PENDING_REVIEW_STATUS))
-            .documentsInProgress(projectionRepository.countByUploadedAtAfter(java.time.LocalDate.now().atStartOfDay()))
-            .averageProcessingTime(projectionRepository.calculateAverageConfidence() != null ? 
-                projectionRepository.calculateAverageConfidence() : 0.0)
-            .successRate(0.95) // TODO: Calculate actual success rate
-            .lastUpdated(java.time.LocalDateTime.now())
+        return statisticsEngine.current();
+    }
+    
+    /**
+     * A document rebuilt from its events, compared with its stored row, to audit how it
+     * reached its state or find rows that need repair. Loading may write a snapshot.
+     */
+    @Transactional
+    public DocumentHistoryDTO getDocumentHistory(UUID documentId) {
+        Document replayed = eventSourcedRepository.load(documentId)
+            .orElseThrow(() -> new ResourceNotFoundException("Document", documentId.toString()));
+        Optional<Document> stored = documentRepository.findById(documentId);
+        
+        return DocumentHistoryDTO.builder()
+            .id(documentId)
+            .stage(replayed.getStage())
+            .status(replayed.getStatus().name())
+            .type(replayed.getType())
+            .extractionConfidence(replayed.getExtractionConfidence())
+            .extractedFieldCount(replayed.getExtractedFields().size())
+            .processingAttempts(replayed.getProcessingAttempts())
+            .matchesStored(stored.map(document -> sameState(replayed, document)).orElse(false))
             .build();
     }
     
+    private static boolean sameState(Document replayed, Document stored) {
+        return replayed.getStage() == stored.getStage()
+            && replayed.getStatus() == stored.getStatus()
+            && replayed.getType() == stored.getType()
+            && replayed.getProcessingAttempts() == stored.getProcessingAttempts()
+            && replayed.getExtractedFields().size() == stored.getExtractedFields().size()
+            && (replayed.getExtractionConfidence() == null
+                ? stored.getExtractionConfidence() == null
+                : stored.getExtractionConfidence() != null
+                    && replayed.getExtractionConfidence().compareTo(stored.getExtractionConfidence()) == 0);
+    }
+    
     /**
      * Get document status for real-time updates
      */
@@ -130,7 +221,7 @@ public class DocumentQueryService {
                 java.math.BigDecimal.valueOf(projection.getExtractionConfidence()) : 
                 java.math.BigDecimal.ZERO)
             .submittedAt(projection.getCreatedAt())
-            .priority(1) // Default priority
+            .priority(ProcessingPriority.from(projection.getPriority()).getRank())
             .validationStage("PENDING")
             .build();
     }
@@ -144,17 +235,12 @@ public class DocumentQueryService {
             .userId(projection.getUserId())
             .uploadedAt(projection.getCreatedAt())
             .lastModified(projection.getUpdatedAt())
-            .extractedFields(convertToObjectMap(projection.getExtractedFields()))
+            .extractedFields(extractedFields(projection))
             .confidenceScore(projection.getExtractionConfidence())
             .storagePath(projection.getStoragePath())
             .build();
     }
     
-    private String generateSecureUrl(String storagePath) {
-        // Generate pre-signed URL for secure document access
-        return storageService.generatePresignedUrl(storagePath);
-    }
-    
     private int calculateProgress(ProcessingStage stage) {
         return switch (stage) {
             case PENDING_OCR -> 10;
@@ -167,31 +253,84 @@ public class DocumentQueryService {
         };
     }
     
-    private String calculatePriority(DocumentProjection projection) {
-        // Calculate priority based on confidence, age, and vendor tier
-        BigDecimal confidence = projection.getExtractionConfidence() != null ? 
-            BigDecimal.valueOf(projection.getExtractionConfidence()) : BigDecimal.ZERO;
-        long ageHours = java.time.Duration.between(projection.getCreatedAt(), java.time.Instant.now()).toHours();
-        
-        if (confidence.compareTo(new BigDecimal("0.50")) < 0 || ageHours > 24) {
-            return "HIGH";
-        } else if (confidence.compareTo(new BigDecimal("0.70")) < 0 || ageHours > 8) {
-            return "MEDIUM";
-        } else {
-            return "LOW";
-        }
+    /**
+     * Where a document's content is stored and what it is, for streaming it.
+     */
+    public DocumentRepository.StoredContent getStoredContent(UUID documentId) {
+        return documentRepository.findStoredContentById(documentId)
+            .orElseThrow(() -> new ResourceNotFoundException("Document", documentId.toString()));
+    }
+    
+    /**
+     * Download details for a document. Content in MinIO is fetched from MinIO directly
+     * with a presigned URL; otherwise the client is sent to the given API content URL.
+     */
+    public DocumentDownloadResponse getDownload(UUID documentId, String contentUrl) {
+        DocumentRepository.StoredContent content = getStoredContent(documentId);
+        Optional<PresignedUrl> presigned = storageService.presignedUrl(content.getStoragePath());
+        return DocumentDownloadResponse.builder()
+            .documentId(documentId.toString())
+            .filename(content.getFileName())
+            .contentType(content.getMimeType())
+            .fileSize(content.getFileSize() != null ? content.getFileSize() : 0)
+            .downloadUrl(presigned.map(PresignedUrl::url).orElse(contentUrl))
+            .expiresAt(presigned.map(url -> LocalDateTime.ofInstant(url.expiresAt(), ZoneId.systemDefault())).orElse(null))
+            .checksum(content.getContentHash())
+            .build();
     }
     
-    public String generateSecureDownloadUrl(String documentId) {
-        // Generate a secure download URL with expiry
-        // This is a placeholder implementation
-        return "/api/documents/" + documentId + "/download?token=" + UUID.randomUUID();
+    /**
+     * Rendered pages of a document, rendering them first if that has not happened yet.
+     * Image URLs point at MinIO directly when possible, otherwise below the given pages URL.
+     */
+    public List<PageRenditionDTO> getPageRenditions(UUID documentId, String pagesUrl) {
+        DocumentRepository.StoredContent content = getStoredContent(documentId);
+        return toPageRenditionDTOs(content.getStoragePath(),
+            renditionService.get(content.getStoragePath(), content.getMimeType()), pagesUrl);
+    }
+    
+    /**
+     * Rendered pages of a document if they are ready; never waits for rendering.
+     */
+    public List<PageRenditionDTO> findPageRenditions(UUID documentId, String pagesUrl) {
+        DocumentRepository.StoredContent content = getStoredContent(documentId);
+        return renditionService.find(content.getStoragePath())
+            .map(manifest -> toPageRenditionDTOs(content.getStoragePath(), manifest, pagesUrl))
+            .orElse(List.of());
+    }
+    
+    /**
+     * A page image or thumbnail to stream.
+     */
+    public RenditionImage getPageImage(UUID documentId, int pageNumber, boolean thumbnail) {
+        DocumentRepository.StoredContent content = getStoredContent(documentId);
+        return renditionService.image(content.getStoragePath(), content.getMimeType(), pageNumber, thumbnail)
+            .orElseThrow(() -> new ResourceNotFoundException("Page", documentId + "/" + pageNumber));
     }
     
     // Helper methods
-    private Map<String, Object> convertToObjectMap(Map<String, String> stringMap) {
-        if (stringMap == null) return Map.of();
-        return stringMap.entrySet().stream()
-            .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+    private List<PageRenditionDTO> toPageRenditionDTOs(String storagePath, RenditionManifest manifest, String pagesUrl) {
+        return manifest.pages().stream()
+            .map(page -> PageRenditionDTO.builder()
+                .pageNumber(page.pageNumber())
+                .width(page.width())
+                .height(page.height())
+                .coordinateScale(page.coordinateScale())
+                .imageUrl(pageImageUrl(storagePath, page.pageNumber(), false, pagesUrl))
+                .thumbnailUrl(pageImageUrl(storagePath, page.pageNumber(), true, pagesUrl))
+                .thumbnailWidth(page.thumbnailWidth())
+                .thumbnailHeight(page.thumbnailHeight())
+                .build())
+            .toList();
+    }
+    
+    private String pageImageUrl(String storagePath, int pageNumber, boolean thumbnail, String pagesUrl) {
+        return storageService.presignedUrl(renditionService.imagePath(storagePath, pageNumber, thumbnail))
+            .map(PresignedUrl::url)
+            .orElse(pagesUrl + "/" + pageNumber + (thumbnail ? "/thumbnail" : ""));
+    }
+    
+    private Map<String, Object> extractedFields(DocumentProjection projection) {
+        return projection.getExtractedFields() != null ? projection.getExtractedFields() : Map.of();
     }
 }
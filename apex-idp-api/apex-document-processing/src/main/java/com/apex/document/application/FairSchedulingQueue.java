@@ -0,0 +1,119 @@
+package com.apex.document.application;
+
+import com.apex.document.domain.ProcessingPriority;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Bounded, weighted fair work queue for a pipeline stage (self-clocked fair queueing).
+ * Every vendor/priority pair is a flow. A task's finish tag is the later of the
+ * virtual clock and its flow's previous tag, plus 1 / priority weight; workers always
+ * take the lowest tag. A vendor dumping hundreds of documents therefore only advances
+ * its own flow, and URGENT work gets eight times the share of LOW work.
+ * The virtual clock moves to the tag of every task taken, and new tasks are never
+ * tagged below it, so waiting work is only overtaken by a bounded amount of newer
+ * work - low priority tasks age into service instead of starving.
+ * When full, a new task displaces the queued task with the highest tag if its own tag
+ * is lower; displaced and rejected tasks stay pending in the database for recovery.
+ */
+final class FairSchedulingQueue extends PriorityBlockingQueue<Runnable> {
+
+    private static final int FLOW_PRUNE_THRESHOLD = 1024;
+    private static final Comparator<Runnable> ORDER = Comparator
+        .comparingDouble((Runnable task) -> ((PipelineTask) task).finishTag)
+        .thenComparingLong(task -> ((PipelineTask) task).sequence);
+
+    private final int capacity;
+    private final Consumer<PipelineTask> onDisplaced;
+    private final Map<String, Double> flowTags = new HashMap<>();
+    private double virtualTime;
+    private long sequence;
+
+    FairSchedulingQueue(int capacity, Consumer<PipelineTask> onDisplaced) {
+        super(capacity, ORDER);
+        this.capacity = capacity;
+        this.onDisplaced = onDisplaced;
+    }
+
+    @Override
+    public boolean offer(Runnable runnable) {
+        PipelineTask task = (PipelineTask) runnable;
+        PipelineTask displaced = null;
+        synchronized (this) {
+            String flow = task.flow();
+            task.finishTag = Math.max(virtualTime, flowTags.getOrDefault(flow, 0d)) + 1d / task.priority.getWeight();
+            task.sequence = sequence++;
+
+            if (size() >= capacity) {
+                PipelineTask last = last();
+                if (last == null || ORDER.compare(task, last) >= 0 || !remove(last)) {
+                    return false;
+                }
+                displaced = last;
+            }
+            flowTags.put(flow, task.finishTag);
+            super.offer(task);
+        }
+        if (displaced != null) {
+            onDisplaced.accept(displaced);
+        }
+        return true;
+    }
+
+    @Override
+    public Runnable take() throws InterruptedException {
+        return advance(super.take());
+    }
+
+    @Override
+    public Runnable poll(long timeout, TimeUnit unit) throws InterruptedException {
+        return advance(super.poll(timeout, unit));
+    }
+
+    @Override
+    public Runnable poll() {
+        return advance(super.poll());
+    }
+
+    @Override
+    public int remainingCapacity() {
+        return Math.max(0, capacity - size());
+    }
+
+    int countByPriority(ProcessingPriority priority) {
+        int count = 0;
+        for (Object task : toArray()) {
+            if (((PipelineTask) task).priority == priority) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private synchronized Runnable advance(Runnable runnable) {
+        if (runnable != null) {
+            virtualTime = Math.max(virtualTime, ((PipelineTask) runnable).finishTag);
+            if (flowTags.size() > FLOW_PRUNE_THRESHOLD) {
+                // Flows at or behind the clock would be tagged from the clock anyway
+                flowTags.values().removeIf(tag -> tag <= virtualTime);
+            }
+        }
+        return runnable;
+    }
+
+    private PipelineTask last() {
+        PipelineTask last = null;
+        for (Object element : toArray()) {
+            PipelineTask task = (PipelineTask) element;
+            if (last == null || ORDER.compare(task, last) > 0) {
+                last = task;
+            }
+        }
+        return last;
+    }
+}
@@ -0,0 +1,64 @@
+package com.apex.document.application;
+
+import com.apex.document.domain.Document;
+import com.apex.document.domain.DocumentRepository;
+import com.apex.document.domain.ProcessingPriority;
+
+import java.util.UUID;
+
+/**
+ * A document waiting for a pipeline stage.
+ * Carries what the scheduler orders by - priority and vendor - so queueing never
+ * needs to load the document. The virtual finish tag is assigned by FairSchedulingQueue.
+ */
+final class PipelineTask implements Runnable {
+
+    final UUID documentId;
+    final UUID vendorId;
+    final ProcessingPriority priority;
+    final long enqueuedNanos = System.nanoTime();
+
+    private final Runnable body;
+
+    double finishTag;
+    long sequence;
+
+    private PipelineTask(UUID documentId, UUID vendorId, ProcessingPriority priority, Runnable body) {
+        this.documentId = documentId;
+        this.vendorId = vendorId;
+        this.priority = priority;
+        this.body = body;
+    }
+
+    static Key of(Document document) {
+        return new Key(document.getId(), document.getVendorId(), document.getPriority());
+    }
+
+    static Key of(DocumentRepository.PendingDocument pending) {
+        ProcessingPriority priority = pending.getPriority() != null ? pending.getPriority() : ProcessingPriority.NORMAL;
+        return new Key(pending.getId(), pending.getVendorId(), priority);
+    }
+
+    /**
+     * Flow the task is scheduled in: each vendor gets a separate queue per priority,
+     * so an urgent upload never waits behind the same vendor's bulk submission.
+     */
+    String flow() {
+        return (vendorId != null ? vendorId.toString() : "none") + ":" + priority;
+    }
+
+    @Override
+    public void run() {
+        body.run();
+    }
+
+    /**
+     * Scheduling identity of a document, kept while it moves from stage to stage
+     */
+    record Key(UUID documentId, UUID vendorId, ProcessingPriority priority) {
+
+        PipelineTask task(Runnable body) {
+            return new PipelineTask(documentId, vendorId, priority, body);
+        }
+    }
+}
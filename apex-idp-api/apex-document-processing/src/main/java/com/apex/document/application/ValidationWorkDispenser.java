@@ -0,0 +1,230 @@
+package com.apex.document.application;
+
+import com.apex.core.config.ApexProperties;
+import com.apex.document.domain.DocumentRepository;
+import com.apex.document.domain.ProcessingPriority;
+import com.apex.document.domain.ProcessingStage;
+import com.apex.document.infrastructure.lock.DocumentLock;
+import com.apex.document.infrastructure.lock.DocumentLockService;
+import com.apex.document.infrastructure.lock.DocumentLockedException;
+import com.apex.document.infrastructure.projection.DocumentProjection;
+import com.apex.document.infrastructure.projection.DocumentProjectionRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Hands each AP clerk the most urgent document nobody else is working on.
+ * Pending validations are ranked by urgency - low confidence or long waits first,
+ * then processing priority, then age. Claiming a document takes its validation lock,
+ * so two clerks can never get the same one. Clerks on this instance skip documents
+ * already claimed here without asking Redis, and a document another instance holds
+ * is remembered for one lease instead of being retried on every request.
+ * Each clerk also gets a few documents claimed ahead, so the next request is usually
+ * answered without a claim at all. Claims the clerk does not come back for lapse with
+ * their lease and return to the pool.
+ */
+@Service
+public class ValidationWorkDispenser {
+
+    private static final String PENDING_VALIDATION_STAGE = ProcessingStage.PENDING_VALIDATION.name();
+    private static final double REVIEW_THRESHOLD = 1.01; // every pending confidence, missing ones as zero
+
+    private final DocumentProjectionRepository projectionRepository;
+    private final DocumentRepository documentRepository;
+    private final DocumentLockService lockService;
+    private final ApexProperties.ValidationWork config;
+
+    // Documents claimed through this instance, or found locked elsewhere, by owner
+    private final Cache<UUID, String> claims;
+    // Leases taken ahead for each clerk, most urgent first
+    private final Cache<String, Deque<DocumentLock>> prefetched;
+    private final ReentrantLock refreshLock = new ReentrantLock();
+    private volatile List<UUID> ranked = List.of();
+    private volatile long rankedAt;
+
+    public ValidationWorkDispenser(DocumentProjectionRepository projectionRepository,
+                                   DocumentRepository documentRepository,
+                                   DocumentLockService lockService,
+                                   ApexProperties apexProperties) {
+        this.projectionRepository = projectionRepository;
+        this.documentRepository = documentRepository;
+        this.lockService = lockService;
+        this.config = apexProperties.getValidationWork();
+        Duration lease = Duration.ofMillis(apexProperties.getValidationLock().getLeaseMs());
+        this.claims = Caffeine.newBuilder().expireAfterWrite(lease).build();
+        this.prefetched = Caffeine.newBuilder().expireAfterAccess(lease).build();
+    }
+
+    /**
+     * Claim the next document for a clerk; empty when nothing is waiting.
+     * The returned lock is the one the clerk renews and presents when validating.
+     */
+    public Optional<DocumentLock> next(String clerk) {
+        Deque<DocumentLock> buffer = prefetched.get(clerk, key -> new ArrayDeque<>());
+        synchronized (buffer) {
+            while (!buffer.isEmpty()) {
+                Optional<DocumentLock> lock = reclaim(buffer.poll(), clerk);
+                if (lock.isPresent()) {
+                    return lock;
+                }
+            }
+
+            DocumentLock first = null;
+            for (UUID documentId : ranking()) {
+                if (claims.asMap().putIfAbsent(documentId, clerk) != null) {
+                    continue;
+                }
+                Optional<DocumentLock> lock = claim(documentId, clerk);
+                if (lock.isEmpty()) {
+                    continue;
+                }
+                if (first == null) {
+                    first = lock.get();
+                } else {
+                    buffer.add(lock.get());
+                }
+                if (buffer.size() >= config.getPrefetch()) {
+                    break;
+                }
+            }
+            return Optional.ofNullable(first);
+        }
+    }
+
+    /**
+     * Give back the documents claimed ahead for a clerk, e.g. when they stop working.
+     */
+    public void releasePrefetched(String clerk) {
+        Deque<DocumentLock> buffer = prefetched.asMap().remove(clerk);
+        if (buffer == null) {
+            return;
+        }
+        synchronized (buffer) {
+            for (DocumentLock lock : buffer) {
+                claims.asMap().remove(lock.documentId(), clerk);
+                // A no-op if the lease lapsed or was taken over in the meantime
+                lockService.release(lock.documentId(), clerk, lock.fencingToken());
+            }
+            buffer.clear();
+        }
+    }
+
+    /**
+     * Renew a prefetched lease as it is handed out. If it lapsed, the document is claimed
+     * afresh, unless someone else has taken it since.
+     */
+    private Optional<DocumentLock> reclaim(DocumentLock prefetchedLock, String clerk) {
+        UUID documentId = prefetchedLock.documentId();
+        String owner = claims.asMap().putIfAbsent(documentId, clerk);
+        if (owner != null && !owner.equals(clerk)) {
+            return Optional.empty();
+        }
+        DocumentLock lock;
+        try {
+            lock = lockService.renew(documentId, clerk, prefetchedLock.fencingToken());
+        } catch (DocumentLockedException e) {
+            return claim(documentId, clerk);
+        }
+        return stillPending(lock, clerk);
+    }
+
+    private Optional<DocumentLock> claim(UUID documentId, String clerk) {
+        DocumentLock lock;
+        try {
+            lock = lockService.acquire(documentId, clerk);
+        } catch (DocumentLockedException e) {
+            claims.put(documentId, "");
+            return Optional.empty();
+        }
+        return stillPending(lock, clerk);
+    }
+
+    private Optional<DocumentLock> stillPending(DocumentLock lock, String clerk) {
+        UUID documentId = lock.documentId();
+        claims.put(documentId, clerk);
+        // The ranking trails validations by a few seconds; the document itself is authoritative
+        boolean pending = documentRepository.findStageById(documentId)
+            .filter(ProcessingStage.PENDING_VALIDATION::equals)
+            .isPresent();
+        if (!pending) {
+            lockService.release(documentId, clerk, lock.fencingToken());
+            claims.put(documentId, "");
+            return Optional.empty();
+        }
+        return Optional.of(lock);
+    }
+
+    private List<UUID> ranking() {
+        if (System.currentTimeMillis() - rankedAt >= config.getRefreshIntervalMs()) {
+            // The first request waits for a ranking; later ones keep the previous one while a thread re-ranks
+            if (rankedAt == 0) {
+                refreshLock.lock();
+            } else if (!refreshLock.tryLock()) {
+                return ranked;
+            }
+            try {
+                if (System.currentTimeMillis() - rankedAt >= config.getRefreshIntervalMs()) {
+                    ranked = rank();
+                    rankedAt = System.currentTimeMillis();
+                }
+            } finally {
+                refreshLock.unlock();
+            }
+        }
+        return ranked;
+    }
+
+    /**
+     * The least confident and the longest waiting pending documents, most urgent first.
+     */
+    private List<UUID> rank() {
+        Limit limit = Limit.of(config.getCandidatePoolSize());
+        Map<String, DocumentProjection> candidates = new LinkedHashMap<>();
+        projectionRepository.findValidationQueue(PENDING_VALIDATION_STAGE, REVIEW_THRESHOLD, limit)
+            .forEach(projection -> candidates.put(projection.getId(), projection));
+        projectionRepository.findOldestInStage(PENDING_VALIDATION_STAGE, limit)
+            .forEach(projection -> candidates.putIfAbsent(projection.getId(), projection));
+
+        LocalDateTime now = LocalDateTime.now();
+        return candidates.values().stream()
+            .sorted(Comparator.comparingInt((DocumentProjection projection) -> urgency(projection, now)).reversed()
+                .thenComparing(Comparator.comparingInt(ValidationWorkDispenser::priorityWeight).reversed())
+                .thenComparing(DocumentProjection::getUploadedAt)
+                .thenComparing(DocumentProjection::getId))
+            .map(projection -> UUID.fromString(projection.getId()))
+            .toList();
+    }
+
+    /**
+     * 3 for documents that are barely readable or waiting over a day, 2 for doubtful or
+     * waiting over a working day, 1 otherwise.
+     */
+    private static int urgency(DocumentProjection projection, LocalDateTime now) {
+        double confidence = projection.getExtractionConfidence() != null ? projection.getExtractionConfidence() : 0.0;
+        long ageHours = Duration.between(projection.getUploadedAt(), now).toHours();
+        if (confidence < 0.50 || ageHours > 24) {
+            return 3;
+        } else if (confidence < 0.70 || ageHours > 8) {
+            return 2;
+        }
+        return 1;
+    }
+
+    private static int priorityWeight(DocumentProjection projection) {
+        return ProcessingPriority.from(projection.getPriority()).getWeight();
+    }
+}
@@ -12,6 +12,7 @@ import java.util.Map;
 @Builder
 public class BatchUploadResponse {
     private String batchId;
+    private String status;
     private int totalFiles;
     private int successfulUploads;
     private int failedUploads;
@@ -21,10 +22,11 @@ public class BatchUploadResponse {
     // Constructors
     public BatchUploadResponse() {}
     
-    public BatchUploadResponse(String batchId, int totalFiles, int successfulUploads,
+    public BatchUploadResponse(String batchId, String status, int totalFiles, int successfulUploads,
                              int failedUploads, List<DocumentUploadResponse> uploadResults,
                              Map<String, String> errors) {
         this.batchId = batchId;
+        this.status = status;
         this.totalFiles = totalFiles;
         this.successfulUploads = successfulUploads;
         this.failedUploads = failedUploads;
@@ -36,6 +38,9 @@ public class BatchUploadResponse {
     public String getBatchId() { return batchId; }
     public void setBatchId(String batchId) { this.batchId = batchId; }
     
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+    
     public int getTotalFiles() { return totalFiles; }
     public void setTotalFiles(int totalFiles) { this.totalFiles = totalFiles; }
     
@@ -6,12 +6,16 @@ import java.util.List;
 import java.util.UUID;
 
 /**
- * Result of batch upload operation
+ * Result of batch upload operation.
+ * Snapshots are returned while the batch is still running, so counts and
+ * results grow until the status becomes COMPLETED.
  */
 @Data
 @Builder
 public class BatchUploadResult {
     private String batchId;
+    private String batchName;
+    private String status;
     private int totalFiles;
     private int successfulUploads;
     private int failedUploads;
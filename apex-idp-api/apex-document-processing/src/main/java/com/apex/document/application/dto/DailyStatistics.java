@@ -0,0 +1,24 @@
+package com.apex.document.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Document volume and outcomes for one day (UTC)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailyStatistics {
+    private LocalDate date;
+    private long uploaded;
+    private long completed;
+    private long failed;
+    private long rejected;
+    private double averageProcessingTime; // seconds from upload to completion
+}
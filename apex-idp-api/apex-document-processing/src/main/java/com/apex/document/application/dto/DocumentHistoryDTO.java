@@ -0,0 +1,30 @@
+package com.apex.document.application.dto;
+
+import com.apex.document.domain.DocumentStatus;
+import com.apex.document.domain.DocumentType;
+import com.apex.document.domain.ProcessingStage;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * A document as rebuilt from its event history, and whether the stored row still agrees with it
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DocumentHistoryDTO {
+    private UUID id;
+    private ProcessingStage stage;
+    private String status;
+    private DocumentType type;
+    private BigDecimal extractionConfidence;
+    private int extractedFieldCount;
+    private int processingAttempts;
+    private boolean matchesStored; // false when the documents row has drifted from the events
+}
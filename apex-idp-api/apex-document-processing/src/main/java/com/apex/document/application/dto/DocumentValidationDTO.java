@@ -3,6 +3,7 @@ package com.apex.document.application.dto;
 import com.apex.document.domain.ProcessingStage;
 import lombok.Builder;
 import lombok.Data;
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
@@ -24,6 +25,9 @@ public class DocumentValidationDTO {
     private Double overallConfidence;
     private LocalDateTime validatedAt;
     private String validatedBy;
+    private Long lockToken; // fencing token of the caller's validation lock
+    private Instant lockExpiresAt;
+    private List<PageRenditionDTO> pages; // empty until the page images have been rendered
     
     // Constructors
     public DocumentValidationDTO() {}
@@ -32,7 +36,8 @@ public class DocumentValidationDTO {
                                boolean isValid, List<ValidationErrorDTO> errors, 
                                List<ValidationWarningDTO> warnings, Map<String, Object> extractedFields,
                                Map<String, Double> fieldConfidences, Double overallConfidence,
-                               LocalDateTime validatedAt, String validatedBy) {
+                               LocalDateTime validatedAt, String validatedBy,
+                               Long lockToken, Instant lockExpiresAt, List<PageRenditionDTO> pages) {
         this.documentId = documentId;
         this.filename = filename;
         this.stage = stage;
@@ -44,6 +49,9 @@ public class DocumentValidationDTO {
         this.overallConfidence = overallConfidence;
         this.validatedAt = validatedAt;
         this.validatedBy = validatedBy;
+        this.lockToken = lockToken;
+        this.lockExpiresAt = lockExpiresAt;
+        this.pages = pages;
     }
     
     // Getters and setters
@@ -80,6 +88,15 @@ public class DocumentValidationDTO {
     public String getValidatedBy() { return validatedBy; }
     public void setValidatedBy(String validatedBy) { this.validatedBy = validatedBy; }
     
+    public Long getLockToken() { return lockToken; }
+    public void setLockToken(Long lockToken) { this.lockToken = lockToken; }
+    
+    public Instant getLockExpiresAt() { return lockExpiresAt; }
+    public void setLockExpiresAt(Instant lockExpiresAt) { this.lockExpiresAt = lockExpiresAt; }
+    
+    public List<PageRenditionDTO> getPages() { return pages; }
+    public void setPages(List<PageRenditionDTO> pages) { this.pages = pages; }
+    
     // Helper DTOs
     public static class ValidationErrorDTO {
         private String field;
@@ -0,0 +1,24 @@
+package com.apex.document.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A rendered page of a document for the validation viewer
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PageRenditionDTO {
+    private int pageNumber;
+    private int width; // pixels
+    private int height;
+    private double coordinateScale; // multiply extracted field coordinates by this to get image pixels
+    private String imageUrl;
+    private String thumbnailUrl;
+    private int thumbnailWidth;
+    private int thumbnailHeight;
+}
@@ -3,6 +3,7 @@ package com.apex.document.application.dto;
 import lombok.Builder;
 import lombok.Data;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -16,10 +17,12 @@ public class ProcessingStatistics {
     private long documentsInProgress;
     private long documentsFailed;
     private long documentsValidated;
-    private double averageProcessingTime;
+    private double averageProcessingTime; // seconds from upload to completion
     private double successRate;
     private Map<String, Long> processingByType;
     private Map<String, Long> processingByStage;
+    private Map<String, Long> processingByVendor;
+    private List<DailyStatistics> daily;
     private LocalDateTime lastUpdated;
     
     // Constructors
@@ -29,7 +32,8 @@ public class ProcessingStatistics {
                               long documentsInProgress, long documentsFailed,
                               long documentsValidated, double averageProcessingTime,
                               double successRate, Map<String, Long> processingByType,
-                              Map<String, Long> processingByStage, LocalDateTime lastUpdated) {
+                              Map<String, Long> processingByStage, Map<String, Long> processingByVendor,
+                              List<DailyStatistics> daily, LocalDateTime lastUpdated) {
         this.totalDocuments = totalDocuments;
         this.documentsProcessed = documentsProcessed;
         this.documentsInProgress = documentsInProgress;
@@ -39,6 +43,8 @@ public class ProcessingStatistics {
         this.successRate = successRate;
         this.processingByType = processingByType;
         this.processingByStage = processingByStage;
+        this.processingByVendor = processingByVendor;
+        this.daily = daily;
         this.lastUpdated = lastUpdated;
     }
     
@@ -70,6 +76,12 @@ public class ProcessingStatistics {
     public Map<String, Long> getProcessingByStage() { return processingByStage; }
     public void setProcessingByStage(Map<String, Long> processingByStage) { this.processingByStage = processingByStage; }
     
+    public Map<String, Long> getProcessingByVendor() { return processingByVendor; }
+    public void setProcessingByVendor(Map<String, Long> processingByVendor) { this.processingByVendor = processingByVendor; }
+    
+    public List<DailyStatistics> getDaily() { return daily; }
+    public void setDaily(List<DailyStatistics> daily) { this.daily = daily; }
+    
     public LocalDateTime getLastUpdated() { return lastUpdated; }
     public void setLastUpdated(LocalDateTime lastUpdated) { this.lastUpdated = lastUpdated; }
 }
@@ -10,6 +10,7 @@ import java.util.UUID;
 @Data
 public class ValidationRequest {
     private UUID userId;
+    private Long lockToken; // from the validation lock taken when the document was opened
     private boolean approved;
     private String rejectionReason;
     private List<FieldCorrection> fieldCorrections;
@@ -17,7 +17,9 @@ import java.util.*;
  * going through the IDP pipeline.
  */
 @Entity
-@Table(name = "documents")
+@Table(name = "documents", indexes = {
+    @Index(name = "idx_documents_vendor_content_hash", columnList = "vendor_id, content_hash")
+})
 @Getter
 @NoArgsConstructor
 @Slf4j
@@ -32,6 +34,10 @@ public class Document extends AggregateRoot<Document> {
     @Enumerated(EnumType.STRING)
     private ProcessingStage stage;
     
+    @Enumerated(EnumType.STRING)
+    @Column(name = "priority")
+    private ProcessingPriority priority;
+    
     @Column(name = "vendor_id")
     private UUID vendorId;
     
@@ -47,9 +53,29 @@ public class Document extends AggregateRoot<Document> {
     @Column(name = "storage_path")
     private String storagePath;
     
+    // SHA-256 of the stored content, computed while streaming the upload
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+    
+    // Earlier document from the same vendor with identical content, if any
+    @Column(name = "duplicate_of")
+    private UUID duplicateOf;
+    
+    // Fencing token of the last validation lease whose result was written; older leases are refused
+    @Column(name = "validation_fence")
+    private Long validationFence;
+    
     @Column(name = "page_count")
     private Integer pageCount;
     
+    // When OCR was claimed; a claim older than the lease belongs to a worker that died
+    @Column(name = "ocr_claimed_at")
+    private Instant ocrClaimedAt;
+    
+    // Failed pipeline runs so far, capped by apex.processing.retry-attempts
+    @Column(name = "processing_attempts", nullable = false)
+    private int processingAttempts;
+    
     // Classification confidence score
     @Column(name = "classification_confidence")
     private BigDecimal classificationConfidence;
@@ -58,12 +84,13 @@ public class Document extends AggregateRoot<Document> {
     @Column(name = "extraction_confidence")
     private BigDecimal extractionConfidence;
     
+    // Fields carry their own document_id, so they are written by plain (batchable) inserts
     @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.LAZY)
-    @JoinColumn(name = "document_id")
+    @JoinColumn(name = "document_id", insertable = false, updatable = false)
     private List<ExtractedField> extractedFields = new ArrayList<>();
     
     @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.LAZY)
-    @JoinColumn(name = "document_id")
+    @JoinColumn(name = "document_id", insertable = false, updatable = false)
     private List<ProcessingError> processingErrors = new ArrayList<>();
     
     @ElementCollection
@@ -80,28 +107,92 @@ public class Document extends AggregateRoot<Document> {
             Long fileSize,
             String mimeType,
             String storagePath,
-            UUID vendorId) {
+            String contentHash,
+            UUID vendorId,
+            ProcessingPriority priority) {
         
         Document document = new Document();
-        document.fileName = fileName;
-        document.fileSize = fileSize;
-        document.mimeType = mimeType;
-        document.storagePath = storagePath;
-        document.vendorId = vendorId;
-        document.status = DocumentStatus.UPLOADED;
-        document.stage = ProcessingStage.PENDING_OCR;
+        document.raise(new DocumentUploadedEvent(
+            document.getId(),
+            document.getVersion(),
+            fileName,
+            vendorId,
+            fileSize,
+            mimeType,
+            storagePath,
+            contentHash,
+            priority
+        ));
+        
+        return document;
+    }
+    
+    /**
+     * Factory method for an exact re-upload of a document that has already been processed.
+     * The stored object and the OCR, classification and extraction results of the original
+     * are reused, so the copy skips the pipeline. Because the same invoice arriving twice
+     * may be a duplicate payment, the copy always goes to human validation.
+     */
+    public static Document createDuplicateOf(Document original, String fileName, UUID vendorId,
+                                             ProcessingPriority priority) {
+        if (!original.hasReusableResults()) {
+            throw new IllegalStateException("Original document has not finished processing");
+        }
         
-        // Register the domain event for event sourcing
-        document.registerEvent(new DocumentUploadedEvent(
+        Document document = new Document();
+        document.raise(new DocumentUploadedEvent(
             document.getId(),
             document.getVersion(),
             fileName,
-            vendorId
+            vendorId,
+            original.fileSize,
+            original.mimeType,
+            original.storagePath,
+            original.contentHash,
+            priority
+        ));
+        
+        String textLength = original.metadata.get("extracted_text_length");
+        document.raise(new ProcessingResultsCopiedEvent(
+            document.getId(),
+            document.getVersion(),
+            original.getId(),
+            original.type,
+            original.classificationConfidence,
+            original.pageCount,
+            textLength != null ? Integer.valueOf(textLength) : null,
+            original.extractedFields.stream().map(Document::toEventData).toList()
         ));
+        document.markDuplicateOf(original, true);
         
         return document;
     }
     
+    /**
+     * Flag this document as a possible duplicate of an earlier upload with the same content.
+     * Used when the original is still in the pipeline and its results cannot be reused yet.
+     */
+    public void flagPossibleDuplicate(Document original) {
+        markDuplicateOf(original, false);
+    }
+    
+    /**
+     * Whether OCR, classification and extraction have finished and can be copied to a re-upload
+     */
+    public boolean hasReusableResults() {
+        return this.stage == ProcessingStage.PENDING_VALIDATION || this.stage == ProcessingStage.COMPLETED;
+    }
+    
+    private void markDuplicateOf(Document original, boolean resultsReused) {
+        raise(new DocumentDuplicateDetectedEvent(
+            this.getId(),
+            this.getVersion(),
+            original.getId(),
+            this.contentHash,
+            resultsReused
+        ));
+    }
+    
     /**
      * Start OCR processing for this document.
      * Validates that the document is in the correct state.
@@ -113,10 +204,7 @@ public class Document extends AggregateRoot<Document> {
             );
         }
         
-        this.stage = ProcessingStage.OCR_IN_PROGRESS;
-        this.status = DocumentStatus.PROCESSING;
-        
-        registerEvent(new OcrProcessingStartedEvent(
+        raise(new OcrProcessingStartedEvent(
             this.getId(),
             this.getVersion()
         ));
@@ -133,14 +221,11 @@ public class Document extends AggregateRoot<Document> {
             );
         }
         
-        this.pageCount = pageCount;
-        this.stage = ProcessingStage.PENDING_CLASSIFICATION;
-        this.metadata.put("extracted_text_length", String.valueOf(extractedText.length()));
-        
-        registerEvent(new OcrProcessingCompletedEvent(
+        raise(new OcrProcessingCompletedEvent(
             this.getId(),
             this.getVersion(),
-            pageCount
+            pageCount,
+            extractedText.length()
         ));
     }
     
@@ -149,23 +234,19 @@ public class Document extends AggregateRoot<Document> {
      * If confidence is below threshold, route to manual classification.
      */
     public void applyClassification(DocumentType type, BigDecimal confidence) {
-        this.type = type;
-        this.classificationConfidence = confidence;
-        
         // Route based on confidence threshold (70% as per requirements)
         if (confidence.compareTo(new BigDecimal("0.70")) >= 0) {
-            this.stage = ProcessingStage.PENDING_EXTRACTION;
-            registerEvent(new DocumentClassifiedEvent(
+            raise(new DocumentClassifiedEvent(
                 this.getId(),
                 this.getVersion(),
                 type,
                 confidence
             ));
         } else {
-            this.stage = ProcessingStage.PENDING_MANUAL_CLASSIFICATION;
-            registerEvent(new DocumentNeedsManualClassificationEvent(
+            raise(new DocumentNeedsManualClassificationEvent(
                 this.getId(),
                 this.getVersion(),
+                type,
                 confidence
             ));
         }
@@ -176,39 +257,55 @@ public class Document extends AggregateRoot<Document> {
      * Each field includes its own confidence score.
      */
     public void addExtractedField(ExtractedField field) {
-        this.extractedFields.add(field);
-        recalculateExtractionConfidence();
-        
-        registerEvent(new FieldExtractedEvent(
+        FieldExtractedEvent.FieldExtractedEventData data = toEventData(field);
+        raise(new FieldExtractedEvent(
             this.getId(),
             this.getVersion(),
-            field.getFieldName(),
-            field.getConfidence()
+            data.fieldName(),
+            data.value(),
+            data.confidence(),
+            data.xCoordinate(),
+            data.yCoordinate(),
+            data.width(),
+            data.height(),
+            data.pageNumber()
+        ));
+    }
+    
+    /**
+     * Add all fields from one extraction run.
+     * Raises a single event and recomputes the extraction confidence once, so the cost
+     * grows linearly with the number of fields, e.g. invoice line items.
+     * An empty run is still recorded so the confidence becomes zero rather than staying
+     * unset, which would keep the document out of the validation queue.
+     */
+    public void addExtractedFields(Collection<ExtractedField> fields) {
+        raise(new FieldsExtractedEvent(
+            this.getId(),
+            this.getVersion(),
+            fields.stream().map(Document::toEventData).toList()
         ));
     }
     
     /**
      * Validate extracted data and determine if human review is needed.
      * Uses 80% threshold as specified in requirements.
+     * A document with no extracted fields always needs review.
      */
     public void validateExtraction() {
         BigDecimal threshold = new BigDecimal("0.80");
         
-        boolean needsReview = extractedFields.stream()
+        boolean needsReview = extractedFields.isEmpty() || extractedFields.stream()
             .anyMatch(field -> field.getConfidence().compareTo(threshold) < 0);
         
         if (needsReview) {
-            this.stage = ProcessingStage.PENDING_VALIDATION;
-            this.status = DocumentStatus.PENDING_REVIEW;
-            registerEvent(new DocumentNeedsValidationEvent(
+            raise(new DocumentNeedsValidationEvent(
                 this.getId(),
                 this.getVersion(),
                 this.extractionConfidence
             ));
         } else {
-            this.stage = ProcessingStage.COMPLETED;
-            this.status = DocumentStatus.APPROVED;
-            registerEvent(new DocumentAutoApprovedEvent(
+            raise(new DocumentAutoApprovedEvent(
                 this.getId(),
                 this.getVersion()
             ));
@@ -223,10 +320,7 @@ public class Document extends AggregateRoot<Document> {
             throw new IllegalStateException("Document must be pending validation to approve");
         }
         
-        this.stage = ProcessingStage.COMPLETED;
-        this.status = DocumentStatus.APPROVED;
-        
-        registerEvent(new DocumentApprovedEvent(
+        raise(new DocumentApprovedEvent(
             this.getId(),
             this.getVersion(),
             userId
@@ -234,14 +328,15 @@ public class Document extends AggregateRoot<Document> {
     }
     
     /**
-     * Reject document with reason
+     * Reject document with reason. Like approval this ends processing, so a document
+     * has exactly one outcome and leaves the validation queue.
      */
     public void reject(String userId, String reason) {
-        this.status = DocumentStatus.REJECTED;
-        this.metadata.put("rejection_reason", reason);
-        this.metadata.put("rejected_by", userId);
+        if (this.stage != ProcessingStage.PENDING_VALIDATION) {
+            throw new IllegalStateException("Document must be pending validation to reject");
+        }
         
-        registerEvent(new DocumentRejectedEvent(
+        raise(new DocumentRejectedEvent(
             this.getId(),
             this.getVersion(),
             userId,
@@ -253,42 +348,84 @@ public class Document extends AggregateRoot<Document> {
      * Correct a field value during validation
      */
     public void correctField(String fieldName, String correctedValue) {
-        ExtractedField field = extractedFields.stream()
-            .filter(f -> f.getFieldName().equals(fieldName))
-            .findFirst()
-            .orElseThrow(() -> new IllegalArgumentException("Field not found: " + fieldName));
+        ExtractedField field = findField(fieldName);
         
-        String originalValue = field.getValue();
-        field.setValue(correctedValue);
-        field.setConfidence(new BigDecimal("1.00")); // Human correction has 100% confidence
-        
-        registerEvent(new FieldCorrectedEvent(
+        raise(new FieldCorrectedEvent(
             this.getId(),
             this.getVersion(),
             fieldName,
-            originalValue,
+            field.getValue(),
             correctedValue
         ));
-        
-        recalculateExtractionConfidence();
     }
     
     /**
      * Record processing error
      */
     public void recordProcessingError(String errorType, String errorMessage) {
-        ProcessingError error = new ProcessingError(errorType, errorMessage);
-        this.processingErrors.add(error);
-        this.status = DocumentStatus.ERROR;
-        
-        registerEvent(new DocumentProcessingErrorEvent(
+        raise(new DocumentProcessingErrorEvent(
             this.getId(),
             this.getVersion(),
             errorType,
-            errorMessage
+            errorMessage,
+            this.stage
         ));
     }
     
+    /**
+     * Record a failed run of a pipeline stage.
+     * The document returns to the pending stage for another attempt until maxAttempts
+     * runs have failed; then it ends in ERROR instead of being retried forever.
+     */
+    public void failProcessingAttempt(ProcessingStage pendingStage, String errorType, String errorMessage,
+                                      int maxAttempts) {
+        if (this.processingAttempts + 1 < maxAttempts) {
+            raise(new ProcessingAttemptFailedEvent(
+                this.getId(),
+                this.getVersion(),
+                pendingStage,
+                errorType,
+                errorMessage,
+                this.stage
+            ));
+        } else {
+            recordProcessingError(errorType, errorMessage);
+        }
+    }
+    
+    private ExtractedField findField(String fieldName) {
+        return extractedFields.stream()
+            .filter(f -> f.getFieldName().equals(fieldName))
+            .findFirst()
+            .orElseThrow(() -> new IllegalArgumentException("Field not found: " + fieldName));
+    }
+    
+    private static FieldExtractedEvent.FieldExtractedEventData toEventData(ExtractedField field) {
+        return new FieldExtractedEvent.FieldExtractedEventData(
+            field.getFieldName(),
+            field.getValue(),
+            field.getConfidence(),
+            field.getXCoordinate(),
+            field.getYCoordinate(),
+            field.getWidth(),
+            field.getHeight(),
+            field.getPageNumber()
+        );
+    }
+    
+    private void addField(FieldExtractedEvent.FieldExtractedEventData data) {
+        ExtractedField field = new ExtractedField(data.fieldName(), data.value(), data.confidence(),
+            data.xCoordinate(), data.yCoordinate(), data.width(), data.height(), data.pageNumber());
+        field.setDocumentId(getId());
+        this.extractedFields.add(field);
+    }
+    
+    private void addError(String errorType, String errorMessage) {
+        ProcessingError error = new ProcessingError(errorType, errorMessage);
+        error.setDocumentId(getId());
+        this.processingErrors.add(error);
+    }
+    
     private void recalculateExtractionConfidence() {
         if (extractedFields.isEmpty()) {
             this.extractionConfidence = BigDecimal.ZERO;
@@ -306,6 +443,15 @@ public class Document extends AggregateRoot<Document> {
         );
     }
     
+    /**
+     * Record a state change: apply it to this instance and register it for the event store.
+     * All state changes go through here, so replaying the stored events rebuilds the same state.
+     */
+    private void raise(DomainEvent event) {
+        apply(event);
+        registerEvent(event);
+    }
+    
     @Override
     public void apply(DomainEvent event) {
         // Event replay logic for event sourcing
@@ -313,16 +459,81 @@ public class Document extends AggregateRoot<Document> {
         if (event instanceof DocumentUploadedEvent e) {
             this.fileName = e.getFileName();
             this.vendorId = e.getVendorId();
+            this.fileSize = e.getFileSize();
+            this.mimeType = e.getMimeType();
+            this.storagePath = e.getStoragePath();
+            this.contentHash = e.getContentHash();
+            this.priority = e.getPriority();
             this.status = DocumentStatus.UPLOADED;
+            this.stage = ProcessingStage.PENDING_OCR;
+        } else if (event instanceof ProcessingResultsCopiedEvent e) {
+            this.type = e.getDocumentType();
+            this.classificationConfidence = e.getClassificationConfidence();
+            this.pageCount = e.getPageCount();
+            if (e.getExtractedTextLength() != null) {
+                this.metadata.put("extracted_text_length", String.valueOf(e.getExtractedTextLength()));
+            }
+            e.getFields().forEach(this::addField);
+            recalculateExtractionConfidence();
+            this.status = DocumentStatus.PENDING_REVIEW;
+            this.stage = ProcessingStage.PENDING_VALIDATION;
+        } else if (event instanceof DocumentDuplicateDetectedEvent e) {
+            this.duplicateOf = e.getOriginalDocumentId();
+            this.metadata.put("possible_duplicate_of", e.getOriginalDocumentId().toString());
+        } else if (event instanceof OcrProcessingStartedEvent e) {
+            this.stage = ProcessingStage.OCR_IN_PROGRESS;
+            this.status = DocumentStatus.PROCESSING;
+            this.ocrClaimedAt = e.getOccurredOn();
         } else if (event instanceof OcrProcessingCompletedEvent e) {
             this.pageCount = e.getPageCount();
             this.stage = ProcessingStage.PENDING_CLASSIFICATION;
+            this.ocrClaimedAt = null;
+            this.metadata.put("extracted_text_length", String.valueOf(e.getExtractedTextLength()));
         } else if (event instanceof DocumentClassifiedEvent e) {
             this.type = e.getDocumentType();
             this.classificationConfidence = e.getConfidence();
+            this.stage = ProcessingStage.PENDING_EXTRACTION;
+        } else if (event instanceof DocumentNeedsManualClassificationEvent e) {
+            this.type = e.getSuggestedType();
+            this.classificationConfidence = e.getConfidence();
+            this.stage = ProcessingStage.PENDING_MANUAL_CLASSIFICATION;
+        } else if (event instanceof FieldExtractedEvent e) {
+            addField(new FieldExtractedEvent.FieldExtractedEventData(e.getFieldName(), e.getValue(),
+                e.getConfidence(), e.getXCoordinate(), e.getYCoordinate(), e.getWidth(), e.getHeight(),
+                e.getPageNumber()));
+            recalculateExtractionConfidence();
+        } else if (event instanceof FieldsExtractedEvent e) {
+            e.getFields().forEach(this::addField);
+            recalculateExtractionConfidence();
+        } else if (event instanceof DocumentNeedsValidationEvent) {
+            this.stage = ProcessingStage.PENDING_VALIDATION;
+            this.status = DocumentStatus.PENDING_REVIEW;
+        } else if (event instanceof DocumentAutoApprovedEvent || event instanceof DocumentApprovedEvent) {
+            this.stage = ProcessingStage.COMPLETED;
+            this.status = DocumentStatus.APPROVED;
+        } else if (event instanceof DocumentRejectedEvent e) {
+            this.stage = ProcessingStage.COMPLETED;
+            this.status = DocumentStatus.REJECTED;
+            this.metadata.put("rejection_reason", e.getReason());
+            this.metadata.put("rejected_by", e.getRejectedBy());
+        } else if (event instanceof FieldCorrectedEvent e) {
+            ExtractedField field = findField(e.getFieldName());
+            field.setValue(e.getCorrectedValue());
+            field.setConfidence(new BigDecimal("1.00")); // Human correction has 100% confidence
+            recalculateExtractionConfidence();
+        } else if (event instanceof ProcessingAttemptFailedEvent e) {
+            addError(e.getErrorType(), e.getErrorMessage());
+            this.processingAttempts++;
+            this.stage = e.getRetryStage();
+            this.ocrClaimedAt = null;
+        } else if (event instanceof DocumentProcessingErrorEvent e) {
+            addError(e.getErrorType(), e.getErrorMessage());
+            this.processingAttempts++;
+            this.stage = ProcessingStage.ERROR;
+            this.status = DocumentStatus.ERROR;
+            this.ocrClaimedAt = null;
         } else {
-            // Handle other events...
-            System.out.println("Unknown event type: " + event.getClass());
+            log.warn("Ignoring unknown event type {} for document {}", event.getEventType(), getId());
         }
     }
     
@@ -339,6 +550,10 @@ public class Document extends AggregateRoot<Document> {
         return status;
     }
     
+    public ProcessingPriority getPriority() {
+        return priority != null ? priority : ProcessingPriority.NORMAL;
+    }
+    
     // Required validate method from AggregateRoot
     @Override
     protected void validate() {
@@ -1,8 +1,17 @@
 package com.apex.document.domain;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 /**
@@ -11,4 +20,98 @@ import java.util.UUID;
 @Repository
 public interface DocumentRepository extends JpaRepository<Document, UUID> {
     
+    /**
+     * Oldest documents waiting in a stage, used to refill the processing pipeline.
+     */
+    @Query("SELECT d.id AS id, d.vendorId AS vendorId, d.priority AS priority " +
+           "FROM Document d WHERE d.stage = :stage ORDER BY d.createdAt")
+    List<PendingDocument> findPendingByStage(@Param("stage") ProcessingStage stage, Pageable pageable);
+    
+    /**
+     * Documents whose OCR claim is older than the cutoff, i.e. whose worker stopped before finishing.
+     */
+    @Query("SELECT d.id FROM Document d WHERE d.stage = com.apex.document.domain.ProcessingStage.OCR_IN_PROGRESS " +
+           "AND d.ocrClaimedAt < :cutoff ORDER BY d.ocrClaimedAt")
+    List<UUID> findExpiredOcrClaims(@Param("cutoff") Instant cutoff, Pageable pageable);
+    
+    /**
+     * Record a validation lease's fencing token on the document, unless a lease at least as new
+     * has already written it. Returns 0 when the token is stale. The row stays locked until
+     * the transaction ends, so concurrent validations are applied in fencing order.
+     */
+    @Modifying
+    @Query("UPDATE Document d SET d.validationFence = :token " +
+           "WHERE d.id = :id AND (d.validationFence IS NULL OR d.validationFence < :token)")
+    int advanceValidationFence(@Param("id") UUID id, @Param("token") long token);
+    
+    /**
+     * Current stage of a document, without loading the aggregate.
+     */
+    @Query("SELECT d.stage FROM Document d WHERE d.id = :id")
+    Optional<ProcessingStage> findStageById(@Param("id") UUID id);
+    
+    /**
+     * Earliest document from a vendor with the given content hash, served by the (vendor_id, content_hash) index.
+     * Re-uploads point at the original, so the first match is the one whose results are reused.
+     */
+    Optional<Document> findFirstByVendorIdAndContentHashOrderByCreatedAtAsc(UUID vendorId, String contentHash);
+    
+    /**
+     * Same lookup for documents uploaded without a vendor.
+     */
+    Optional<Document> findFirstByVendorIdIsNullAndContentHashOrderByCreatedAtAsc(String contentHash);
+    
+    /**
+     * Documents with their extracted fields fetched in the same query, for the read-model projector.
+     */
+    @EntityGraph(attributePaths = "extractedFields")
+    List<Document> findWithExtractedFieldsByIdIn(Collection<UUID> ids);
+    
+    /**
+     * Page of document ids within an id range, in id order; used to split a projection rebuild.
+     */
+    @Query("SELECT d.id FROM Document d WHERE d.id >= :from AND d.id <= :to ORDER BY d.id")
+    List<UUID> findIdsInRange(@Param("from") UUID from, @Param("to") UUID to, Pageable pageable);
+    
+    /**
+     * What serving a document's content needs, without loading the aggregate.
+     */
+    @Query("SELECT d.id AS id, d.fileName AS fileName, d.fileSize AS fileSize, d.mimeType AS mimeType, " +
+           "d.storagePath AS storagePath, d.contentHash AS contentHash FROM Document d WHERE d.id = :id")
+    Optional<StoredContent> findStoredContentById(@Param("id") UUID id);
+    
+    /**
+     * Upload times of the given documents, for processing durations.
+     */
+    @Query("SELECT d.id AS id, d.createdAt AS createdAt FROM Document d WHERE d.id IN :ids")
+    List<UploadTime> findUploadTimesByIdIn(@Param("ids") Collection<UUID> ids);
+    
+    /**
+     * What the pipeline scheduler needs to queue a document without loading it
+     */
+    interface PendingDocument {
+        UUID getId();
+        UUID getVendorId();
+        ProcessingPriority getPriority();
+    }
+    
+    /**
+     * Location and description of a document's stored content
+     */
+    interface StoredContent {
+        UUID getId();
+        String getFileName();
+        Long getFileSize();
+        String getMimeType();
+        String getStoragePath();
+        String getContentHash();
+    }
+    
+    /**
+     * When a document was uploaded
+     */
+    interface UploadTime {
+        UUID getId();
+        Instant getCreatedAt();
+    }
 }
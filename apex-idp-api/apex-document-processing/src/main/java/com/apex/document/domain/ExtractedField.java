@@ -74,6 +74,13 @@ public class ExtractedField {
         this.pageNumber = pageNumber;
     }
     
+    /**
+     * Copy of this field for another document, keeping value, confidence and position
+     */
+    public ExtractedField copy() {
+        return new ExtractedField(fieldName, value, confidence, xCoordinate, yCoordinate, width, height, pageNumber);
+    }
+    
     @PreUpdate
     protected void onUpdate() {
         this.updatedAt = Instant.now();
@@ -0,0 +1,47 @@
+package com.apex.document.domain;
+
+import com.apex.core.exceptions.BusinessValidationException;
+
+import java.util.Locale;
+
+/**
+ * Processing priority requested at upload.
+ * The weight is the share of pipeline capacity a priority gets relative to the others
+ * when they compete; the rank is what the validation queue shows (1 = most urgent).
+ */
+public enum ProcessingPriority {
+    URGENT(8, 1),
+    HIGH(4, 2),
+    NORMAL(2, 3),
+    LOW(1, 4);
+    
+    private final int weight;
+    private final int rank;
+    
+    ProcessingPriority(int weight, int rank) {
+        this.weight = weight;
+        this.rank = rank;
+    }
+    
+    public int getWeight() {
+        return weight;
+    }
+    
+    public int getRank() {
+        return rank;
+    }
+    
+    /**
+     * Parse a request parameter; blank means NORMAL
+     */
+    public static ProcessingPriority from(String value) {
+        if (value == null || value.isBlank()) {
+            return NORMAL;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new BusinessValidationException("Unknown priority: " + value);
+        }
+    }
+}
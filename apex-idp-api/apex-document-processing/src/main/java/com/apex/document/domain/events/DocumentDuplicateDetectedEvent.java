@@ -0,0 +1,33 @@
+package com.apex.document.domain.events;
+
+import com.apex.core.events.DomainEvent;
+import lombok.Getter;
+
+import java.util.UUID;
+
+/**
+ * Event published when an upload has the same content as an earlier document
+ * from the same vendor. Raised as a possible duplicate payment.
+ */
+@Getter
+public class DocumentDuplicateDetectedEvent extends DomainEvent {
+    private final UUID originalDocumentId;
+    private final String contentHash;
+    private final boolean resultsReused;
+    
+    public DocumentDuplicateDetectedEvent(UUID aggregateId, Long aggregateVersion,
+                                          UUID originalDocumentId, String contentHash, boolean resultsReused) {
+        super(aggregateId, aggregateVersion, "system");
+        this.originalDocumentId = originalDocumentId;
+        this.contentHash = contentHash;
+        this.resultsReused = resultsReused;
+    }
+    
+    @Override
+    public Object getEventData() {
+        return new DocumentDuplicateDetectedEventData(originalDocumentId, contentHash, resultsReused);
+    }
+    
+    public record DocumentDuplicateDetectedEventData(UUID originalDocumentId, String contentHash,
+                                                     boolean resultsReused) {}
+}
@@ -1,6 +1,7 @@
 package com.apex.document.domain.events;
 
 import com.apex.core.events.DomainEvent;
+import com.apex.document.domain.DocumentType;
 import lombok.Getter;
 
 import java.math.BigDecimal;
@@ -11,17 +12,20 @@ import java.util.UUID;
  */
 @Getter
 public class DocumentNeedsManualClassificationEvent extends DomainEvent {
+    private final DocumentType suggestedType;
     private final BigDecimal confidence;
     
-    public DocumentNeedsManualClassificationEvent(UUID aggregateId, Long aggregateVersion, BigDecimal confidence) {
+    public DocumentNeedsManualClassificationEvent(UUID aggregateId, Long aggregateVersion,
+                                                  DocumentType suggestedType, BigDecimal confidence) {
         super(aggregateId, aggregateVersion, "system");
+        this.suggestedType = suggestedType;
         this.confidence = confidence;
     }
     
     @Override
     public Object getEventData() {
-        return new DocumentNeedsManualClassificationEventData(confidence);
+        return new DocumentNeedsManualClassificationEventData(suggestedType, confidence);
     }
     
-    public record DocumentNeedsManualClassificationEventData(BigDecimal confidence) {}
+    public record DocumentNeedsManualClassificationEventData(DocumentType suggestedType, BigDecimal confidence) {}
 }
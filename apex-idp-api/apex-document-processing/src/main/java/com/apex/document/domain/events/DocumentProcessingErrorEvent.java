@@ -1,6 +1,7 @@
 package com.apex.document.domain.events;
 
 import com.apex.core.events.DomainEvent;
+import com.apex.document.domain.ProcessingStage;
 import lombok.Getter;
 
 import java.util.UUID;
@@ -12,18 +13,21 @@ import java.util.UUID;
 public class DocumentProcessingErrorEvent extends DomainEvent {
     private final String errorType;
     private final String errorMessage;
+    private final ProcessingStage failedStage; // null in events recorded before it was added
     
     public DocumentProcessingErrorEvent(UUID aggregateId, Long aggregateVersion, 
-                                      String errorType, String errorMessage) {
+                                      String errorType, String errorMessage, ProcessingStage failedStage) {
         super(aggregateId, aggregateVersion, "system");
         this.errorType = errorType;
         this.errorMessage = errorMessage;
+        this.failedStage = failedStage;
     }
     
     @Override
     public Object getEventData() {
-        return new DocumentProcessingErrorEventData(errorType, errorMessage);
+        return new DocumentProcessingErrorEventData(errorType, errorMessage, failedStage);
     }
     
-    public record DocumentProcessingErrorEventData(String errorType, String errorMessage) {}
+    public record DocumentProcessingErrorEventData(String errorType, String errorMessage,
+                                                   ProcessingStage failedStage) {}
 }
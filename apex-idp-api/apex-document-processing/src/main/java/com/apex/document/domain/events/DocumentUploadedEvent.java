@@ -1,28 +1,43 @@
 package com.apex.document.domain.events;
 
 import com.apex.core.events.DomainEvent;
+import com.apex.document.domain.ProcessingPriority;
 import lombok.Getter;
 
 import java.util.UUID;
 
 /**
- * Event published when a document is uploaded to the system
+ * Event published when a document is uploaded to the system.
+ * Carries everything known about the upload so the document can be rebuilt from the event log.
  */
 @Getter
 public class DocumentUploadedEvent extends DomainEvent {
     private final String fileName;
     private final UUID vendorId;
+    private final Long fileSize;
+    private final String mimeType;
+    private final String storagePath;
+    private final String contentHash;
+    private final ProcessingPriority priority;
     
-    public DocumentUploadedEvent(UUID aggregateId, Long aggregateVersion, String fileName, UUID vendorId) {
+    public DocumentUploadedEvent(UUID aggregateId, Long aggregateVersion, String fileName, UUID vendorId,
+                                 Long fileSize, String mimeType, String storagePath, String contentHash,
+                                 ProcessingPriority priority) {
         super(aggregateId, aggregateVersion, "system");
         this.fileName = fileName;
         this.vendorId = vendorId;
+        this.fileSize = fileSize;
+        this.mimeType = mimeType;
+        this.storagePath = storagePath;
+        this.contentHash = contentHash;
+        this.priority = priority;
     }
     
     @Override
     public Object getEventData() {
-        return new DocumentUploadedEventData(fileName, vendorId);
+        return new DocumentUploadedEventData(fileName, vendorId, fileSize, mimeType, storagePath, contentHash, priority);
     }
     
-    public record DocumentUploadedEventData(String fileName, UUID vendorId) {}
+    public record DocumentUploadedEventData(String fileName, UUID vendorId, Long fileSize, String mimeType,
+                                            String storagePath, String contentHash, ProcessingPriority priority) {}
 }
@@ -12,18 +12,35 @@ import java.util.UUID;
 @Getter
 public class FieldExtractedEvent extends DomainEvent {
     private final String fieldName;
+    private final String value;
     private final BigDecimal confidence;
+    private final Integer xCoordinate;
+    private final Integer yCoordinate;
+    private final Integer width;
+    private final Integer height;
+    private final Integer pageNumber;
     
-    public FieldExtractedEvent(UUID aggregateId, Long aggregateVersion, String fieldName, BigDecimal confidence) {
+    public FieldExtractedEvent(UUID aggregateId, Long aggregateVersion, String fieldName, String value,
+                               BigDecimal confidence, Integer xCoordinate, Integer yCoordinate,
+                               Integer width, Integer height, Integer pageNumber) {
         super(aggregateId, aggregateVersion, "system");
         this.fieldName = fieldName;
+        this.value = value;
         this.confidence = confidence;
+        this.xCoordinate = xCoordinate;
+        this.yCoordinate = yCoordinate;
+        this.width = width;
+        this.height = height;
+        this.pageNumber = pageNumber;
     }
     
     @Override
     public Object getEventData() {
-        return new FieldExtractedEventData(fieldName, confidence);
+        return new FieldExtractedEventData(fieldName, value, confidence, xCoordinate, yCoordinate,
+            width, height, pageNumber);
     }
     
-    public record FieldExtractedEventData(String fieldName, BigDecimal confidence) {}
+    public record FieldExtractedEventData(String fieldName, String value, BigDecimal confidence,
+                                          Integer xCoordinate, Integer yCoordinate,
+                                          Integer width, Integer height, Integer pageNumber) {}
 }
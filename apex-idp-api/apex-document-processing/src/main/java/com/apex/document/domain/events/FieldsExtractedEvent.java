@@ -0,0 +1,28 @@
+package com.apex.document.domain.events;
+
+import com.apex.core.events.DomainEvent;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Event published once for all fields extracted from a document in one extraction run
+ */
+@Getter
+public class FieldsExtractedEvent extends DomainEvent {
+    private final List<FieldExtractedEvent.FieldExtractedEventData> fields;
+    
+    public FieldsExtractedEvent(UUID aggregateId, Long aggregateVersion,
+                                List<FieldExtractedEvent.FieldExtractedEventData> fields) {
+        super(aggregateId, aggregateVersion, "system");
+        this.fields = List.copyOf(fields);
+    }
+    
+    @Override
+    public Object getEventData() {
+        return new FieldsExtractedEventData(fields);
+    }
+    
+    public record FieldsExtractedEventData(List<FieldExtractedEvent.FieldExtractedEventData> fields) {}
+}
@@ -11,16 +11,19 @@ import java.util.UUID;
 @Getter
 public class OcrProcessingCompletedEvent extends DomainEvent {
     private final Integer pageCount;
+    private final Integer extractedTextLength;
     
-    public OcrProcessingCompletedEvent(UUID aggregateId, Long aggregateVersion, Integer pageCount) {
+    public OcrProcessingCompletedEvent(UUID aggregateId, Long aggregateVersion, Integer pageCount,
+                                       Integer extractedTextLength) {
         super(aggregateId, aggregateVersion, "system");
         this.pageCount = pageCount;
+        this.extractedTextLength = extractedTextLength;
     }
     
     @Override
     public Object getEventData() {
-        return new OcrProcessingCompletedEventData(pageCount);
+        return new OcrProcessingCompletedEventData(pageCount, extractedTextLength);
     }
     
-    public record OcrProcessingCompletedEventData(Integer pageCount) {}
+    public record OcrProcessingCompletedEventData(Integer pageCount, Integer extractedTextLength) {}
 }
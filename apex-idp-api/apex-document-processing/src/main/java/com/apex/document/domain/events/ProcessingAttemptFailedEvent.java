@@ -0,0 +1,36 @@
+package com.apex.document.domain.events;
+
+import com.apex.core.events.DomainEvent;
+import com.apex.document.domain.ProcessingStage;
+import lombok.Getter;
+
+import java.util.UUID;
+
+/**
+ * Event published when a pipeline stage fails for a document that still has attempts left.
+ * The document goes back to the stage's pending state to be picked up again.
+ */
+@Getter
+public class ProcessingAttemptFailedEvent extends DomainEvent {
+    private final ProcessingStage retryStage;
+    private final String errorType;
+    private final String errorMessage;
+    private final ProcessingStage failedStage; // null in events recorded before it was added
+    
+    public ProcessingAttemptFailedEvent(UUID aggregateId, Long aggregateVersion, ProcessingStage retryStage,
+                                        String errorType, String errorMessage, ProcessingStage failedStage) {
+        super(aggregateId, aggregateVersion, "system");
+        this.retryStage = retryStage;
+        this.errorType = errorType;
+        this.errorMessage = errorMessage;
+        this.failedStage = failedStage;
+    }
+    
+    @Override
+    public Object getEventData() {
+        return new ProcessingAttemptFailedEventData(retryStage, errorType, errorMessage, failedStage);
+    }
+    
+    public record ProcessingAttemptFailedEventData(ProcessingStage retryStage, String errorType, String errorMessage,
+                                            ProcessingStage failedStage) {}
+}
@@ -0,0 +1,47 @@
+package com.apex.document.domain.events;
+
+import com.apex.core.events.DomainEvent;
+import com.apex.document.domain.DocumentType;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Event published when a re-upload takes over the OCR, classification and extraction
+ * results of an earlier document instead of going through the pipeline
+ */
+@Getter
+public class ProcessingResultsCopiedEvent extends DomainEvent {
+    private final UUID originalDocumentId;
+    private final DocumentType documentType;
+    private final BigDecimal classificationConfidence;
+    private final Integer pageCount;
+    private final Integer extractedTextLength;
+    private final List<FieldExtractedEvent.FieldExtractedEventData> fields;
+    
+    public ProcessingResultsCopiedEvent(UUID aggregateId, Long aggregateVersion, UUID originalDocumentId,
+                                        DocumentType documentType, BigDecimal classificationConfidence,
+                                        Integer pageCount, Integer extractedTextLength,
+                                        List<FieldExtractedEvent.FieldExtractedEventData> fields) {
+        super(aggregateId, aggregateVersion, "system");
+        this.originalDocumentId = originalDocumentId;
+        this.documentType = documentType;
+        this.classificationConfidence = classificationConfidence;
+        this.pageCount = pageCount;
+        this.extractedTextLength = extractedTextLength;
+        this.fields = List.copyOf(fields);
+    }
+    
+    @Override
+    public Object getEventData() {
+        return new ProcessingResultsCopiedEventData(originalDocumentId, documentType, classificationConfidence,
+            pageCount, extractedTextLength, fields);
+    }
+    
+    public record ProcessingResultsCopiedEventData(UUID originalDocumentId, DocumentType documentType,
+                                                   BigDecimal classificationConfidence, Integer pageCount,
+                                                   Integer extractedTextLength,
+                                                   List<FieldExtractedEvent.FieldExtractedEventData> fields) {}
+}
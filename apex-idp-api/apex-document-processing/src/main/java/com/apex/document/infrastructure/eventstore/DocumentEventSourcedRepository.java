@@ -0,0 +1,24 @@
+package com.apex.document.infrastructure.eventstore;
+
+import com.apex.core.eventstore.EventSourcedRepository;
+import com.apex.core.eventstore.EventStore;
+import com.apex.document.domain.Document;
+import org.springframework.stereotype.Component;
+
+/**
+ * Rebuilds documents from their event history, e.g. to audit how an invoice
+ * reached its current state or to repair the documents table.
+ */
+@Component
+public class DocumentEventSourcedRepository extends EventSourcedRepository<Document> {
+
+    public DocumentEventSourcedRepository(EventStore eventStore) {
+        super(eventStore, Document.class, Document::new);
+    }
+
+    @Override
+    protected int snapshotVersion() {
+        // 2: OCR claim time and failed attempt count; 3: rejection completes the document
+        return 3;
+    }
+}
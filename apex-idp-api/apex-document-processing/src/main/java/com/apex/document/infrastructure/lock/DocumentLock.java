@@ -0,0 +1,11 @@
+package com.apex.document.infrastructure.lock;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A validation lease on a document.
+ * The fencing token grows with every new lease on the document, so a holder whose
+ * lease expired cannot act on a lock someone else has taken since.
+ */
+public record DocumentLock(UUID documentId, String owner, long fencingToken, Instant expiresAt) {}
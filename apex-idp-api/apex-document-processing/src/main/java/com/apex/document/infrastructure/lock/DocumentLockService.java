@@ -0,0 +1,228 @@
+package com.apex.document.infrastructure.lock;
+
+import com.apex.core.config.ApexProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Validation locks held as leases in Redis.
+ * A lock is a single key written with SET NX PX, so it disappears on its own when the
+ * holder stops renewing it - a closed browser tab never leaves a document stuck. Each
+ * new lease on a document takes the next value of a per-document counter as its
+ * fencing token; writes guarded by the lock present the token and are refused unless
+ * it still belongs to the live lease. The document row keeps the last token written,
+ * so a counter starts no lower than the current time in milliseconds and tokens never
+ * go backwards when a counter expires or a local node restarts. Acquire, renew and release are Lua scripts, so
+ * each is one round trip and none touches the database.
+ * Without Redis the locks live in this instance only, which is enough for a single node.
+ */
+@Slf4j
+@Component
+public class DocumentLockService {
+
+    private static final String KEY_PREFIX = "apex:lock:{document:";
+    private static final Duration FENCE_TTL = Duration.ofDays(7); // fencing counters outlive any lease
+
+    private static final RedisScript<Long> ACQUIRE = RedisScript.of("""
+        local current = redis.call('GET', KEYS[1])
+        if current then
+          local separator = string.find(current, ':', 1, true)
+          if string.sub(current, separator + 1) == ARGV[1] then
+            redis.call('PEXPIRE', KEYS[1], ARGV[2])
+            return tonumber(string.sub(current, 1, separator - 1))
+          end
+          return 0
+        end
+        local token = redis.call('INCR', KEYS[2])
+        if token < tonumber(ARGV[4]) then
+          token = tonumber(ARGV[4])
+          redis.call('SET', KEYS[2], ARGV[4])
+        end
+        redis.call('PEXPIRE', KEYS[2], ARGV[3])
+        redis.call('SET', KEYS[1], token .. ':' .. ARGV[1], 'NX', 'PX', ARGV[2])
+        return token
+        """, Long.class);
+
+    private static final RedisScript<Long> RENEW = RedisScript.of("""
+        if redis.call('GET', KEYS[1]) == ARGV[1] then
+          return redis.call('PEXPIRE', KEYS[1], ARGV[2])
+        end
+        return 0
+        """, Long.class);
+
+    private static final RedisScript<Long> RELEASE = RedisScript.of("""
+        if redis.call('GET', KEYS[1]) == ARGV[1] then
+          return redis.call('DEL', KEYS[1])
+        end
+        return 0
+        """, Long.class);
+
+    private final ObjectProvider<StringRedisTemplate> redisTemplateProvider;
+    private final ApexProperties.ValidationLock config;
+    private final Cache<UUID, DocumentLock> local;
+    private final AtomicLong localFence = new AtomicLong(System.currentTimeMillis());
+    private final Timer acquireTimer;
+
+    public DocumentLockService(ObjectProvider<StringRedisTemplate> redisTemplateProvider,
+                               ApexProperties apexProperties,
+                               MeterRegistry meterRegistry) {
+        this.redisTemplateProvider = redisTemplateProvider;
+        this.config = apexProperties.getValidationLock();
+        this.local = Caffeine.newBuilder()
+            .expireAfter(new Expiry<UUID, DocumentLock>() {
+                @Override
+                public long expireAfterCreate(UUID key, DocumentLock lock, long currentTime) {
+                    return remainingNanos(lock);
+                }
+
+                @Override
+                public long expireAfterUpdate(UUID key, DocumentLock lock, long currentTime, long currentDuration) {
+                    return remainingNanos(lock);
+                }
+
+                @Override
+                public long expireAfterRead(UUID key, DocumentLock lock, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+            })
+            .build();
+        this.acquireTimer = Timer.builder("apex.document.lock.acquire")
+            .description("Time to take or re-enter a document validation lock")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Take the validation lock on a document, or extend it if the owner already holds it.
+     *
+     * @throws DocumentLockedException if another owner holds the lock
+     */
+    public DocumentLock acquire(UUID documentId, String owner) {
+        return acquireTimer.record(() -> {
+            StringRedisTemplate redis = redisTemplate();
+            Instant expiresAt = Instant.now().plusMillis(config.getLeaseMs());
+            if (redis == null) {
+                return acquireLocally(documentId, owner, expiresAt);
+            }
+            Long token = redis.execute(ACQUIRE, List.of(lockKey(documentId), fenceKey(documentId)),
+                owner, String.valueOf(config.getLeaseMs()), String.valueOf(FENCE_TTL.toMillis()),
+                String.valueOf(System.currentTimeMillis()));
+            if (token == null || token == 0) {
+                throw DocumentLockedException.heldByOther(documentId);
+            }
+            return new DocumentLock(documentId, owner, token, expiresAt);
+        });
+    }
+
+    /**
+     * Extend a held lease by another lease period; called periodically while the document is open.
+     *
+     * @throws DocumentLockedException if the lease has expired or was taken over
+     */
+    public DocumentLock renew(UUID documentId, String owner, long fencingToken) {
+        StringRedisTemplate redis = redisTemplate();
+        Instant expiresAt = Instant.now().plusMillis(config.getLeaseMs());
+        if (redis == null) {
+            DocumentLock renewed = local.asMap().computeIfPresent(documentId, (id, lock) ->
+                lock.fencingToken() == fencingToken && lock.owner().equals(owner)
+                    ? new DocumentLock(id, owner, fencingToken, expiresAt)
+                    : lock);
+            if (renewed == null || renewed.fencingToken() != fencingToken || !renewed.owner().equals(owner)) {
+                throw DocumentLockedException.lost(documentId);
+            }
+            return renewed;
+        }
+        Long renewed = redis.execute(RENEW, List.of(lockKey(documentId)),
+            value(fencingToken, owner), String.valueOf(config.getLeaseMs()));
+        if (renewed == null || renewed == 0) {
+            throw DocumentLockedException.lost(documentId);
+        }
+        return new DocumentLock(documentId, owner, fencingToken, expiresAt);
+    }
+
+    /**
+     * Give up a lease; a no-op if it has already expired or been taken over.
+     */
+    public void release(UUID documentId, String owner, long fencingToken) {
+        StringRedisTemplate redis = redisTemplate();
+        if (redis == null) {
+            local.asMap().computeIfPresent(documentId, (id, lock) ->
+                lock.fencingToken() == fencingToken && lock.owner().equals(owner) ? null : lock);
+            return;
+        }
+        try {
+            redis.execute(RELEASE, List.of(lockKey(documentId)), value(fencingToken, owner));
+        } catch (Exception e) {
+            // The lease runs out on its own
+            log.warn("Could not release validation lock on document {}: {}", documentId, e.getMessage());
+        }
+    }
+
+    /**
+     * Check that the fencing token still belongs to the owner's live lease.
+     *
+     * @throws DocumentLockedException if it does not
+     */
+    public void verify(UUID documentId, String owner, Long fencingToken) {
+        if (fencingToken == null) {
+            throw DocumentLockedException.lost(documentId);
+        }
+        StringRedisTemplate redis = redisTemplate();
+        boolean held;
+        if (redis == null) {
+            DocumentLock lock = local.getIfPresent(documentId);
+            held = lock != null && lock.fencingToken() == fencingToken && lock.owner().equals(owner);
+        } else {
+            held = value(fencingToken, owner).equals(redis.opsForValue().get(lockKey(documentId)));
+        }
+        if (!held) {
+            throw DocumentLockedException.lost(documentId);
+        }
+    }
+
+    private DocumentLock acquireLocally(UUID documentId, String owner, Instant expiresAt) {
+        DocumentLock acquired = local.asMap().compute(documentId, (id, lock) -> {
+            if (lock == null || lock.expiresAt().isBefore(Instant.now())) {
+                return new DocumentLock(id, owner, localFence.incrementAndGet(), expiresAt);
+            }
+            return lock.owner().equals(owner) ? new DocumentLock(id, owner, lock.fencingToken(), expiresAt) : lock;
+        });
+        if (!acquired.owner().equals(owner)) {
+            throw DocumentLockedException.heldByOther(documentId);
+        }
+        return acquired;
+    }
+
+    private StringRedisTemplate redisTemplate() {
+        return config.isRedisEnabled() ? redisTemplateProvider.getIfAvailable() : null;
+    }
+
+    private static long remainingNanos(DocumentLock lock) {
+        return Math.max(0, Duration.between(Instant.now(), lock.expiresAt()).toNanos());
+    }
+
+    private static String lockKey(UUID documentId) {
+        return KEY_PREFIX + documentId + "}";
+    }
+
+    private static String fenceKey(UUID documentId) {
+        return KEY_PREFIX + documentId + "}:fence";
+    }
+
+    private static String value(long fencingToken, String owner) {
+        return fencingToken + ":" + owner;
+    }
+}
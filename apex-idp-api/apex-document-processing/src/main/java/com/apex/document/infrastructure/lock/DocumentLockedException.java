@@ -0,0 +1,29 @@
+package com.apex.document.infrastructure.lock;
+
+import com.apex.core.exceptions.ResourceConflictException;
+
+import java.util.UUID;
+
+/**
+ * Exception thrown when a document's validation lock is held by someone else,
+ * or the caller's lease has expired
+ */
+public class DocumentLockedException extends ResourceConflictException {
+    
+    public DocumentLockedException(String message) {
+        super(message);
+    }
+    
+    public static DocumentLockedException heldByOther(UUID documentId) {
+        return new DocumentLockedException("Document " + documentId + " is being validated by another user");
+    }
+    
+    public static DocumentLockedException lost(UUID documentId) {
+        return new DocumentLockedException("Validation lock on document " + documentId + " has expired or was taken over");
+    }
+    
+    @Override
+    public String getErrorCode() {
+        return "DOCUMENT_LOCKED";
+    }
+}
@@ -0,0 +1,56 @@
+package com.apex.document.infrastructure.ocr;
+
+import com.apex.core.config.ApexProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.awt.image.BufferedImage;
+import java.util.List;
+
+/**
+ * Local stand-in engine for development and tests.
+ * Returns fixed text covering the whole page with a configurable confidence and
+ * latency, so escalation and concurrency limits can be exercised without a real engine.
+ */
+@Component
+@ConditionalOnProperty(prefix = "apex.processing.ocr-ensemble.fake-engine", name = "enabled", havingValue = "true")
+public class FakeOcrEngine implements OcrEngine {
+
+    private static final String TEXT = "Extracted text content";
+
+    private final ApexProperties.Processing.OcrEnsemble.FakeEngine config;
+
+    public FakeOcrEngine(ApexProperties apexProperties) {
+        this.config = apexProperties.getProcessing().getOcrEnsemble().getFakeEngine();
+    }
+
+    @Override
+    public String name() {
+        return "FAKE";
+    }
+
+    @Override
+    public String version() {
+        return "1";
+    }
+
+    @Override
+    public int costRank() {
+        return 0;
+    }
+
+    @Override
+    public int defaultConcurrency() {
+        return Runtime.getRuntime().availableProcessors();
+    }
+
+    @Override
+    public OcrPage recognize(int pageNumber, BufferedImage image) throws Exception {
+        if (config.getLatencyMs() > 0) {
+            Thread.sleep(config.getLatencyMs());
+        }
+        float confidence = (float) config.getConfidence();
+        OcrWord word = new OcrWord(TEXT, 0, 0, image.getWidth(), image.getHeight(), confidence);
+        return new OcrPage(pageNumber, TEXT, confidence, List.of(word));
+    }
+}
@@ -0,0 +1,33 @@
+package com.apex.document.infrastructure.ocr;
+
+import java.awt.image.BufferedImage;
+
+/**
+ * SPI for an OCR engine that recognizes a single page image.
+ * Engines are picked up as Spring beans by {@link OcrEnsemble}, which runs them
+ * cheapest first and only escalates pages the cheaper engines were unsure about.
+ */
+public interface OcrEngine {
+
+    /**
+     * Engine name used in configuration, metrics and cache keys, e.g. TESSERACT
+     */
+    String name();
+
+    /**
+     * Engine (or model) version; part of the OCR cache key
+     */
+    String version();
+
+    /**
+     * Relative cost of running this engine; lower ranks run first
+     */
+    int costRank();
+
+    /**
+     * Default number of pages this engine may recognize at once
+     */
+    int defaultConcurrency();
+
+    OcrPage recognize(int pageNumber, BufferedImage image) throws Exception;
+}
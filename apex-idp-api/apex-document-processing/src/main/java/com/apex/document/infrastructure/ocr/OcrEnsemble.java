@@ -0,0 +1,143 @@
+package com.apex.document.infrastructure.ocr;
+
+import com.apex.core.config.ApexProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.awt.image.BufferedImage;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Runs OCR engines as an escalating ensemble.
+ * A page goes to the cheapest engine first and only moves on to heavier engines
+ * while its confidence stays below the escalation threshold; the most confident
+ * result wins. Every engine has its own concurrency budget, so a slow or rate
+ * limited cloud engine never ties up more than its share of page workers.
+ */
+@Slf4j
+@Component
+public class OcrEnsemble {
+
+    private final List<EngineSlot> engines;
+    private final ApexProperties.Processing.OcrEnsemble config;
+    private final String signature;
+
+    public OcrEnsemble(List<OcrEngine> availableEngines, ApexProperties apexProperties, MeterRegistry meterRegistry) {
+        this.config = apexProperties.getProcessing().getOcrEnsemble();
+        this.engines = availableEngines.stream()
+            .filter(engine -> config.getEngines().isEmpty() || config.getEngines().contains(engine.name()))
+            .sorted(Comparator.comparingInt(OcrEngine::costRank))
+            .map(engine -> new EngineSlot(engine, meterRegistry))
+            .toList();
+        this.signature = engines.stream()
+            .map(slot -> slot.engine.name() + "@" + slot.engine.version())
+            .collect(Collectors.joining("+")) + ":" + config.getEscalationThreshold();
+
+        if (engines.isEmpty()) {
+            log.warn("No OCR engines available - scanned pages cannot be recognized");
+        } else {
+            log.info("OCR ensemble: {}", signature);
+        }
+    }
+
+    /**
+     * Identifies the engines, versions and threshold producing results; used in cache keys
+     */
+    public String signature() {
+        return signature;
+    }
+
+    public OcrPage recognize(int pageNumber, BufferedImage image) {
+        if (engines.isEmpty()) {
+            throw new OcrProcessingException("No OCR engines configured");
+        }
+
+        OcrPage best = null;
+        Exception lastFailure = null;
+        for (int i = 0; i < engines.size(); i++) {
+            EngineSlot slot = engines.get(i);
+            OcrPage page;
+            try {
+                page = slot.recognize(pageNumber, image);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new OcrProcessingException("Interrupted while recognizing page " + pageNumber, e);
+            } catch (Exception e) {
+                log.warn("OCR engine {} failed on page {}: {}", slot.engine.name(), pageNumber, e.getMessage());
+                lastFailure = e;
+                continue;
+            }
+
+            if (best == null || page.confidence() > best.confidence()) {
+                best = page;
+            }
+            if (best.confidence() >= config.getEscalationThreshold()) {
+                return best;
+            }
+            if (i < engines.size() - 1) {
+                // Only an escalation if a heavier engine is left to try
+                slot.escalations.increment();
+            }
+        }
+
+        if (best == null) {
+            throw new OcrProcessingException("All OCR engines failed on page " + pageNumber, lastFailure);
+        }
+        return best;
+    }
+
+    private class EngineSlot {
+        private final OcrEngine engine;
+        private final Semaphore permits;
+        private final Timer successLatency;
+        private final Timer errorLatency;
+        private final DistributionSummary confidence;
+        private final Counter escalations;
+
+        EngineSlot(OcrEngine engine, MeterRegistry meterRegistry) {
+            this.engine = engine;
+            this.permits = new Semaphore(config.getConcurrency().getOrDefault(engine.name(), engine.defaultConcurrency()));
+            this.successLatency = Timer.builder("apex.ocr.engine.latency")
+                .tag("engine", engine.name())
+                .tag("outcome", "success")
+                .register(meterRegistry);
+            this.errorLatency = Timer.builder("apex.ocr.engine.latency")
+                .tag("engine", engine.name())
+                .tag("outcome", "error")
+                .register(meterRegistry);
+            this.confidence = DistributionSummary.builder("apex.ocr.engine.confidence")
+                .tag("engine", engine.name())
+                .description("Mean word confidence per recognized page")
+                .scale(100)
+                .register(meterRegistry);
+            this.escalations = Counter.builder("apex.ocr.engine.escalations")
+                .tag("engine", engine.name())
+                .description("Pages passed on to a heavier engine after this one")
+                .register(meterRegistry);
+        }
+
+        OcrPage recognize(int pageNumber, BufferedImage image) throws Exception {
+            permits.acquire();
+            long start = System.nanoTime();
+            try {
+                OcrPage page = engine.recognize(pageNumber, image);
+                successLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                confidence.record(page.confidence());
+                return page;
+            } catch (Exception e) {
+                errorLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                throw e;
+            } finally {
+                permits.release();
+            }
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.apex.document.infrastructure.ocr;
+
+import java.util.List;
+
+/**
+ * OCR output for a single page: text, mean word confidence and word layout
+ */
+public record OcrPage(int pageNumber, String text, float confidence, List<OcrWord> words) {
+
+    public OcrPage {
+        words = words == null ? List.of() : List.copyOf(words);
+    }
+}
@@ -0,0 +1,15 @@
+package com.apex.document.infrastructure.ocr;
+
+/**
+ * Exception thrown when a document cannot be rendered or recognized
+ */
+public class OcrProcessingException extends RuntimeException {
+
+    public OcrProcessingException(String message) {
+        super(message);
+    }
+
+    public OcrProcessingException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
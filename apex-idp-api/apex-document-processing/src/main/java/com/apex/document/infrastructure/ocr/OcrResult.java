@@ -1,22 +1,34 @@
 package com.apex.document.infrastructure.ocr;
 
+import java.util.List;
+import java.util.stream.Collectors;
+
 /**
- * Result of OCR processing
+ * Result of OCR processing, one entry per page in page order
  */
 public class OcrResult {
-    private final String text;
-    private final int pageCount;
+    private static final String PAGE_SEPARATOR = "\n\n";
+    
+    private final List<OcrPage> pages;
     
-    public OcrResult(String text, int pageCount) {
-        this.text = text;
-        this.pageCount = pageCount;
+    public OcrResult(List<OcrPage> pages) {
+        this.pages = List.copyOf(pages);
     }
     
+    /**
+     * Full document text with pages separated by a blank line
+     */
     public String getText() {
-        return text;
+        return pages.stream()
+            .map(OcrPage::text)
+            .collect(Collectors.joining(PAGE_SEPARATOR));
     }
     
     public int getPageCount() {
-        return pageCount;
+        return pages.size();
+    }
+    
+    public List<OcrPage> getPages() {
+        return pages;
     }
 }
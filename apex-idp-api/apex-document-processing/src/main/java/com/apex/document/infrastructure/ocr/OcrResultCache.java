@@ -0,0 +1,111 @@
+package com.apex.document.infrastructure.ocr;
+
+import com.apex.core.config.ApexProperties;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Two-tier cache of OCR results.
+ * The local tier is a Caffeine cache bounded by the approximate size of the cached
+ * text and layout. The optional Redis tier is shared by all instances, so a document
+ * OCR'd on one node is never OCR'd again on another. Redis errors are treated as
+ * misses - the cache only ever saves work.
+ */
+@Slf4j
+@Component
+public class OcrResultCache {
+
+    private static final TypeReference<List<OcrPage>> PAGES_TYPE = new TypeReference<>() {};
+
+    private final ObjectProvider<StringRedisTemplate> redisTemplateProvider;
+    private final ObjectMapper objectMapper;
+    private final ApexProperties.Processing.OcrCache config;
+    private final Cache<String, OcrResult> local;
+
+    public OcrResultCache(ObjectProvider<StringRedisTemplate> redisTemplateProvider,
+                          ObjectMapper objectMapper,
+                          ApexProperties apexProperties,
+                          MeterRegistry meterRegistry) {
+        this.redisTemplateProvider = redisTemplateProvider;
+        this.objectMapper = objectMapper;
+        this.config = apexProperties.getProcessing().getOcrCache();
+        this.local = Caffeine.newBuilder()
+            .maximumWeight(config.getLocalMaxBytes())
+            .weigher((String key, OcrResult result) -> weigh(result))
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, local, "ocr-results");
+    }
+
+    public Optional<OcrResult> get(String key) {
+        OcrResult result = local.getIfPresent(key);
+        if (result != null) {
+            return Optional.of(result);
+        }
+
+        StringRedisTemplate redis = redisTemplate();
+        if (redis == null) {
+            return Optional.empty();
+        }
+        try {
+            String json = redis.opsForValue().get(key);
+            if (json == null) {
+                return Optional.empty();
+            }
+            result = new OcrResult(objectMapper.readValue(json, PAGES_TYPE));
+            local.put(key, result);
+            return Optional.of(result);
+        } catch (Exception e) {
+            log.warn("OCR cache read from Redis failed for {}: {}", key, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    public void put(String key, OcrResult result) {
+        local.put(key, result);
+
+        StringRedisTemplate redis = redisTemplate();
+        if (redis == null) {
+            return;
+        }
+        try {
+            String json = objectMapper.writeValueAsString(result.getPages());
+            redis.opsForValue().set(key, json, Duration.ofHours(config.getRedisTtlHours()));
+        } catch (JsonProcessingException e) {
+            log.warn("Could not serialize OCR result for {}: {}", key, e.getMessage());
+        } catch (Exception e) {
+            log.warn("OCR cache write to Redis failed for {}: {}", key, e.getMessage());
+        }
+    }
+
+    private StringRedisTemplate redisTemplate() {
+        return config.isRedisEnabled() ? redisTemplateProvider.getIfAvailable() : null;
+    }
+
+    /**
+     * Rough heap footprint: two bytes per character plus a fixed overhead per word box.
+     */
+    private static int weigh(OcrResult result) {
+        long bytes = 0;
+        for (OcrPage page : result.getPages()) {
+            bytes += 2L * page.text().length() + 64L;
+            for (OcrWord word : page.words()) {
+                bytes += 2L * word.text().length() + 48L;
+            }
+        }
+        return (int) Math.min(bytes, Integer.MAX_VALUE);
+    }
+}
@@ -1,15 +1,245 @@
 package com.apex.document.infrastructure.ocr;
 
+import com.apex.core.config.ApexProperties;
+import com.apex.document.infrastructure.storage.DocumentStorageService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.pdfbox.rendering.ImageType;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Service;
 
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntPredicate;
+
 /**
- * Service for OCR processing
+ * Service for OCR processing.
+ * Born-digital PDFs and Word documents are read from their embedded text layer
+ * first; only pages without a usable text layer (scans) are rendered and OCR'd.
+ * Multi-page PDFs and TIFFs are split into pages that are recognized in parallel
+ * on a shared, bounded page pool, so latency for long documents scales with the
+ * number of cores rather than the number of pages.
+ * Results are cached by content hash and OCR engine version, so the same bytes
+ * are only recognized once per engine release.
  */
+@Slf4j
 @Service
 public class OcrService {
     
-    public OcrResult performOcr(String storagePath) {
-        // TODO: Implement OCR processing
-        return new OcrResult("Extracted text content", 1);
+    private final OcrResultCache cache;
+    private final OcrEnsemble ensemble;
+    private final DocumentStorageService storageService;
+    private final TextLayerExtractor textLayerExtractor;
+    private final ApexProperties apexProperties;
+    private final Counter textLayerPages;
+    private final Counter ocrPages;
+    
+    private ThreadPoolExecutor pagePool;
+    
+    public OcrService(OcrResultCache cache,
+                      OcrEnsemble ensemble,
+                      DocumentStorageService storageService,
+                      TextLayerExtractor textLayerExtractor,
+                      ApexProperties apexProperties,
+                      MeterRegistry meterRegistry) {
+        this.cache = cache;
+        this.ensemble = ensemble;
+        this.storageService = storageService;
+        this.textLayerExtractor = textLayerExtractor;
+        this.apexProperties = apexProperties;
+        this.textLayerPages = Counter.builder("apex.ocr.pages")
+            .tag("source", "text_layer")
+            .description("Pages whose text was taken from the embedded text layer")
+            .register(meterRegistry);
+        this.ocrPages = Counter.builder("apex.ocr.pages")
+            .tag("source", "ocr")
+            .description("Pages rendered and recognized by the OCR engine")
+            .register(meterRegistry);
+    }
+    
+    @PostConstruct
+    void start() {
+        int configured = apexProperties.getProcessing().getPageOcr().getWorkers();
+        int workers = configured > 0 ? configured : Runtime.getRuntime().availableProcessors();
+        pagePool = new ThreadPoolExecutor(
+            workers,
+            workers,
+            0L,
+            TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(),
+            new CustomizableThreadFactory("ocr-page-")
+        );
+    }
+    
+    @PreDestroy
+    void stop() {
+        pagePool.shutdownNow();
+    }
+    
+    /**
+     * OCR the stored document, reusing a cached result for the same content when available.
+     * Documents without a content hash are always recognized.
+     */
+    public OcrResult performOcr(String storagePath, String contentHash) {
+        if (contentHash == null) {
+            return recognize(storagePath);
+        }
+        
+        String key = cacheKey(contentHash);
+        return cache.get(key).orElseGet(() -> {
+            OcrResult result = recognize(storagePath);
+            cache.put(key, result);
+            return result;
+        });
+    }
+    
+    private String cacheKey(String contentHash) {
+        String generation = apexProperties.getProcessing().getOcrEngineVersion();
+        return "ocr:" + ensemble.signature() + ":" + generation + ":" + contentHash;
+    }
+    
+    private OcrResult recognize(String storagePath) {
+        Path file = null;
+        try {
+            // PDF rendering needs random access, so the content is spooled to a temp file first
+            file = Files.createTempFile("apex-ocr-", null);
+            try (InputStream content = storageService.openDocument(storagePath)) {
+                Files.copy(content, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+            String contentType = detectContentType(file, storagePath);
+            
+            Map<Integer, OcrPage> pages = new TreeMap<>();
+            int textLayerPageCount = readTextLayer(file, contentType, storagePath, pages);
+            if (!PageImages.canRender(contentType)) {
+                // Word documents have no page images - the text layer is all there is
+                return new OcrResult(new ArrayList<>(pages.values()));
+            }
+            if (textLayerPageCount > 0 && pages.size() == textLayerPageCount) {
+                log.debug("Text layer covers all {} pages of {}, skipping OCR", textLayerPageCount, storagePath);
+                return new OcrResult(new ArrayList<>(pages.values()));
+            }
+            
+            IntPredicate needsOcr = pageNumber -> !pages.containsKey(pageNumber);
+            recognizePages(file, contentType, needsOcr).forEach(page -> pages.put(page.pageNumber(), page));
+            return new OcrResult(new ArrayList<>(pages.values()));
+        } catch (IOException e) {
+            throw new OcrProcessingException("Failed to read document for OCR: " + storagePath, e);
+        } finally {
+            deleteQuietly(file);
+        }
+    }
+    
+    /**
+     * Add pages with a usable embedded text layer to the result.
+     * Returns the number of pages found in the text layer, or 0 if there is none.
+     * Text layer pages carry no word boxes; only OCR'd pages have layout.
+     */
+    private int readTextLayer(Path file, String contentType, String storagePath, Map<Integer, OcrPage> pages) {
+        ApexProperties.Processing.TextLayer config = apexProperties.getProcessing().getTextLayer();
+        if (!config.isEnabled() || !textLayerExtractor.supports(contentType)) {
+            return 0;
+        }
+        
+        List<String> texts;
+        try {
+            texts = textLayerExtractor.extractPages(file, contentType);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Text layer extraction failed for {}, falling back to OCR: {}", storagePath, e.getMessage());
+            return 0;
+        }
+        
+        boolean paged = PageImages.canRender(contentType);
+        for (int i = 0; i < texts.size(); i++) {
+            String text = texts.get(i);
+            // Paged formats need a good text layer per page; anything else is all we can get
+            if (!paged || textLayerExtractor.score(text, config.getMinCharsPerPage()) >= config.getMinQuality()) {
+                pages.put(i + 1, new OcrPage(i + 1, text, 1f, List.of()));
+                textLayerPages.increment();
+            }
+        }
+        return texts.size();
+    }
+    
+    /**
+     * Render pages in order on the calling thread and recognize them on the page pool.
+     * Rendering blocks once the in-flight limit is reached, so at most that many page
+     * images per document are held in memory.
+     */
+    private List<OcrPage> recognizePages(Path file, String contentType, IntPredicate pageFilter) throws IOException {
+        ApexProperties.Processing.PageOcr config = apexProperties.getProcessing().getPageOcr();
+        Semaphore inFlight = new Semaphore(config.getMaxPagesInFlight());
+        List<Future<OcrPage>> futures = new ArrayList<>();
+        
+        try {
+            PageImages.render(file, contentType, config.getRenderDpi(), ImageType.GRAY, pageFilter, (pageNumber, image) -> {
+                inFlight.acquire();
+                try {
+                    futures.add(pagePool.submit(() -> {
+                        try {
+                            return recognizePage(pageNumber, image);
+                        } finally {
+                            inFlight.release();
+                        }
+                    }));
+                } catch (RejectedExecutionException e) {
+                    inFlight.release();
+                    throw e;
+                }
+            });
+            
+            List<OcrPage> pages = new ArrayList<>(futures.size());
+            for (Future<OcrPage> future : futures) {
+                pages.add(future.get());
+            }
+            return pages;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OcrProcessingException("Interrupted while recognizing pages", e);
+        } catch (ExecutionException e) {
+            throw new OcrProcessingException("Page recognition failed", e.getCause());
+        } finally {
+            // No-op after success; stops the remaining pages when one of them failed
+            futures.forEach(future -> future.cancel(true));
+        }
+    }
+    
+    private OcrPage recognizePage(int pageNumber, BufferedImage image) {
+        ocrPages.increment();
+        return ensemble.recognize(pageNumber, image);
+    }
+    
+    private String detectContentType(Path file, String storagePath) throws IOException {
+        try (InputStream content = Files.newInputStream(file)) {
+            return storageService.detectContentType(content.readNBytes(8192), storagePath);
+        }
+    }
+    
+    private void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.debug("Could not remove OCR temp file {}: {}", file, e.getMessage());
+        }
     }
 }
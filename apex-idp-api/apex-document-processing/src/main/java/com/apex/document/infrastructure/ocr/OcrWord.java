@@ -0,0 +1,6 @@
+package com.apex.document.infrastructure.ocr;
+
+/**
+ * A recognized word and its bounding box in page pixel coordinates
+ */
+public record OcrWord(String text, int x, int y, int width, int height, float confidence) {}
@@ -0,0 +1,86 @@
+package com.apex.document.infrastructure.ocr;
+
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.rendering.ImageType;
+import org.apache.pdfbox.rendering.PDFRenderer;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.function.IntPredicate;
+
+/**
+ * Splits a PDF or a (multi-page) image into page images, one page at a time.
+ * Pages are handed over as soon as they are rendered, so only the pages the
+ * handler is still holding are in memory.
+ */
+public final class PageImages {
+
+    @FunctionalInterface
+    public interface PageHandler {
+        void accept(int pageNumber, BufferedImage image) throws InterruptedException;
+    }
+
+    private PageImages() {
+    }
+
+    public static boolean canRender(String contentType) {
+        return contentType != null && (contentType.equals("application/pdf") || contentType.startsWith("image/"));
+    }
+
+    /**
+     * Render the pages accepted by the filter (1-based page numbers) in page order.
+     * PDF pages are rendered at the given resolution and color type; image frames are
+     * returned as stored.
+     */
+    public static void render(Path file, String contentType, int dpi, ImageType imageType,
+                              IntPredicate pageFilter, PageHandler handler)
+            throws IOException, InterruptedException {
+        if (contentType.equals("application/pdf")) {
+            renderPdf(file, dpi, imageType, pageFilter, handler);
+        } else {
+            readImages(file, contentType, pageFilter, handler);
+        }
+    }
+
+    private static void renderPdf(Path file, int dpi, ImageType imageType, IntPredicate pageFilter, PageHandler handler)
+            throws IOException, InterruptedException {
+        // Temp-file backed buffers keep large scanned PDFs off the heap
+        try (PDDocument document = PDDocument.load(file.toFile(), MemoryUsageSetting.setupTempFileOnly())) {
+            PDFRenderer renderer = new PDFRenderer(document);
+            for (int page = 0; page < document.getNumberOfPages(); page++) {
+                if (pageFilter.test(page + 1)) {
+                    handler.accept(page + 1, renderer.renderImageWithDPI(page, dpi, imageType));
+                }
+            }
+        }
+    }
+
+    private static void readImages(Path file, String contentType, IntPredicate pageFilter, PageHandler handler)
+            throws IOException, InterruptedException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(file.toFile())) {
+            Iterator<ImageReader> readers = input != null ? ImageIO.getImageReaders(input) : null;
+            if (readers == null || !readers.hasNext()) {
+                throw new OcrProcessingException("No image reader available for " + contentType);
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input);
+                // TIFF statements carry one frame per page; JPEG and PNG have a single frame
+                int frames = reader.getNumImages(true);
+                for (int frame = 0; frame < frames; frame++) {
+                    if (pageFilter.test(frame + 1)) {
+                        handler.accept(frame + 1, reader.read(frame));
+                    }
+                }
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+}
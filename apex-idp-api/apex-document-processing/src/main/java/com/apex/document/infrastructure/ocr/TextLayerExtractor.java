@@ -0,0 +1,148 @@
+package com.apex.document.infrastructure.ocr;
+
+import org.apache.tika.exception.TikaException;
+import org.apache.tika.metadata.Metadata;
+import org.apache.tika.parser.AutoDetectParser;
+import org.apache.tika.parser.ParseContext;
+import org.apache.tika.parser.ocr.TesseractOCRConfig;
+import org.apache.tika.parser.pdf.PDFParserConfig;
+import org.springframework.stereotype.Component;
+import org.xml.sax.Attributes;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.DefaultHandler;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Extracts the embedded text layer of born-digital documents with Tika.
+ * PDFs yield one entry per page; formats without pages (DOCX, DOC) yield a
+ * single entry. Tika's own OCR is disabled - scanned pages are left to OcrService.
+ */
+@Component
+public class TextLayerExtractor {
+
+    private final AutoDetectParser parser = new AutoDetectParser();
+
+    /**
+     * Whether the content type carries a text layer worth checking before OCR
+     */
+    public boolean supports(String contentType) {
+        return contentType != null && (
+            contentType.equals("application/pdf") ||
+            contentType.equals("application/vnd.openxmlformats-officedocument.wordprocessingml.document") ||
+            contentType.equals("application/msword")
+        );
+    }
+
+    public List<String> extractPages(Path file, String contentType) throws IOException {
+        Metadata metadata = new Metadata();
+        metadata.set(Metadata.CONTENT_TYPE, contentType);
+
+        PDFParserConfig pdfConfig = new PDFParserConfig();
+        pdfConfig.setOcrStrategy(PDFParserConfig.OCR_STRATEGY.NO_OCR);
+        pdfConfig.setExtractInlineImages(false);
+        TesseractOCRConfig ocrConfig = new TesseractOCRConfig();
+        ocrConfig.setSkipOcr(true);
+
+        ParseContext context = new ParseContext();
+        context.set(PDFParserConfig.class, pdfConfig);
+        context.set(TesseractOCRConfig.class, ocrConfig);
+
+        PageTextHandler handler = new PageTextHandler();
+        try (InputStream content = Files.newInputStream(file)) {
+            parser.parse(content, handler, metadata, context);
+        } catch (SAXException | TikaException e) {
+            throw new IOException("Could not extract text layer", e);
+        }
+        return handler.pages();
+    }
+
+    /**
+     * Score how much a page's text looks like real text rather than an empty or broken layer.
+     * Returns 0 for pages with fewer than minChars visible characters (scans, image-only pages),
+     * otherwise the share of visible characters that are letters, digits or ordinary punctuation.
+     * Broken font encodings show up as replacement, control and private-use characters.
+     */
+    public double score(String text, int minChars) {
+        int visible = 0;
+        int good = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isWhitespace(c)) {
+                continue;
+            }
+            visible++;
+            if (Character.isLetterOrDigit(c) || isPunctuation(c)) {
+                good++;
+            }
+        }
+        return visible < minChars ? 0 : (double) good / visible;
+    }
+
+    private static boolean isPunctuation(char c) {
+        return switch (Character.getType(c)) {
+            case Character.CONNECTOR_PUNCTUATION, Character.DASH_PUNCTUATION, Character.START_PUNCTUATION,
+                 Character.END_PUNCTUATION, Character.INITIAL_QUOTE_PUNCTUATION, Character.FINAL_QUOTE_PUNCTUATION,
+                 Character.OTHER_PUNCTUATION, Character.MATH_SYMBOL, Character.CURRENCY_SYMBOL -> true;
+            default -> false;
+        };
+    }
+
+    /**
+     * Collects character data per {@code <div class="page">} emitted by Tika's PDF parser.
+     * Text outside any page div (documents without pages) ends up in a single page.
+     */
+    private static class PageTextHandler extends DefaultHandler {
+        private final List<String> pages = new ArrayList<>();
+        private final StringBuilder current = new StringBuilder();
+        private int divDepth;
+        private int pageDepth = -1;
+
+        @Override
+        public void startElement(String uri, String localName, String qName, Attributes attributes) {
+            if ("div".equals(localName)) {
+                divDepth++;
+                if (pageDepth < 0 && "page".equals(attributes.getValue("class"))) {
+                    pageDepth = divDepth;
+                    current.setLength(0);
+                }
+            } else if ("p".equals(localName) || "br".equals(localName)) {
+                current.append('\n');
+            }
+        }
+
+        @Override
+        public void endElement(String uri, String localName, String qName) {
+            if ("div".equals(localName)) {
+                if (divDepth == pageDepth) {
+                    pages.add(current.toString().strip());
+                    current.setLength(0);
+                    pageDepth = -1;
+                }
+                divDepth--;
+            }
+        }
+
+        @Override
+        public void characters(char[] ch, int start, int length) {
+            current.append(ch, start, length);
+        }
+
+        @Override
+        public void ignorableWhitespace(char[] ch, int start, int length) {
+            current.append(ch, start, length);
+        }
+
+        List<String> pages() {
+            if (pages.isEmpty()) {
+                return List.of(current.toString().strip());
+            }
+            return pages;
+        }
+    }
+}
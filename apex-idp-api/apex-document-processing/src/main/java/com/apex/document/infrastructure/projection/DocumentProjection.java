@@ -1,14 +1,22 @@
 package com.apex.document.infrastructure.projection;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
 import java.time.LocalDateTime;
 import java.util.Map;
 
 /**
- * Read-side projection of Document for CQRS pattern
+ * Read-side projection of Document for CQRS pattern.
+ * The validation queue index is on COALESCE(confidence_score, 0), which JPA cannot
+ * declare; it exists only in 14-validation-queue-null-confidence.sql.
  */
 @Entity
-@Table(name = "document_projections")
+@Table(name = "document_projections", indexes = {
+    @Index(name = "idx_document_projections_uploaded", columnList = "uploadedAt, id"),
+    @Index(name = "idx_document_projections_stage_uploaded", columnList = "stage, uploadedAt, id")
+})
 public class DocumentProjection {
     
     @Id
@@ -31,16 +39,17 @@ public class DocumentProjection {
     
     private LocalDateTime lastModified;
     
-    @ElementCollection
-    @CollectionTable(name = "document_extracted_fields", joinColumns = @JoinColumn(name = "document_id"))
-    @MapKeyColumn(name = "field_name")
-    @Column(name = "field_value")
-    private Map<String, String> extractedFields;
+    // Field name -> value as one JSON document, so a page of projections loads in a single query
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "extracted_fields")
+    private Map<String, Object> extractedFields;
     
     private Double confidenceScore;
     
     private String storagePath;
     
+    private String priority;
+    
     private boolean isValid;
     
     @Column(length = 1000)
@@ -51,7 +60,7 @@ public class DocumentProjection {
     
     public DocumentProjection(String id, String filename, String documentType, String stage,
                             String userId, LocalDateTime uploadedAt, LocalDateTime lastModified,
-                            Map<String, String> extractedFields, Double confidenceScore,
+                            Map<String, Object> extractedFields, Double confidenceScore,
                             String storagePath, boolean isValid, String validationErrors) {
         this.id = id;
         this.filename = filename;
@@ -89,8 +98,8 @@ public class DocumentProjection {
     public LocalDateTime getLastModified() { return lastModified; }
     public void setLastModified(LocalDateTime lastModified) { this.lastModified = lastModified; }
     
-    public Map<String, String> getExtractedFields() { return extractedFields; }
-    public void setExtractedFields(Map<String, String> extractedFields) { this.extractedFields = extractedFields; }
+    public Map<String, Object> getExtractedFields() { return extractedFields; }
+    public void setExtractedFields(Map<String, Object> extractedFields) { this.extractedFields = extractedFields; }
     
     public Double getConfidenceScore() { return confidenceScore; }
     public void setConfidenceScore(Double confidenceScore) { this.confidenceScore = confidenceScore; }
@@ -98,6 +107,9 @@ public class DocumentProjection {
     public String getStoragePath() { return storagePath; }
     public void setStoragePath(String storagePath) { this.storagePath = storagePath; }
     
+    public String getPriority() { return priority; }
+    public void setPriority(String priority) { this.priority = priority; }
+    
     public boolean isValid() { return isValid; }
     public void setValid(boolean valid) { isValid = valid; }
     
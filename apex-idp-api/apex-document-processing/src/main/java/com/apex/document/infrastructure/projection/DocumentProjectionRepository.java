@@ -35,11 +35,102 @@ public interface DocumentProjectionRepository extends JpaRepository<DocumentProj
     @Query("SELECT AVG(dp.confidenceScore) FROM DocumentProjection dp WHERE dp.confidenceScore IS NOT NULL")
     Double calculateAverageConfidence();
     
-    @Query("SELECT dp FROM DocumentProjection dp WHERE dp.stage = :stage AND dp.confidenceScore < :threshold")
+    @Query("SELECT dp FROM DocumentProjection dp WHERE dp.stage = :stage AND COALESCE(dp.confidenceScore, 0) < :threshold")
     org.springframework.data.domain.Page<DocumentProjection> findByStageAndConfidenceScoreLessThan(
         @Param("stage") String stage, 
         @Param("threshold") Double threshold, 
         org.springframework.data.domain.Pageable pageable);
         
     long countByStage(String stage);
+    
+    // Keyset pages of the validation queue, lowest confidence first. A missing confidence
+    // counts as zero, so documents without extracted fields lead the queue instead of
+    // dropping out of it. Served by the (stage, COALESCE(confidence_score, 0), uploaded_at, id)
+    // index, so every page costs the same.
+    
+    @Query("SELECT dp FROM DocumentProjection dp WHERE dp.stage = :stage AND COALESCE(dp.confidenceScore, 0) < :threshold " +
+           "ORDER BY COALESCE(dp.confidenceScore, 0), dp.uploadedAt, dp.id")
+    List<DocumentProjection> findValidationQueue(
+        @Param("stage") String stage,
+        @Param("threshold") Double threshold,
+        org.springframework.data.domain.Limit limit);
+    
+    @Query("SELECT dp FROM DocumentProjection dp WHERE dp.stage = :stage AND COALESCE(dp.confidenceScore, 0) < :threshold " +
+           "AND (COALESCE(dp.confidenceScore, 0), dp.uploadedAt, dp.id) > (:confidence, :uploadedAt, :id) " +
+           "ORDER BY COALESCE(dp.confidenceScore, 0), dp.uploadedAt, dp.id")
+    List<DocumentProjection> findValidationQueueAfter(
+        @Param("stage") String stage,
+        @Param("threshold") Double threshold,
+        @Param("confidence") Double confidence,
+        @Param("uploadedAt") LocalDateTime uploadedAt,
+        @Param("id") String id,
+        org.springframework.data.domain.Limit limit);
+    
+    // Oldest documents of a stage, so long-waiting work is ranked even when its confidence is high
+    
+    @Query("SELECT dp FROM DocumentProjection dp WHERE dp.stage = :stage ORDER BY dp.uploadedAt, dp.id")
+    List<DocumentProjection> findOldestInStage(
+        @Param("stage") String stage,
+        org.springframework.data.domain.Limit limit);
+    
+    @Query("SELECT dp FROM DocumentProjection dp WHERE (:stage IS NULL OR dp.stage = :stage) " +
+           "AND (:documentType IS NULL OR dp.documentType = :documentType) " +
+           "AND (:userId IS NULL OR dp.userId = :userId)")
+    org.springframework.data.domain.Page<DocumentProjection> search(
+        @Param("stage") String stage,
+        @Param("documentType") String documentType,
+        @Param("userId") String userId,
+        org.springframework.data.domain.Pageable pageable);
+    
+    @Query("SELECT dp.id FROM DocumentProjection dp WHERE dp.id > :after ORDER BY dp.id")
+    List<String> findIdsAfter(@Param("after") String after, org.springframework.data.domain.Pageable pageable);
+    
+    // Keyset pages of search, newest first, for when the search index is unavailable
+    
+    @Query("SELECT dp FROM DocumentProjection dp WHERE (:stage IS NULL OR dp.stage = :stage) " +
+           "AND (:documentType IS NULL OR dp.documentType = :documentType) " +
+           "AND (:userId IS NULL OR dp.userId = :userId) " +
+           "ORDER BY dp.uploadedAt DESC, dp.id DESC")
+    List<DocumentProjection> searchNewest(
+        @Param("stage") String stage,
+        @Param("documentType") String documentType,
+        @Param("userId") String userId,
+        org.springframework.data.domain.Limit limit);
+    
+    @Query("SELECT dp FROM DocumentProjection dp WHERE (:stage IS NULL OR dp.stage = :stage) " +
+           "AND (:documentType IS NULL OR dp.documentType = :documentType) " +
+           "AND (:userId IS NULL OR dp.userId = :userId) " +
+           "AND (dp.uploadedAt, dp.id) < (:uploadedAt, :id) " +
+           "ORDER BY dp.uploadedAt DESC, dp.id DESC")
+    List<DocumentProjection> searchNewestBefore(
+        @Param("stage") String stage,
+        @Param("documentType") String documentType,
+        @Param("userId") String userId,
+        @Param("uploadedAt") LocalDateTime uploadedAt,
+        @Param("id") String id,
+        org.springframework.data.domain.Limit limit);
+    
+    /**
+     * Same as search, also requiring the extracted fields to contain every name/value pair of
+     * the given JSON object. The jsonb containment test is served by the GIN index on
+     * extracted_fields, so this query is PostgreSQL only.
+     */
+    @Query(value = "SELECT * FROM document_projections dp " +
+                   "WHERE dp.extracted_fields @> CAST(:fields AS JSONB) " +
+                   "AND (CAST(:stage AS TEXT) IS NULL OR dp.stage = :stage) " +
+                   "AND (CAST(:documentType AS TEXT) IS NULL OR dp.document_type = :documentType) " +
+                   "AND (CAST(:userId AS TEXT) IS NULL OR dp.user_id = :userId) " +
+                   "ORDER BY dp.uploaded_at DESC",
+           countQuery = "SELECT COUNT(*) FROM document_projections dp " +
+                        "WHERE dp.extracted_fields @> CAST(:fields AS JSONB) " +
+                        "AND (CAST(:stage AS TEXT) IS NULL OR dp.stage = :stage) " +
+                        "AND (CAST(:documentType AS TEXT) IS NULL OR dp.document_type = :documentType) " +
+                        "AND (CAST(:userId AS TEXT) IS NULL OR dp.user_id = :userId)",
+           nativeQuery = true)
+    org.springframework.data.domain.Page<DocumentProjection> searchByFields(
+        @Param("fields") String fields,
+        @Param("stage") String stage,
+        @Param("documentType") String documentType,
+        @Param("userId") String userId,
+        org.springframework.data.domain.Pageable pageable);
 }
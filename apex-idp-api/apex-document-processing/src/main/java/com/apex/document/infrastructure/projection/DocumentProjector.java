@@ -0,0 +1,371 @@
+package com.apex.document.infrastructure.projection;
+
+import com.apex.core.config.ApexProperties;
+import com.apex.core.outbox.OutboxEvent;
+import com.apex.core.outbox.OutboxEventRepository;
+import com.apex.document.domain.Document;
+import com.apex.document.domain.DocumentRepository;
+import com.apex.document.domain.DocumentStatus;
+import com.apex.document.domain.DocumentType;
+import com.apex.document.domain.ExtractedField;
+import com.apex.document.domain.ProcessingError;
+import com.apex.document.domain.ProcessingStage;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps document_projections in sync with the Document write model.
+ * The projector tails Document events in audit.domain_events from a stored checkpoint.
+ * Events only say which documents changed: each batch re-reads those documents and
+ * upserts their projections, so applying an event twice is harmless. The checkpoint
+ * only moves past events older than the settle window, because a transaction that
+ * took a lower sequence number can commit after a higher one.
+ * A rebuild wipes the projections and refills them from the documents table, with
+ * id ranges processed in parallel, while tailing is paused.
+ * Only one node writes at a time: each batch locks the checkpoint row and is skipped
+ * if another node holds it, and a rebuild keeps the row locked until it finishes.
+ */
+@Slf4j
+@Component
+public class DocumentProjector {
+
+    private static final String PROJECTION_NAME = "document_projections";
+    private static final String AGGREGATE_TYPE = Document.class.getSimpleName();
+    private static final int MAX_ERROR_TEXT = 1000;
+
+    private final OutboxEventRepository eventRepository;
+    private final DocumentRepository documentRepository;
+    private final DocumentProjectionRepository projectionRepository;
+    private final ProjectionCheckpointRepository checkpointRepository;
+    private final ApexProperties.Projection config;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate newTransactionTemplate;
+    private final ExecutorService rebuildExecutor;
+
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private final AtomicLong currentLagMillis = new AtomicLong();
+    private volatile long projectedUpTo;
+    private volatile boolean checkpointCreated;
+    private final Timer lag;
+    private final Counter projected;
+
+    public DocumentProjector(OutboxEventRepository eventRepository,
+                             DocumentRepository documentRepository,
+                             DocumentProjectionRepository projectionRepository,
+                             ProjectionCheckpointRepository checkpointRepository,
+                             ApexProperties apexProperties,
+                             PlatformTransactionManager transactionManager,
+                             MeterRegistry meterRegistry) {
+        this.eventRepository = eventRepository;
+        this.documentRepository = documentRepository;
+        this.projectionRepository = projectionRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.config = apexProperties.getProjection();
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.newTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.newTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.rebuildExecutor = Executors.newFixedThreadPool(
+            config.getRebuildPartitions() + 1, new CustomizableThreadFactory("projection-rebuild-"));
+        this.lag = Timer.builder("apex.projection.lag")
+            .tag("projection", PROJECTION_NAME)
+            .description("Time from a document event to the change being visible in the read model")
+            .register(meterRegistry);
+        this.projected = Counter.builder("apex.projection.documents")
+            .tag("projection", PROJECTION_NAME)
+            .description("Document projections written")
+            .register(meterRegistry);
+        Gauge.builder("apex.projection.lag.current", currentLagMillis, AtomicLong::get)
+            .tag("projection", PROJECTION_NAME)
+            .description("Age in milliseconds of the newest projected event while a backlog remains")
+            .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void stop() {
+        rebuildExecutor.shutdownNow();
+    }
+
+    @Scheduled(fixedDelayString = "${apex.projection.poll-interval-ms:500}")
+    public void catchUp() {
+        if (!config.isEnabled() || rebuilding.get()) {
+            return;
+        }
+        ensureCheckpoint();
+        int advanced;
+        do {
+            try {
+                advanced = transactionTemplate.execute(status -> projectBatch());
+            } catch (PessimisticLockingFailureException e) {
+                log.debug("Projection {} is being written by another node", PROJECTION_NAME);
+                return;
+            }
+        } while (advanced == config.getBatchSize() && !rebuilding.get());
+    }
+
+    /**
+     * Start a full rebuild in the background.
+     * Returns false if a rebuild is already running.
+     */
+    public boolean startRebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return false;
+        }
+        rebuildExecutor.execute(() -> {
+            try {
+                rebuild();
+            } catch (Exception e) {
+                log.error("Projection rebuild failed; tailing resumes from the previous checkpoint", e);
+            } finally {
+                rebuilding.set(false);
+            }
+        });
+        return true;
+    }
+
+    public boolean isRebuilding() {
+        return rebuilding.get();
+    }
+
+    /**
+     * Position in audit.domain_events up to which the projections are complete
+     */
+    public long projectedPosition() {
+        return checkpointRepository.findById(PROJECTION_NAME)
+            .map(ProjectionCheckpoint::getSequenceNumber)
+            .orElse(0L);
+    }
+
+    /**
+     * Create the checkpoint row once, so there is always a row to lock.
+     */
+    private void ensureCheckpoint() {
+        if (checkpointCreated) {
+            return;
+        }
+        try {
+            newTransactionTemplate.executeWithoutResult(status -> {
+                if (!checkpointRepository.existsById(PROJECTION_NAME)) {
+                    checkpointRepository.saveAndFlush(new ProjectionCheckpoint(PROJECTION_NAME));
+                }
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Another node created it first
+        }
+        checkpointCreated = true;
+    }
+
+    /**
+     * Project the next batch of events; returns how many events the checkpoint moved past.
+     * Fails with PessimisticLockingFailureException if another node holds the checkpoint.
+     */
+    private int projectBatch() {
+        ProjectionCheckpoint checkpoint = checkpointRepository.tryLock(PROJECTION_NAME)
+            .orElseThrow(() -> new IllegalStateException("Missing checkpoint " + PROJECTION_NAME));
+        List<OutboxEvent> events = eventRepository.findAfter(
+            AGGREGATE_TYPE, checkpoint.getSequenceNumber(), PageRequest.of(0, config.getBatchSize()));
+        if (events.isEmpty()) {
+            currentLagMillis.set(0);
+            return 0;
+        }
+
+        Set<UUID> documentIds = events.stream()
+            .map(event -> UUID.fromString(event.getAggregateId()))
+            .collect(Collectors.toCollection(LinkedHashSet::new));
+        project(documentIds);
+
+        Instant now = Instant.now();
+        Instant settled = now.minusMillis(config.getSettleMs());
+        int advanced = 0;
+        boolean contiguous = true;
+        for (OutboxEvent event : events) {
+            if (event.getSequenceNumber() > projectedUpTo) {
+                lag.record(Duration.between(event.getOccurredAt(), now));
+            }
+            contiguous = contiguous && !event.getOccurredAt().isAfter(settled);
+            if (contiguous) {
+                checkpoint.advanceTo(event.getSequenceNumber());
+                advanced++;
+            }
+        }
+        OutboxEvent newest = events.get(events.size() - 1);
+        projectedUpTo = Math.max(projectedUpTo, newest.getSequenceNumber());
+        currentLagMillis.set(events.size() == config.getBatchSize()
+            ? Duration.between(newest.getOccurredAt(), now).toMillis()
+            : 0);
+        checkpointRepository.save(checkpoint);
+        return advanced;
+    }
+
+    private void rebuild() {
+        ensureCheckpoint();
+        // The checkpoint stays locked until the rebuild commits, so no node tails into it meanwhile
+        transactionTemplate.executeWithoutResult(status -> {
+            ProjectionCheckpoint checkpoint = checkpointRepository.lock(PROJECTION_NAME)
+                .orElseThrow(() -> new IllegalStateException("Missing checkpoint " + PROJECTION_NAME));
+            long position = rebuildAll();
+            // Everything up to the position read before the wipe is in the rebuilt projections
+            checkpoint.advanceTo(position);
+            checkpointRepository.save(checkpoint);
+            projectedUpTo = position;
+        });
+    }
+
+    /**
+     * Wipe and refill the projections; returns the event position they cover.
+     */
+    private long rebuildAll() {
+        long started = System.nanoTime();
+        Long last = eventRepository.findLastSequenceNumber(AGGREGATE_TYPE);
+        long position = last != null ? last : 0;
+
+        // Committed on its own, before the partitions insert the same ids in their own transactions
+        newTransactionTemplate.executeWithoutResult(status -> projectionRepository.deleteAllInBatch());
+
+        int partitions = config.getRebuildPartitions();
+        List<Future<Long>> results = new ArrayList<>(partitions);
+        for (int i = 0; i < partitions; i++) {
+            UUID from = partitionStart(i, partitions);
+            UUID to = i == partitions - 1 ? new UUID(-1L, -1L) : predecessor(partitionStart(i + 1, partitions));
+            results.add(rebuildExecutor.submit(() -> rebuildRange(from, to)));
+        }
+        long documents = 0;
+        try {
+            for (Future<Long> result : results) {
+                documents += result.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Projection rebuild interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Projection rebuild failed", e.getCause());
+        }
+
+        log.info("Rebuilt {} document projections in {} ms", documents,
+            Duration.ofNanos(System.nanoTime() - started).toMillis());
+        return position;
+    }
+
+    private long rebuildRange(UUID from, UUID to) {
+        long count = 0;
+        UUID cursor = from;
+        while (cursor != null) {
+            List<UUID> ids = documentRepository.findIdsInRange(cursor, to, PageRequest.of(0, config.getRebuildPageSize()));
+            if (ids.isEmpty()) {
+                break;
+            }
+            newTransactionTemplate.executeWithoutResult(status -> project(ids));
+            count += ids.size();
+            UUID lastId = ids.get(ids.size() - 1);
+            cursor = ids.size() < config.getRebuildPageSize() || lastId.equals(to) ? null : successor(lastId);
+        }
+        return count;
+    }
+
+    private void project(Collection<UUID> documentIds) {
+        Map<String, DocumentProjection> existing = projectionRepository.findAllById(
+                documentIds.stream().map(UUID::toString).toList()).stream()
+            .collect(Collectors.toMap(DocumentProjection::getId, Function.identity()));
+
+        List<DocumentProjection> projections = new ArrayList<>(documentIds.size());
+        for (Document document : documentRepository.findWithExtractedFieldsByIdIn(documentIds)) {
+            DocumentProjection projection = existing.get(document.getId().toString());
+            if (projection == null) {
+                projection = new DocumentProjection();
+                projection.setId(document.getId().toString());
+            }
+            apply(document, projection);
+            projections.add(projection);
+        }
+        projectionRepository.saveAll(projections);
+        projected.increment(projections.size());
+    }
+
+    private void apply(Document document, DocumentProjection projection) {
+        projection.setFilename(document.getFileName());
+        projection.setDocumentType((document.getType() != null ? document.getType() : DocumentType.UNKNOWN).name());
+        projection.setStage(document.getStage().name());
+        projection.setUserId(document.getCreatedBy() != null ? document.getCreatedBy() : "system");
+        projection.setUploadedAt(toLocal(document.getCreatedAt()));
+        projection.setLastModified(toLocal(document.getModifiedAt() != null ? document.getModifiedAt() : document.getCreatedAt()));
+        projection.setStoragePath(document.getStoragePath());
+        projection.setPriority(document.getPriority().name());
+        projection.setConfidenceScore(document.getExtractionConfidence() != null
+            ? document.getExtractionConfidence().doubleValue()
+            : null);
+
+        Map<String, Object> fields = new LinkedHashMap<>();
+        for (ExtractedField field : document.getExtractedFields()) {
+            fields.put(field.getFieldName(), field.getValue());
+        }
+        projection.setExtractedFields(fields);
+
+        projection.setValid(document.getStage() == ProcessingStage.COMPLETED
+            && document.getStatus() == DocumentStatus.APPROVED);
+        // Errors are loaded lazily, and only documents in error have any worth showing
+        projection.setValidationErrors(document.getStatus() == DocumentStatus.ERROR
+            ? errorText(document.getProcessingErrors())
+            : null);
+    }
+
+    private static String errorText(List<ProcessingError> errors) {
+        String text = errors.stream()
+            .map(error -> error.getErrorType() + ": " + error.getErrorMessage())
+            .collect(Collectors.joining("; "));
+        return text.length() > MAX_ERROR_TEXT ? text.substring(0, MAX_ERROR_TEXT) : text;
+    }
+
+    private static LocalDateTime toLocal(Instant instant) {
+        return instant != null ? LocalDateTime.ofInstant(instant, ZoneId.systemDefault()) : null;
+    }
+
+    // Id ranges split the unsigned 128-bit UUID space, matching database UUID ordering
+
+    private static UUID partitionStart(int partition, int partitions) {
+        long step = Long.divideUnsigned(-1L, partitions);
+        return new UUID(step * partition, 0L);
+    }
+
+    private static UUID predecessor(UUID id) {
+        long low = id.getLeastSignificantBits();
+        return new UUID(low == 0 ? id.getMostSignificantBits() - 1 : id.getMostSignificantBits(), low - 1);
+    }
+
+    private static UUID successor(UUID id) {
+        long low = id.getLeastSignificantBits();
+        return new UUID(low == -1L ? id.getMostSignificantBits() + 1 : id.getMostSignificantBits(), low + 1);
+    }
+}
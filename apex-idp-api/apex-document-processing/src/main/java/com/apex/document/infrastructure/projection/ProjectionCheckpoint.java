@@ -0,0 +1,39 @@
+package com.apex.document.infrastructure.projection;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Position in audit.domain_events up to which a projection is known to be complete
+ */
+@Entity
+@Table(name = "projection_checkpoints")
+@Getter
+@NoArgsConstructor
+public class ProjectionCheckpoint {
+
+    @Id
+    @Column(name = "projection_name")
+    private String projectionName;
+
+    @Column(name = "sequence_number", nullable = false)
+    private long sequenceNumber;
+
+    @Column(name = "updated_at")
+    private Instant updatedAt;
+
+    public ProjectionCheckpoint(String projectionName) {
+        this.projectionName = projectionName;
+    }
+
+    public void advanceTo(long sequenceNumber) {
+        this.sequenceNumber = sequenceNumber;
+        this.updatedAt = Instant.now();
+    }
+}
@@ -0,0 +1,38 @@
+package com.apex.document.infrastructure.projection;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+/**
+ * Repository for projection checkpoints.
+ * The checkpoint row doubles as the projection's lock across nodes: whoever holds it
+ * FOR UPDATE is the only one writing that projection.
+ */
+@Repository
+public interface ProjectionCheckpointRepository extends JpaRepository<ProjectionCheckpoint, String> {
+
+    /**
+     * Lock the checkpoint without waiting (FOR UPDATE NOWAIT).
+     *
+     * @throws org.springframework.dao.PessimisticLockingFailureException if another transaction holds it
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "0"))
+    @Query("SELECT c FROM ProjectionCheckpoint c WHERE c.projectionName = :name")
+    Optional<ProjectionCheckpoint> tryLock(@Param("name") String name);
+
+    /**
+     * Lock the checkpoint, waiting for the current holder's transaction to end.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM ProjectionCheckpoint c WHERE c.projectionName = :name")
+    Optional<ProjectionCheckpoint> lock(@Param("name") String name);
+}
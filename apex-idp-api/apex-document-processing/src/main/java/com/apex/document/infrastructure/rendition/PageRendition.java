@@ -0,0 +1,14 @@
+package com.apex.document.infrastructure.rendition;
+
+/**
+ * One rendered page. Coordinates from OCR and field extraction multiplied by
+ * coordinateScale give pixel positions on the page image.
+ */
+public record PageRendition(int pageNumber,
+                            int width,
+                            int height,
+                            double coordinateScale,
+                            long imageSize,
+                            int thumbnailWidth,
+                            int thumbnailHeight,
+                            long thumbnailSize) {}
@@ -0,0 +1,334 @@
+package com.apex.document.infrastructure.rendition;
+
+import com.apex.core.config.ApexProperties;
+import com.apex.document.infrastructure.ocr.PageImages;
+import com.apex.document.infrastructure.storage.DocumentStorageException;
+import com.apex.document.infrastructure.storage.DocumentStorageService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.pdfbox.rendering.ImageType;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Web-sized page images and thumbnails for the validation viewer.
+ * Pages are rasterized once, after upload, on a small bounded pool and stored next to
+ * the original together with a manifest describing them, so opening a document for
+ * validation fetches one page image instead of the whole file. Documents uploaded
+ * before renditions existed, or dropped by a full queue, are rendered on first view;
+ * concurrent requests for the same document share one rendering.
+ */
+@Slf4j
+@Service
+public class PageRenditionService {
+
+    private static final String RENDITIONS = "renditions/";
+    private static final String MANIFEST = "manifest.json";
+    private static final String PDF = "application/pdf";
+
+    private final DocumentStorageService storageService;
+    private final ObjectMapper objectMapper;
+    private final ApexProperties.Processing.Rendition config;
+    private final int ocrDpi;
+    private final Cache<String, RenditionManifest> manifests;
+    private final Map<String, CompletableFuture<RenditionManifest>> rendering = new ConcurrentHashMap<>();
+    private final Timer renderTimer;
+    private final Counter failures;
+
+    private ThreadPoolExecutor pool;
+
+    public PageRenditionService(DocumentStorageService storageService,
+                                ObjectMapper objectMapper,
+                                ApexProperties apexProperties,
+                                MeterRegistry meterRegistry) {
+        this.storageService = storageService;
+        this.objectMapper = objectMapper;
+        this.config = apexProperties.getProcessing().getRendition();
+        this.ocrDpi = apexProperties.getProcessing().getPageOcr().getRenderDpi();
+        this.manifests = Caffeine.newBuilder()
+            .maximumSize(config.getManifestCacheSize())
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, manifests, "rendition-manifests");
+        this.renderTimer = Timer.builder("apex.rendition.render")
+            .description("Time to render and store the page images of a document")
+            .register(meterRegistry);
+        this.failures = Counter.builder("apex.rendition.failures")
+            .description("Documents whose page images could not be rendered")
+            .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        pool = new ThreadPoolExecutor(
+            config.getWorkers(),
+            config.getWorkers(),
+            0L,
+            TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(config.getQueueCapacity()),
+            new CustomizableThreadFactory("page-rendition-")
+        );
+    }
+
+    @PreDestroy
+    void stop() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * Render a newly stored document in the background.
+     */
+    public void submit(String storagePath, String contentType) {
+        if (!config.isEnabled()) {
+            return;
+        }
+        try {
+            pool.execute(() -> {
+                try {
+                    get(storagePath, contentType);
+                } catch (RuntimeException e) {
+                    log.warn("Could not render pages of {}, retrying on first view: {}", storagePath, e.getMessage());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.debug("Rendition queue full, {} will be rendered on first view", storagePath);
+        }
+    }
+
+    /**
+     * Pages rendered so far for a document, without rendering anything.
+     */
+    public Optional<RenditionManifest> find(String storagePath) {
+        RenditionManifest cached = manifests.getIfPresent(storagePath);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        Optional<RenditionManifest> stored = storageService.readObject(objectName(storagePath, MANIFEST))
+            .map(this::readManifest);
+        stored.ifPresent(manifest -> manifests.put(storagePath, manifest));
+        return stored;
+    }
+
+    /**
+     * Pages of a document, rendering them now if that has not happened yet.
+     */
+    public RenditionManifest get(String storagePath, String contentType) {
+        Optional<RenditionManifest> existing = find(storagePath);
+        if (existing.isPresent()) {
+            return existing.get();
+        }
+
+        CompletableFuture<RenditionManifest> mine = new CompletableFuture<>();
+        CompletableFuture<RenditionManifest> running = rendering.putIfAbsent(storagePath, mine);
+        if (running != null) {
+            return await(running);
+        }
+        try {
+            // Another node, or a rendering that just finished here, may have stored it meanwhile
+            RenditionManifest manifest = find(storagePath).orElseGet(() -> render(storagePath, contentType));
+            mine.complete(manifest);
+            return manifest;
+        } catch (RuntimeException e) {
+            failures.increment();
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            rendering.remove(storagePath, mine);
+        }
+    }
+
+    /**
+     * A page image or thumbnail of a document, rendering the document first if needed.
+     */
+    public Optional<RenditionImage> image(String storagePath, String contentType, int pageNumber, boolean thumbnail) {
+        return get(storagePath, contentType).page(pageNumber)
+            .map(page -> new RenditionImage(
+                imagePath(storagePath, pageNumber, thumbnail),
+                imageName(pageNumber, thumbnail),
+                thumbnail ? page.thumbnailSize() : page.imageSize()));
+    }
+
+    public String imagePath(String storagePath, int pageNumber, boolean thumbnail) {
+        return objectName(storagePath, imageName(pageNumber, thumbnail));
+    }
+
+    private RenditionManifest render(String storagePath, String contentType) {
+        if (!PageImages.canRender(contentType)) {
+            return store(storagePath, new RenditionManifest(List.of()));
+        }
+
+        Timer.Sample sample = Timer.start();
+        Path file = null;
+        try {
+            // PDF rendering needs random access, so the content is spooled to a temp file first
+            file = Files.createTempFile("apex-rendition-", null);
+            try (InputStream content = storageService.openDocument(storagePath)) {
+                Files.copy(content, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+            // OCR coordinates are pixels at the OCR resolution for PDFs, and native pixels for images
+            double baseScale = contentType.equals(PDF) ? (double) config.getDpi() / ocrDpi : 1.0;
+            List<PageRendition> pages = new ArrayList<>();
+            PageImages.render(file, contentType, config.getDpi(), ImageType.RGB, pageNumber -> true,
+                (pageNumber, image) -> pages.add(renderPage(storagePath, pageNumber, image, baseScale)));
+
+            RenditionManifest manifest = store(storagePath, new RenditionManifest(pages));
+            sample.stop(renderTimer);
+            log.debug("Rendered {} pages of {}", pages.size(), storagePath);
+            return manifest;
+        } catch (IOException e) {
+            throw new DocumentStorageException("Failed to render pages of " + storagePath, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DocumentStorageException("Interrupted while rendering pages of " + storagePath, e);
+        } finally {
+            deleteQuietly(file);
+        }
+    }
+
+    private PageRendition renderPage(String storagePath, int pageNumber, BufferedImage image, double baseScale) {
+        BufferedImage page = scaleToWidth(image, config.getMaxWidth());
+        BufferedImage thumbnail = scaleToWidth(page, config.getThumbnailWidth());
+        byte[] pageJpeg;
+        byte[] thumbnailJpeg;
+        try {
+            pageJpeg = jpeg(page);
+            thumbnailJpeg = jpeg(thumbnail);
+        } catch (IOException e) {
+            throw new DocumentStorageException("Failed to encode page " + pageNumber + " of " + storagePath, e);
+        }
+        storageService.storeObject(imagePath(storagePath, pageNumber, false), pageJpeg, RenditionImage.CONTENT_TYPE);
+        storageService.storeObject(imagePath(storagePath, pageNumber, true), thumbnailJpeg, RenditionImage.CONTENT_TYPE);
+        return new PageRendition(pageNumber, page.getWidth(), page.getHeight(),
+            baseScale * page.getWidth() / image.getWidth(), pageJpeg.length,
+            thumbnail.getWidth(), thumbnail.getHeight(), thumbnailJpeg.length);
+    }
+
+    private RenditionManifest store(String storagePath, RenditionManifest manifest) {
+        try {
+            storageService.storeObject(objectName(storagePath, MANIFEST),
+                objectMapper.writeValueAsBytes(manifest), "application/json");
+        } catch (IOException e) {
+            throw new DocumentStorageException("Failed to write rendition manifest for " + storagePath, e);
+        }
+        manifests.put(storagePath, manifest);
+        return manifest;
+    }
+
+    private RenditionManifest readManifest(byte[] content) {
+        try {
+            return objectMapper.readValue(content, RenditionManifest.class);
+        } catch (IOException e) {
+            throw new DocumentStorageException("Unreadable rendition manifest", e);
+        }
+    }
+
+    /**
+     * Scale down to at most the given width as an RGB image, which is what JPEG can hold.
+     * Large reductions are done in halving steps, which keeps thin lines and small print legible.
+     */
+    private static BufferedImage scaleToWidth(BufferedImage image, int maxWidth) {
+        if (image.getWidth() <= maxWidth && image.getType() == BufferedImage.TYPE_INT_RGB) {
+            return image;
+        }
+        BufferedImage current = image;
+        do {
+            int width = Math.min(current.getWidth(), Math.max(maxWidth, current.getWidth() / 2));
+            int height = Math.max(1, (int) Math.round((double) current.getHeight() * width / current.getWidth()));
+            BufferedImage next = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            Graphics2D graphics = next.createGraphics();
+            try {
+                graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                graphics.drawImage(current, 0, 0, width, height, Color.WHITE, null);
+            } finally {
+                graphics.dispose();
+            }
+            current = next;
+        } while (current.getWidth() > maxWidth);
+        return current;
+    }
+
+    private byte[] jpeg(BufferedImage image) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(bytes)) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(config.getJpegQuality());
+            writer.setOutput(output);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return bytes.toByteArray();
+    }
+
+    private static RenditionManifest await(CompletableFuture<RenditionManifest> running) {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Renditions live in a folder next to the original; every stored original has a folder of its own.
+     */
+    private static String objectName(String storagePath, String name) {
+        int folder = storagePath.lastIndexOf('/');
+        return storagePath.substring(0, folder + 1) + RENDITIONS + name;
+    }
+
+    private static String imageName(int pageNumber, boolean thumbnail) {
+        return (thumbnail ? "thumbnail-" : "page-") + pageNumber + ".jpg";
+    }
+
+    private void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.debug("Could not remove rendition temp file {}: {}", file, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.apex.document.infrastructure.rendition;
+
+/**
+ * A stored page image or thumbnail, ready to be streamed.
+ */
+public record RenditionImage(String storagePath, String fileName, long size) {
+
+    public static final String CONTENT_TYPE = "image/jpeg";
+}
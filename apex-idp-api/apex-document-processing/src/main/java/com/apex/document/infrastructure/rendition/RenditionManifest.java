@@ -0,0 +1,20 @@
+package com.apex.document.infrastructure.rendition;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Pages rendered for a stored document, in page order.
+ * Stored next to the page images; documents that cannot be rendered, such as Word
+ * files, get a manifest without pages so they are not tried again.
+ */
+public record RenditionManifest(List<PageRendition> pages) {
+
+    public RenditionManifest {
+        pages = List.copyOf(pages);
+    }
+
+    public Optional<PageRendition> page(int pageNumber) {
+        return pages.stream().filter(page -> page.pageNumber() == pageNumber).findFirst();
+    }
+}
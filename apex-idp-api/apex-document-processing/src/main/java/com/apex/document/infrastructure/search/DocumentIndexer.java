@@ -0,0 +1,161 @@
+package com.apex.document.infrastructure.search;
+
+import com.apex.core.config.ApexProperties;
+import com.apex.core.outbox.OutboxEvent;
+import com.apex.core.outbox.OutboxEventRepository;
+import com.apex.document.domain.Document;
+import com.apex.document.infrastructure.projection.DocumentProjection;
+import com.apex.document.infrastructure.projection.DocumentProjectionRepository;
+import com.apex.document.infrastructure.projection.DocumentProjector;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Feeds the local search index from projection updates.
+ * The indexer follows Document events in audit.domain_events but never past the
+ * projector's checkpoint, so every document it re-reads already has its projection
+ * for those events. Re-indexing a document replaces its entry, so replaying events
+ * after a restart is harmless. An index with no checkpoint is built from the
+ * projections table first.
+ */
+@Slf4j
+@Component
+public class DocumentIndexer {
+
+    private static final String AGGREGATE_TYPE = Document.class.getSimpleName();
+
+    private final OutboxEventRepository eventRepository;
+    private final DocumentProjectionRepository projectionRepository;
+    private final DocumentTextRepository textRepository;
+    private final DocumentProjector projector;
+    private final DocumentSearchIndex index;
+    private final ApexProperties.Search config;
+
+    private boolean verified;
+
+    public DocumentIndexer(OutboxEventRepository eventRepository,
+                           DocumentProjectionRepository projectionRepository,
+                           DocumentTextRepository textRepository,
+                           DocumentProjector projector,
+                           DocumentSearchIndex index,
+                           ApexProperties apexProperties) {
+        this.eventRepository = eventRepository;
+        this.projectionRepository = projectionRepository;
+        this.textRepository = textRepository;
+        this.projector = projector;
+        this.index = index;
+        this.config = apexProperties.getSearch();
+    }
+
+    @Scheduled(fixedDelayString = "${apex.search.poll-interval-ms:500}")
+    public void catchUp() {
+        // Projections are incomplete while a rebuild is running
+        if (!index.isAvailable() || projector.isRebuilding()) {
+            return;
+        }
+        if (!verified) {
+            discardIfAhead();
+            verified = true;
+        }
+        if (index.checkpoint().isEmpty()) {
+            build();
+            return;
+        }
+        long projected = projector.projectedPosition();
+        int indexed;
+        do {
+            indexed = indexBatch(projected);
+        } while (indexed == config.getBatchSize());
+    }
+
+    /**
+     * Index the documents of the next batch of events; returns how many events were consumed.
+     */
+    private int indexBatch(long projected) {
+        long after = index.checkpoint().getAsLong();
+        if (after >= projected) {
+            return 0;
+        }
+        List<OutboxEvent> events = eventRepository.findAfter(
+            AGGREGATE_TYPE, after, PageRequest.of(0, config.getBatchSize()));
+
+        Set<UUID> documentIds = new LinkedHashSet<>();
+        long position = after;
+        int consumed = 0;
+        for (OutboxEvent event : events) {
+            if (event.getSequenceNumber() > projected) {
+                break;
+            }
+            documentIds.add(UUID.fromString(event.getAggregateId()));
+            position = event.getSequenceNumber();
+            consumed++;
+        }
+        if (consumed == 0) {
+            return 0;
+        }
+        indexDocuments(documentIds);
+        index.advanceTo(position);
+        return consumed;
+    }
+
+    /**
+     * An index that claims events the log does not have belongs to another database,
+     * for example one recreated in development; it is rebuilt rather than trusted.
+     */
+    private void discardIfAhead() {
+        Long last = eventRepository.findLastSequenceNumber(AGGREGATE_TYPE);
+        long checkpoint = index.checkpoint().orElse(-1);
+        if (checkpoint > (last != null ? last : 0)) {
+            log.warn("Search index position {} is ahead of the event log ({}); rebuilding it", checkpoint, last);
+            index.clear();
+        }
+    }
+
+    private void build() {
+        long started = System.nanoTime();
+        long position = projector.projectedPosition();
+        long documents = 0;
+        String after = "";
+        List<String> ids;
+        do {
+            ids = projectionRepository.findIdsAfter(after, PageRequest.of(0, config.getBatchSize()));
+            if (ids.isEmpty()) {
+                break;
+            }
+            indexDocuments(ids.stream().map(UUID::fromString).toList());
+            documents += ids.size();
+            after = ids.get(ids.size() - 1);
+        } while (ids.size() == config.getBatchSize());
+
+        index.advanceTo(position);
+        try {
+            index.commit();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to commit search index", e);
+        }
+        log.info("Built search index from {} document projections in {} ms", documents,
+            Duration.ofNanos(System.nanoTime() - started).toMillis());
+    }
+
+    private void indexDocuments(Collection<UUID> documentIds) {
+        // A document without a projection yet is picked up by the event that creates it
+        List<DocumentProjection> projections = projectionRepository.findAllById(
+            documentIds.stream().map(UUID::toString).toList());
+        Map<UUID, String> texts = textRepository.findAllById(documentIds).stream()
+            .collect(Collectors.toMap(DocumentText::getDocumentId, DocumentText::getText));
+        index.index(projections, texts);
+    }
+}
@@ -0,0 +1,492 @@
+package com.apex.document.infrastructure.search;
+
+import com.apex.core.config.ApexProperties;
+import com.apex.core.exceptions.BusinessValidationException;
+import com.apex.document.application.dto.SearchCriteria;
+import com.apex.document.infrastructure.projection.DocumentProjection;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.DoubleField;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.KeywordField;
+import org.apache.lucene.document.LongField;
+import org.apache.lucene.document.SortedDocValuesField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.index.TieredMergePolicy;
+import org.apache.lucene.queryparser.simple.SimpleQueryParser;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.FieldDoc;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchAllDocsQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.search.SortedNumericSelector;
+import org.apache.lucene.search.SortedSetSelector;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.TopFieldDocs;
+import org.apache.lucene.search.TotalHits;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.apache.lucene.util.BytesRef;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Lucene index of document projections and their OCR text, on local disk.
+ * Writes go to the IndexWriter as they arrive and become searchable at the next
+ * near-real-time refresh; commits, which make them durable, happen less often and
+ * carry the audit.domain_events position the index covers. Segments are merged in
+ * the background by the tiered merge policy.
+ * The index only answers which document ids match and in what order; the projections
+ * themselves are loaded from the database.
+ */
+@Slf4j
+@Component
+public class DocumentSearchIndex {
+
+    private static final String CHECKPOINT = "sequence_number";
+
+    private static final String ID = "id";
+    private static final String DOCUMENT_TYPE = "document_type";
+    private static final String STAGE = "stage";
+    private static final String USER_ID = "user_id";
+    private static final String UPLOADED_AT = "uploaded_at";
+    private static final String LAST_MODIFIED = "last_modified";
+    private static final String CONFIDENCE = "confidence_score";
+    private static final String FILENAME = "filename";
+    private static final String FILENAME_SORT = "filename_sort";
+    private static final String FIELDS = "fields";
+    private static final String FIELD_PREFIX = "field.";
+    private static final String CONTENT = "content";
+
+    // Filename matches rank above field values, which rank above body text
+    private static final Map<String, Float> QUERY_FIELDS = Map.of(FILENAME, 3f, FIELDS, 2f, CONTENT, 1f);
+
+    private final ApexProperties.Search config;
+    private final Analyzer analyzer = new StandardAnalyzer();
+
+    private Directory directory;
+    private IndexWriter writer;
+    private SearcherManager searcherManager;
+    private volatile boolean available;
+    private volatile long indexedUpTo = -1;
+
+    public DocumentSearchIndex(ApexProperties apexProperties) {
+        this.config = apexProperties.getSearch();
+    }
+
+    @PostConstruct
+    void open() {
+        if (!config.isEnabled()) {
+            return;
+        }
+        try {
+            TieredMergePolicy mergePolicy = new TieredMergePolicy();
+            mergePolicy.setSegmentsPerTier(config.getSegmentsPerTier());
+            mergePolicy.setMaxMergedSegmentMB(config.getMaxMergedSegmentMb());
+            IndexWriterConfig writerConfig = new IndexWriterConfig(analyzer)
+                .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND)
+                .setRAMBufferSizeMB(config.getRamBufferMb())
+                .setMergePolicy(mergePolicy);
+
+            directory = FSDirectory.open(Path.of(config.getIndexPath()));
+            writer = new IndexWriter(directory, writerConfig);
+            searcherManager = new SearcherManager(writer, null);
+            Iterable<Map.Entry<String, String>> commitData = writer.getLiveCommitData();
+            if (commitData != null) {
+                for (Map.Entry<String, String> entry : commitData) {
+                    if (CHECKPOINT.equals(entry.getKey())) {
+                        indexedUpTo = Long.parseLong(entry.getValue());
+                    }
+                }
+            }
+            available = true;
+            log.info("Opened search index at {} ({} documents, position {})",
+                config.getIndexPath(), writer.getDocStats().numDocs, indexedUpTo);
+        } catch (IOException e) {
+            // Search falls back to the database rather than taking the application down
+            log.error("Could not open search index at {}", config.getIndexPath(), e);
+        }
+    }
+
+    @PreDestroy
+    synchronized void close() throws IOException {
+        if (!available) {
+            return;
+        }
+        commit();
+        available = false;
+        searcherManager.close();
+        writer.close();
+        directory.close();
+    }
+
+    public boolean isAvailable() {
+        return available;
+    }
+
+    /**
+     * Position in audit.domain_events the index covers, empty if it has never been built
+     */
+    public OptionalLong checkpoint() {
+        return indexedUpTo < 0 ? OptionalLong.empty() : OptionalLong.of(indexedUpTo);
+    }
+
+    /**
+     * Record that everything up to the given position has been handed to the index.
+     * Persisted with the next commit.
+     */
+    public void advanceTo(long sequenceNumber) {
+        indexedUpTo = sequenceNumber;
+    }
+
+    /**
+     * Remove every entry and forget the checkpoint, so the index is built again
+     */
+    public synchronized void clear() {
+        try {
+            writer.deleteAll();
+            indexedUpTo = -1;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to clear search index", e);
+        }
+    }
+
+    /**
+     * Add or replace the index entries of the given projections
+     */
+    public void index(Collection<DocumentProjection> projections, Map<UUID, String> texts) {
+        try {
+            for (DocumentProjection projection : projections) {
+                writer.updateDocument(new Term(ID, projection.getId()),
+                    toDocument(projection, texts.get(UUID.fromString(projection.getId()))));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to index documents", e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${apex.search.refresh-interval-ms:1000}")
+    public void refresh() throws IOException {
+        if (available) {
+            searcherManager.maybeRefresh();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${apex.search.commit-interval-ms:30000}")
+    public synchronized void commit() throws IOException {
+        if (!available || !writer.hasUncommittedChanges() && !checkpointChanged()) {
+            return;
+        }
+        // Read the position first: every document it covers was already added to the writer
+        long position = indexedUpTo;
+        writer.setLiveCommitData(Map.of(CHECKPOINT, Long.toString(position)).entrySet());
+        writer.commit();
+    }
+
+    /**
+     * Ids of the documents matching the criteria, in result order, for one page
+     */
+    public Hits search(SearchCriteria criteria, Pageable pageable) {
+        int offset = (int) pageable.getOffset();
+        int end = offset + pageable.getPageSize();
+        if (end > config.getMaxResultWindow()) {
+            throw new BusinessValidationException(
+                "Search results are limited to the first " + config.getMaxResultWindow() + " documents; narrow the criteria");
+        }
+
+        Query query = toQuery(criteria);
+        IndexSearcher searcher = acquire();
+        try {
+            TopFieldDocs top = searcher.search(query, end, toSort(criteria, pageable.getSort()));
+            long total = top.totalHits.relation == TotalHits.Relation.EQUAL_TO
+                ? top.totalHits.value
+                : searcher.count(query);
+
+            StoredFields storedFields = searcher.storedFields();
+            List<String> ids = new ArrayList<>(Math.max(top.scoreDocs.length - offset, 0));
+            for (int i = offset; i < top.scoreDocs.length; i++) {
+                ids.add(storedFields.document(top.scoreDocs[i].doc, Set.of(ID)).get(ID));
+            }
+            return new Hits(ids, total);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Search failed", e);
+        } finally {
+            release(searcher);
+        }
+    }
+
+    /**
+     * Ids of the documents following the given sort key, for keyset pagination.
+     * Lucene skips straight past the key, so a deep page costs the same as the first.
+     * The returned key belongs to the last hit and is null when no more hits follow.
+     */
+    public KeysetHits searchAfter(SearchCriteria criteria, org.springframework.data.domain.Sort sort,
+                                  List<String> after, int size) {
+        Query query = toQuery(criteria);
+        Sort luceneSort = toSort(criteria, sort);
+        IndexSearcher searcher = acquire();
+        try {
+            FieldDoc afterDoc = null;
+            if (after != null) {
+                // Equal keys can only be the same document, which must be skipped, so place it last
+                afterDoc = new FieldDoc(Math.max(searcher.getIndexReader().maxDoc() - 1, 0), Float.NaN,
+                    fromKey(after, luceneSort));
+            }
+            TopDocs top = searcher.searchAfter(afterDoc, query, size + 1, luceneSort);
+
+            StoredFields storedFields = searcher.storedFields();
+            int count = Math.min(top.scoreDocs.length, size);
+            List<String> ids = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                ids.add(storedFields.document(top.scoreDocs[i].doc, Set.of(ID)).get(ID));
+            }
+            List<String> next = top.scoreDocs.length > size
+                ? toKey((FieldDoc) top.scoreDocs[size - 1])
+                : null;
+            return new KeysetHits(ids, next);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Search failed", e);
+        } finally {
+            release(searcher);
+        }
+    }
+
+    public long count(SearchCriteria criteria) {
+        IndexSearcher searcher = acquire();
+        try {
+            return searcher.count(toQuery(criteria));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Search failed", e);
+        } finally {
+            release(searcher);
+        }
+    }
+
+    public record Hits(List<String> ids, long total) {
+    }
+
+    public record KeysetHits(List<String> ids, List<String> nextKey) {
+    }
+
+    // Sort values are tagged with their type so they can be handed back to Lucene unchanged
+
+    private static List<String> toKey(FieldDoc doc) {
+        List<String> key = new ArrayList<>(doc.fields.length);
+        for (Object value : doc.fields) {
+            if (value == null) {
+                key.add(null);
+            } else if (value instanceof Long l) {
+                key.add("l" + l);
+            } else if (value instanceof Double d) {
+                key.add("d" + d);
+            } else if (value instanceof Float f) {
+                key.add("f" + f);
+            } else if (value instanceof BytesRef bytes) {
+                key.add("b" + Base64.getUrlEncoder().withoutPadding().encodeToString(BytesRef.deepCopyOf(bytes).bytes));
+            } else {
+                throw new IllegalStateException("Unexpected sort value " + value.getClass());
+            }
+        }
+        return key;
+    }
+
+    private static Object[] fromKey(List<String> key, Sort sort) {
+        if (key.size() != sort.getSort().length) {
+            throw new BusinessValidationException("Page cursor does not match the sort order");
+        }
+        Object[] values = new Object[key.size()];
+        try {
+            for (int i = 0; i < values.length; i++) {
+                String value = key.get(i);
+                if (value == null) {
+                    continue;
+                }
+                String body = value.substring(1);
+                values[i] = switch (value.charAt(0)) {
+                    case 'l' -> Long.valueOf(body);
+                    case 'd' -> Double.valueOf(body);
+                    case 'f' -> Float.valueOf(body);
+                    case 'b' -> new BytesRef(Base64.getUrlDecoder().decode(body));
+                    default -> throw new IllegalArgumentException(value);
+                };
+            }
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new BusinessValidationException("Invalid page cursor");
+        }
+        return values;
+    }
+
+    private boolean checkpointChanged() throws IOException {
+        for (Map.Entry<String, String> entry : writer.getLiveCommitData()) {
+            if (CHECKPOINT.equals(entry.getKey())) {
+                return Long.parseLong(entry.getValue()) != indexedUpTo;
+            }
+        }
+        return indexedUpTo >= 0;
+    }
+
+    private IndexSearcher acquire() {
+        try {
+            return searcherManager.acquire();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Search index unavailable", e);
+        }
+    }
+
+    private void release(IndexSearcher searcher) {
+        try {
+            searcherManager.release(searcher);
+        } catch (IOException e) {
+            log.warn("Failed to release index searcher: {}", e.getMessage());
+        }
+    }
+
+    private static Document toDocument(DocumentProjection projection, String text) {
+        Document document = new Document();
+        document.add(new KeywordField(ID, projection.getId(), Field.Store.YES));
+        document.add(new KeywordField(DOCUMENT_TYPE, projection.getDocumentType(), Field.Store.NO));
+        document.add(new KeywordField(STAGE, projection.getStage(), Field.Store.NO));
+        document.add(new KeywordField(USER_ID, projection.getUserId(), Field.Store.NO));
+        document.add(new LongField(UPLOADED_AT, toMillis(projection.getUploadedAt()), Field.Store.NO));
+        if (projection.getLastModified() != null) {
+            document.add(new LongField(LAST_MODIFIED, toMillis(projection.getLastModified()), Field.Store.NO));
+        }
+        if (projection.getConfidenceScore() != null) {
+            document.add(new DoubleField(CONFIDENCE, projection.getConfidenceScore(), Field.Store.NO));
+        }
+        document.add(new TextField(FILENAME, projection.getFilename(), Field.Store.NO));
+        document.add(new SortedDocValuesField(FILENAME_SORT,
+            new BytesRef(projection.getFilename().toLowerCase(Locale.ROOT))));
+
+        if (projection.getExtractedFields() != null) {
+            projection.getExtractedFields().forEach((name, value) -> {
+                if (value != null) {
+                    document.add(new TextField(FIELDS, value.toString(), Field.Store.NO));
+                    document.add(new StringField(FIELD_PREFIX + name, value.toString(), Field.Store.NO));
+                }
+            });
+        }
+        if (text != null) {
+            document.add(new TextField(CONTENT, text, Field.Store.NO));
+        }
+        return document;
+    }
+
+    private Query toQuery(SearchCriteria criteria) {
+        BooleanQuery.Builder query = new BooleanQuery.Builder();
+        boolean any = false;
+
+        if (criteria.getQuery() != null && !criteria.getQuery().isBlank()) {
+            SimpleQueryParser parser = new SimpleQueryParser(analyzer, QUERY_FIELDS);
+            parser.setDefaultOperator(BooleanClause.Occur.MUST);
+            query.add(parser.parse(criteria.getQuery()), BooleanClause.Occur.MUST);
+            any = true;
+        }
+        if (criteria.getDocumentType() != null) {
+            query.add(new TermQuery(new Term(DOCUMENT_TYPE, criteria.getDocumentType().name())), BooleanClause.Occur.FILTER);
+            any = true;
+        }
+        if (criteria.getStage() != null) {
+            query.add(new TermQuery(new Term(STAGE, criteria.getStage())), BooleanClause.Occur.FILTER);
+            any = true;
+        }
+        if (criteria.getUserId() != null) {
+            query.add(new TermQuery(new Term(USER_ID, criteria.getUserId())), BooleanClause.Occur.FILTER);
+            any = true;
+        }
+        if (criteria.getDateFrom() != null || criteria.getDateTo() != null) {
+            long from = criteria.getDateFrom() != null
+                ? toMillis(parseDate(criteria.getDateFrom()).atStartOfDay())
+                : Long.MIN_VALUE;
+            long to = criteria.getDateTo() != null
+                ? toMillis(parseDate(criteria.getDateTo()).plusDays(1).atStartOfDay()) - 1
+                : Long.MAX_VALUE;
+            query.add(LongField.newRangeQuery(UPLOADED_AT, from, to), BooleanClause.Occur.FILTER);
+            any = true;
+        }
+        if (criteria.getFilters() != null) {
+            for (Map.Entry<String, Object> filter : criteria.getFilters().entrySet()) {
+                query.add(new TermQuery(new Term(FIELD_PREFIX + filter.getKey(), String.valueOf(filter.getValue()))),
+                    BooleanClause.Occur.FILTER);
+                any = true;
+            }
+        }
+        return any ? query.build() : new MatchAllDocsQuery();
+    }
+
+    /**
+     * Explicit sort from the page request or the criteria, otherwise relevance for text
+     * queries and newest first for the rest. Ties are broken by id so pages are stable.
+     */
+    private static Sort toSort(SearchCriteria criteria, org.springframework.data.domain.Sort sort) {
+        List<SortField> fields = new ArrayList<>();
+        if (sort.isSorted()) {
+            sort.forEach(order -> fields.add(sortField(order.getProperty(), order.isDescending())));
+        } else if (criteria.getSortBy() != null && !criteria.getSortBy().isBlank()) {
+            fields.add(sortField(criteria.getSortBy(), !"ASC".equalsIgnoreCase(criteria.getSortDirection())));
+        } else if (criteria.getQuery() != null && !criteria.getQuery().isBlank()) {
+            fields.add(SortField.FIELD_SCORE);
+        } else {
+            fields.add(sortField("uploadedAt", true));
+        }
+        fields.add(KeywordField.newSortField(ID, false, SortedSetSelector.Type.MIN));
+        return new Sort(fields.toArray(SortField[]::new));
+    }
+
+    private static SortField sortField(String property, boolean descending) {
+        return switch (property) {
+            case "uploadedAt" -> LongField.newSortField(UPLOADED_AT, descending, SortedNumericSelector.Type.MIN);
+            case "lastModified" -> LongField.newSortField(LAST_MODIFIED, descending, SortedNumericSelector.Type.MIN);
+            case "confidenceScore" -> DoubleField.newSortField(CONFIDENCE, descending, SortedNumericSelector.Type.MIN);
+            case "filename" -> new SortField(FILENAME_SORT, SortField.Type.STRING, descending);
+            case "documentType" -> KeywordField.newSortField(DOCUMENT_TYPE, descending, SortedSetSelector.Type.MIN);
+            case "stage" -> KeywordField.newSortField(STAGE, descending, SortedSetSelector.Type.MIN);
+            default -> throw new BusinessValidationException("Unsupported sort property: " + property);
+        };
+    }
+
+    private static LocalDate parseDate(String value) {
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new BusinessValidationException("Invalid date: " + value);
+        }
+    }
+
+    // Projection timestamps are local date-times in the server zone
+    private static long toMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
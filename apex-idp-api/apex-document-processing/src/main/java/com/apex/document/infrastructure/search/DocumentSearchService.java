@@ -1,33 +1,139 @@
 package com.apex.document.infrastructure.search;
 
+import com.apex.core.api.CursorPage;
+import com.apex.core.api.PageCursor;
+import com.apex.core.exceptions.BusinessValidationException;
 import com.apex.document.application.dto.SearchCriteria;
 import com.apex.document.infrastructure.projection.DocumentProjection;
+import com.apex.document.infrastructure.projection.DocumentProjectionRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
- * Service for document search functionality
+ * Service for document search functionality.
+ * Queries go to the local full-text index, which returns the ids of one page; the
+ * projections for those ids are then loaded in a single query. With the index
+ * disabled or unavailable, the projections are searched directly without full-text
+ * matching; filters on extracted field values then use jsonb containment on the
+ * GIN-indexed extracted_fields column.
  */
 @Service
+@RequiredArgsConstructor
 public class DocumentSearchService {
     
+    private final DocumentProjectionRepository projectionRepository;
+    private final DocumentSearchIndex searchIndex;
+    private final ObjectMapper objectMapper;
+    
+    private static final String INDEX_LISTING = "search";
+    private static final String DATABASE_LISTING = "search-db";
+    
     public List<DocumentProjection> searchDocuments(SearchCriteria criteria) {
-        // TODO: Implement search logic with Elasticsearch or similar
-        // For now return empty list
-        return List.of();
+        return search(criteria, PageRequest.of(criteria.getPage(), Math.max(criteria.getSize(), 1))).getContent();
     }
     
     public Page<DocumentProjection> search(SearchCriteria criteria, Pageable pageable) {
-        // TODO: Implement search logic with Elasticsearch or similar
-        // For now return empty page
-        return new PageImpl<>(List.of(), pageable, 0);
+        if (searchIndex.isAvailable()) {
+            DocumentSearchIndex.Hits hits = searchIndex.search(criteria, pageable);
+            return new PageImpl<>(loadInOrder(hits.ids()), pageable, hits.total());
+        }
+        
+        String documentType = criteria.getDocumentType() != null ? criteria.getDocumentType().name() : null;
+        if (criteria.getFilters() != null && !criteria.getFilters().isEmpty()) {
+            return projectionRepository.searchByFields(
+                toJson(criteria), criteria.getStage(), documentType, criteria.getUserId(),
+                PageRequest.of(pageable.getPageNumber(), pageable.getPageSize()));
+        }
+        Pageable sorted = pageable.getSort().isSorted()
+            ? pageable
+            : PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), Sort.by(Sort.Direction.DESC, "uploadedAt"));
+        return projectionRepository.search(criteria.getStage(), documentType, criteria.getUserId(), sorted);
+    }
+    
+    /**
+     * Keyset-paginated search: the cursor carries the sort key of the previous page's
+     * last document instead of an offset. Without the search index, results are newest
+     * first and field filters are not supported.
+     */
+    public CursorPage<DocumentProjection> search(SearchCriteria criteria, Sort sort, String cursor, int size) {
+        if (searchIndex.isAvailable()) {
+            List<String> after = cursor != null ? PageCursor.decode(cursor, INDEX_LISTING, sortKeySize(sort)) : null;
+            DocumentSearchIndex.KeysetHits hits = searchIndex.searchAfter(criteria, sort, after, size);
+            return new CursorPage<>(loadInOrder(hits.ids()),
+                hits.nextKey() != null ? PageCursor.encode(INDEX_LISTING, hits.nextKey()) : null);
+        }
+        
+        if (criteria.getFilters() != null && !criteria.getFilters().isEmpty()) {
+            throw new BusinessValidationException("Field filters need the search index");
+        }
+        String documentType = criteria.getDocumentType() != null ? criteria.getDocumentType().name() : null;
+        Limit limit = Limit.of(size + 1);
+        List<DocumentProjection> rows;
+        if (cursor == null) {
+            rows = projectionRepository.searchNewest(criteria.getStage(), documentType, criteria.getUserId(), limit);
+        } else {
+            List<String> after = PageCursor.decode(cursor, DATABASE_LISTING, 2);
+            rows = projectionRepository.searchNewestBefore(criteria.getStage(), documentType, criteria.getUserId(),
+                parseTimestamp(after.get(0)), after.get(1), limit);
+        }
+        if (rows.size() <= size) {
+            return new CursorPage<>(rows, null);
+        }
+        DocumentProjection last = rows.get(size - 1);
+        return new CursorPage<>(rows.subList(0, size),
+            PageCursor.encode(DATABASE_LISTING, List.of(last.getUploadedAt().toString(), last.getId())));
     }
     
     public long countDocuments(SearchCriteria criteria) {
-        // TODO: Implement count logic
-        return 0L;
+        if (searchIndex.isAvailable()) {
+            return searchIndex.count(criteria);
+        }
+        return search(criteria, PageRequest.of(0, 1)).getTotalElements();
+    }
+    
+    private List<DocumentProjection> loadInOrder(List<String> ids) {
+        // Documents removed since they were indexed are skipped
+        Map<String, DocumentProjection> projections = projectionRepository.findAllById(ids).stream()
+            .collect(Collectors.toMap(DocumentProjection::getId, Function.identity()));
+        return ids.stream()
+            .map(projections::get)
+            .filter(Objects::nonNull)
+            .toList();
+    }
+    
+    // One value per sort order, or relevance/upload time by default, plus the id tie-breaker
+    private static int sortKeySize(Sort sort) {
+        return sort.isSorted() ? (int) sort.stream().count() + 1 : 2;
+    }
+    
+    private static LocalDateTime parseTimestamp(String value) {
+        try {
+            return LocalDateTime.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new BusinessValidationException("Invalid page cursor");
+        }
+    }
+    
+    private String toJson(SearchCriteria criteria) {
+        try {
+            return objectMapper.writeValueAsString(criteria.getFilters());
+        } catch (JsonProcessingException e) {
+            throw new BusinessValidationException("Invalid field filters: " + e.getOriginalMessage());
+        }
     }
 }
@@ -0,0 +1,41 @@
+package com.apex.document.infrastructure.search;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * OCR text of a document, kept for the full-text index.
+ * Only the text length travels in events, so the text itself is stored here.
+ */
+@Entity
+@Table(name = "document_texts")
+@Getter
+@NoArgsConstructor
+public class DocumentText {
+
+    @Id
+    @Column(name = "document_id")
+    private UUID documentId;
+
+    @JdbcTypeCode(SqlTypes.LONG32VARCHAR)
+    @Column(name = "text", nullable = false)
+    private String text;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
+    public DocumentText(UUID documentId, String text) {
+        this.documentId = documentId;
+        this.text = text;
+        this.updatedAt = Instant.now();
+    }
+}
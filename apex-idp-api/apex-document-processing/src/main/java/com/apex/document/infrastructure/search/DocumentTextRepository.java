@@ -0,0 +1,13 @@
+package com.apex.document.infrastructure.search;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.UUID;
+
+/**
+ * Repository for document OCR text
+ */
+@Repository
+public interface DocumentTextRepository extends JpaRepository<DocumentText, UUID> {
+}
@@ -0,0 +1,229 @@
+package com.apex.document.infrastructure.statistics;
+
+import com.apex.core.config.ApexProperties;
+import com.apex.core.eventstore.DomainEventRegistry;
+import com.apex.core.outbox.OutboxEvent;
+import com.apex.core.outbox.OutboxEventRepository;
+import com.apex.document.application.dto.DailyStatistics;
+import com.apex.document.application.dto.ProcessingStatistics;
+import com.apex.core.events.DomainEvent;
+import com.apex.document.domain.Document;
+import com.apex.document.domain.DocumentRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Dashboard statistics maintained incrementally from Document events.
+ * Every instance folds audit.domain_events into its own in-memory state and publishes
+ * an immutable ProcessingStatistics after each batch, so dashboard reads cost nothing.
+ * Events younger than the settle window are left for the next poll, because a lower
+ * sequence number can commit after a higher one and counters cannot be re-applied.
+ * The state and its log position are persisted periodically and on shutdown, so a
+ * restart only replays the events recorded since.
+ */
+@Slf4j
+@Component
+public class ProcessingStatisticsEngine {
+
+    private static final String SNAPSHOT_NAME = "processing_statistics";
+    private static final String AGGREGATE_TYPE = Document.class.getSimpleName();
+
+    private final OutboxEventRepository eventRepository;
+    private final DomainEventRegistry eventRegistry;
+    private final StatisticsSnapshotRepository snapshotRepository;
+    private final DocumentRepository documentRepository;
+    private final ObjectMapper objectMapper;
+    private final ApexProperties.Statistics config;
+
+    // Only touched by the polling thread
+    private StatisticsState state;
+    private long persistedSequence = -1;
+    private long lastPersistedAt;
+
+    private volatile ProcessingStatistics current = ProcessingStatistics.builder()
+        .processingByType(Map.of())
+        .processingByStage(Map.of())
+        .processingByVendor(Map.of())
+        .daily(List.of())
+        .lastUpdated(LocalDateTime.now())
+        .build();
+
+    public ProcessingStatisticsEngine(OutboxEventRepository eventRepository,
+                                      DomainEventRegistry eventRegistry,
+                                      StatisticsSnapshotRepository snapshotRepository,
+                                      DocumentRepository documentRepository,
+                                      ObjectMapper objectMapper,
+                                      ApexProperties apexProperties) {
+        this.eventRepository = eventRepository;
+        this.eventRegistry = eventRegistry;
+        this.snapshotRepository = snapshotRepository;
+        this.documentRepository = documentRepository;
+        this.objectMapper = objectMapper;
+        this.config = apexProperties.getStatistics();
+    }
+
+    /**
+     * Latest published statistics
+     */
+    public ProcessingStatistics current() {
+        return current;
+    }
+
+    @Scheduled(fixedDelayString = "${apex.statistics.poll-interval-ms:1000}")
+    public synchronized void update() {
+        if (!config.isEnabled()) {
+            return;
+        }
+        if (state == null) {
+            state = restore();
+            publish();
+        }
+
+        boolean changed = false;
+        int applied;
+        do {
+            applied = applyBatch();
+            changed |= applied > 0;
+        } while (applied == config.getBatchSize());
+
+        if (changed) {
+            state.retainFrom(LocalDate.now(ZoneOffset.UTC).minusDays(config.getRetentionDays() - 1L));
+            publish();
+        }
+        if (System.currentTimeMillis() - lastPersistedAt >= config.getPersistIntervalMs()) {
+            persist();
+        }
+    }
+
+    @PreDestroy
+    synchronized void flush() {
+        if (state != null) {
+            persist();
+        }
+    }
+
+    private int applyBatch() {
+        List<OutboxEvent> events = eventRepository.findAfter(
+            AGGREGATE_TYPE, state.getSequenceNumber(), PageRequest.of(0, config.getBatchSize()));
+        Instant settled = Instant.now().minusMillis(config.getSettleMs());
+        List<Stored> batch = new ArrayList<>();
+        for (OutboxEvent stored : events) {
+            if (stored.getOccurredAt().isAfter(settled)) {
+                break;
+            }
+            UUID documentId = UUID.fromString(stored.getAggregateId());
+            batch.add(new Stored(stored, documentId, eventRegistry.read(
+                stored.getEventType(), documentId, stored.getEventData(), stored.getCreatedBy()).orElse(null)));
+        }
+
+        // Durations need upload times; one lookup for the batch's completions instead of remembering every upload
+        List<UUID> completedIds = batch.stream()
+            .filter(entry -> entry.event() != null && StatisticsState.completes(entry.event()))
+            .map(Stored::documentId)
+            .distinct()
+            .toList();
+        Map<UUID, Instant> uploadedAt = completedIds.isEmpty() ? Map.of()
+            : documentRepository.findUploadTimesByIdIn(completedIds).stream()
+                .collect(Collectors.toMap(DocumentRepository.UploadTime::getId,
+                    DocumentRepository.UploadTime::getCreatedAt));
+
+        for (Stored entry : batch) {
+            if (entry.event() != null) {
+                state.apply(entry.event(), entry.stored().getOccurredAt(), uploadedAt.get(entry.documentId()));
+            }
+            state.setSequenceNumber(entry.stored().getSequenceNumber());
+        }
+        return batch.size();
+    }
+
+    private StatisticsState restore() {
+        return snapshotRepository.findById(SNAPSHOT_NAME)
+            .map(snapshot -> {
+                try {
+                    StatisticsState restored = objectMapper.readValue(snapshot.getState(), StatisticsState.class);
+                    if (restored.getLayout() != StatisticsState.LAYOUT) {
+                        log.info("Statistics snapshot has layout {}, replaying the event log", restored.getLayout());
+                        return new StatisticsState();
+                    }
+                    persistedSequence = restored.getSequenceNumber();
+                    log.info("Restored processing statistics at sequence {}", persistedSequence);
+                    return restored;
+                } catch (JsonProcessingException e) {
+                    log.warn("Discarding unreadable statistics snapshot, replaying the event log: {}", e.getMessage());
+                    return new StatisticsState();
+                }
+            })
+            .orElseGet(StatisticsState::new);
+    }
+
+    private void persist() {
+        lastPersistedAt = System.currentTimeMillis();
+        if (state.getSequenceNumber() == persistedSequence) {
+            return;
+        }
+        try {
+            state.setLayout(StatisticsState.LAYOUT);
+            snapshotRepository.save(new StatisticsSnapshot(
+                SNAPSHOT_NAME, state.getSequenceNumber(), objectMapper.writeValueAsString(state)));
+            persistedSequence = state.getSequenceNumber();
+        } catch (Exception e) {
+            // The next attempt writes the newer state; until then a restart replays a little more
+            log.warn("Could not persist processing statistics: {}", e.getMessage());
+        }
+    }
+
+    private void publish() {
+        long outcomes = state.getCompleted() + state.getFailed() + state.getRejected();
+        current = ProcessingStatistics.builder()
+            .totalDocuments(state.getUploaded())
+            .documentsProcessed(state.getCompleted())
+            .documentsInProgress(state.inProgress())
+            .documentsFailed(state.getFailed())
+            .documentsValidated(state.getValidated())
+            .averageProcessingTime(averageSeconds(state.getProcessingMillis(), state.getCompleted()))
+            .successRate(outcomes > 0 ? (double) state.getCompleted() / outcomes : 0.0)
+            .processingByType(names(state.getByType()))
+            .processingByStage(names(state.getByStage()))
+            .processingByVendor(Map.copyOf(state.getByVendor()))
+            .daily(state.getDays().entrySet().stream()
+                .map(entry -> DailyStatistics.builder()
+                    .date(entry.getKey())
+                    .uploaded(entry.getValue().getUploaded())
+                    .completed(entry.getValue().getCompleted())
+                    .failed(entry.getValue().getFailed())
+                    .rejected(entry.getValue().getRejected())
+                    .averageProcessingTime(averageSeconds(
+                        entry.getValue().getProcessingMillis(), entry.getValue().getCompleted()))
+                    .build())
+                .toList())
+            .lastUpdated(LocalDateTime.now())
+            .build();
+    }
+
+    private static Map<String, Long> names(Map<? extends Enum<?>, Long> counts) {
+        return counts.entrySet().stream()
+            .filter(entry -> entry.getValue() != 0)
+            .collect(Collectors.toUnmodifiableMap(entry -> entry.getKey().name(), Map.Entry::getValue));
+    }
+
+    private static double averageSeconds(long totalMillis, long count) {
+        return count > 0 ? totalMillis / 1000.0 / count : 0.0;
+    }
+
+    private record Stored(OutboxEvent stored, UUID documentId, DomainEvent event) {}
+}
@@ -0,0 +1,43 @@
+package com.apex.document.infrastructure.statistics;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.Instant;
+
+/**
+ * Persisted statistics state and the audit.domain_events position it covers
+ */
+@Entity
+@Table(name = "statistics_snapshots")
+@Getter
+@NoArgsConstructor
+public class StatisticsSnapshot {
+
+    @Id
+    @Column(name = "name")
+    private String name;
+
+    @Column(name = "sequence_number", nullable = false)
+    private long sequenceNumber;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "state", nullable = false)
+    private String state;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
+    public StatisticsSnapshot(String name, long sequenceNumber, String state) {
+        this.name = name;
+        this.sequenceNumber = sequenceNumber;
+        this.state = state;
+        this.updatedAt = Instant.now();
+    }
+}
@@ -0,0 +1,11 @@
+package com.apex.document.infrastructure.statistics;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository for persisted statistics state
+ */
+@Repository
+public interface StatisticsSnapshotRepository extends JpaRepository<StatisticsSnapshot, String> {
+}
@@ -0,0 +1,158 @@
+package com.apex.document.infrastructure.statistics;
+
+import com.apex.core.events.DomainEvent;
+import com.apex.document.domain.DocumentType;
+import com.apex.document.domain.ProcessingStage;
+import com.apex.document.domain.events.DocumentApprovedEvent;
+import com.apex.document.domain.events.DocumentAutoApprovedEvent;
+import com.apex.document.domain.events.DocumentClassifiedEvent;
+import com.apex.document.domain.events.DocumentNeedsManualClassificationEvent;
+import com.apex.document.domain.events.DocumentNeedsValidationEvent;
+import com.apex.document.domain.events.DocumentProcessingErrorEvent;
+import com.apex.document.domain.events.DocumentRejectedEvent;
+import com.apex.document.domain.events.DocumentUploadedEvent;
+import com.apex.document.domain.events.OcrProcessingCompletedEvent;
+import com.apex.document.domain.events.OcrProcessingStartedEvent;
+import com.apex.document.domain.events.ProcessingAttemptFailedEvent;
+import com.apex.document.domain.events.ProcessingResultsCopiedEvent;
+import lombok.Data;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Counters, sums and daily rollups folded from Document events.
+ * Every event names the stage it leaves, either by its type or, for failures, in its data,
+ * and a document has exactly one outcome, so nothing is kept per document; the caller
+ * supplies the upload time that completion durations need. Serialized as JSON for persistence.
+ */
+@Data
+class StatisticsState {
+
+    private static final String NO_VENDOR = "none";
+
+    // Bump when the folding rules change so persisted states are replayed instead of restored
+    static final int LAYOUT = 3;
+
+    private int layout; // LAYOUT once persisted; absent, so 0, in snapshots older than the field
+    private long sequenceNumber;
+    private long uploaded;
+    private long completed;
+    private long validated;
+    private long rejected;
+    private long failed;
+    private long processingMillis;
+    private Map<ProcessingStage, Long> byStage = new HashMap<>();
+    private Map<DocumentType, Long> byType = new HashMap<>();
+    private Map<String, Long> byVendor = new HashMap<>();
+    private TreeMap<LocalDate, Day> days = new TreeMap<>();
+
+    @Data
+    static class Day {
+        private long uploaded;
+        private long completed;
+        private long failed;
+        private long rejected;
+        private long processingMillis;
+    }
+
+    /**
+     * Whether apply needs the document's upload time for this event
+     */
+    static boolean completes(DomainEvent event) {
+        return event instanceof DocumentApprovedEvent || event instanceof DocumentAutoApprovedEvent;
+    }
+
+    /**
+     * Fold one event. uploadedAt is only read for events that complete a document and
+     * may be null otherwise, or when the document is gone.
+     */
+    void apply(DomainEvent event, Instant occurredAt, Instant uploadedAt) {
+        Day day = days.computeIfAbsent(LocalDate.ofInstant(occurredAt, ZoneOffset.UTC), date -> new Day());
+
+        if (event instanceof DocumentUploadedEvent e) {
+            uploaded++;
+            day.uploaded++;
+            byVendor.merge(e.getVendorId() != null ? e.getVendorId().toString() : NO_VENDOR, 1L, Long::sum);
+            byStage.merge(ProcessingStage.PENDING_OCR, 1L, Long::sum);
+        } else if (event instanceof ProcessingResultsCopiedEvent e) {
+            classify(e.getDocumentType());
+            move(ProcessingStage.PENDING_OCR, ProcessingStage.PENDING_VALIDATION);
+        } else if (event instanceof OcrProcessingStartedEvent) {
+            move(ProcessingStage.PENDING_OCR, ProcessingStage.OCR_IN_PROGRESS);
+        } else if (event instanceof OcrProcessingCompletedEvent) {
+            move(ProcessingStage.OCR_IN_PROGRESS, ProcessingStage.PENDING_CLASSIFICATION);
+        } else if (event instanceof ProcessingAttemptFailedEvent e) {
+            // Older events lack the failed stage; only OCR had a running stage distinct from its pending one
+            ProcessingStage from = e.getFailedStage() != null ? e.getFailedStage()
+                : e.getRetryStage() == ProcessingStage.PENDING_OCR ? ProcessingStage.OCR_IN_PROGRESS
+                : e.getRetryStage();
+            move(from, e.getRetryStage());
+        } else if (event instanceof DocumentClassifiedEvent e) {
+            classify(e.getDocumentType());
+            move(ProcessingStage.PENDING_CLASSIFICATION, ProcessingStage.PENDING_EXTRACTION);
+        } else if (event instanceof DocumentNeedsManualClassificationEvent e) {
+            classify(e.getSuggestedType());
+            move(ProcessingStage.PENDING_CLASSIFICATION, ProcessingStage.PENDING_MANUAL_CLASSIFICATION);
+        } else if (event instanceof DocumentNeedsValidationEvent) {
+            move(ProcessingStage.PENDING_EXTRACTION, ProcessingStage.PENDING_VALIDATION);
+        } else if (event instanceof DocumentApprovedEvent) {
+            validated++;
+            complete(ProcessingStage.PENDING_VALIDATION, occurredAt, uploadedAt, day);
+        } else if (event instanceof DocumentAutoApprovedEvent) {
+            complete(ProcessingStage.PENDING_EXTRACTION, occurredAt, uploadedAt, day);
+        } else if (event instanceof DocumentRejectedEvent) {
+            rejected++;
+            day.rejected++;
+            move(ProcessingStage.PENDING_VALIDATION, ProcessingStage.COMPLETED);
+        } else if (event instanceof DocumentProcessingErrorEvent e) {
+            failed++;
+            day.failed++;
+            // Before the failed stage was recorded, only OCR failures ended in ERROR
+            move(e.getFailedStage() != null ? e.getFailedStage() : ProcessingStage.OCR_IN_PROGRESS,
+                ProcessingStage.ERROR);
+        }
+    }
+
+    /**
+     * Drop daily rollups before the given day
+     */
+    void retainFrom(LocalDate firstDay) {
+        days.headMap(firstDay).clear();
+    }
+
+    long inProgress() {
+        return byStage.entrySet().stream()
+            .filter(entry -> entry.getKey() != ProcessingStage.COMPLETED && entry.getKey() != ProcessingStage.ERROR)
+            .mapToLong(Map.Entry::getValue)
+            .sum();
+    }
+
+    private void complete(ProcessingStage from, Instant occurredAt, Instant uploadedAt, Day day) {
+        move(from, ProcessingStage.COMPLETED);
+        completed++;
+        day.completed++;
+        if (uploadedAt != null) {
+            long millis = Duration.between(uploadedAt, occurredAt).toMillis();
+            processingMillis += millis;
+            day.processingMillis += millis;
+        }
+    }
+
+    private void move(ProcessingStage from, ProcessingStage to) {
+        byStage.merge(from, -1L, Long::sum);
+        byStage.merge(to, 1L, Long::sum);
+    }
+
+    private void classify(DocumentType type) {
+        // Classification runs once per document, so types are only ever added
+        if (type != null) {
+            byType.merge(type, 1L, Long::sum);
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.apex.document.infrastructure.storage;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+
+/**
+ * Input stream decorator that inspects document content while it is streamed to storage.
+ * Size and SHA-256 are computed in the same pass that feeds the object store, and the
+ * leading bytes are kept for MIME type sniffing, so memory use is constant per upload.
+ */
+public class ContentInspectingInputStream extends FilterInputStream {
+
+    public static final int HEADER_SIZE = 8192;
+
+    private final MessageDigest digest;
+    private final long maxBytes;
+    private final byte[] header;
+    private int headerPosition;
+    private long bytesRead;
+    private String sha256;
+
+    public ContentInspectingInputStream(InputStream in, long maxBytes) throws IOException {
+        super(in);
+        this.maxBytes = maxBytes;
+        this.digest = newSha256();
+        // Read the header eagerly so the type can be sniffed before anything is stored
+        this.header = in.readNBytes(HEADER_SIZE);
+    }
+
+    /**
+     * Leading bytes of the content, used for MIME type detection.
+     */
+    public byte[] getHeader() {
+        return Arrays.copyOf(header, header.length);
+    }
+
+    /**
+     * Number of bytes consumed so far; the full content size once the stream is exhausted.
+     */
+    public long getBytesRead() {
+        return bytesRead;
+    }
+
+    /**
+     * Hex encoded SHA-256 of the content. Only valid once the stream has been fully read.
+     */
+    public String getSha256() {
+        if (sha256 == null) {
+            sha256 = HexFormat.of().formatHex(digest.digest());
+        }
+        return sha256;
+    }
+
+    @Override
+    public int read() throws IOException {
+        int b;
+        if (headerPosition < header.length) {
+            b = header[headerPosition++] & 0xFF;
+        } else {
+            b = in.read();
+        }
+        if (b != -1) {
+            count(1);
+            digest.update((byte) b);
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        if (length == 0) {
+            return 0;
+        }
+        int n;
+        if (headerPosition < header.length) {
+            n = Math.min(length, header.length - headerPosition);
+            System.arraycopy(header, headerPosition, buffer, offset, n);
+            headerPosition += n;
+        } else {
+            n = in.read(buffer, offset, length);
+        }
+        if (n > 0) {
+            count(n);
+            digest.update(buffer, offset, n);
+        }
+        return n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        // Skipped bytes still have to be hashed, so read them through a small buffer
+        byte[] scratch = new byte[(int) Math.min(n, 4096)];
+        long remaining = n;
+        while (remaining > 0) {
+            int read = read(scratch, 0, (int) Math.min(remaining, scratch.length));
+            if (read < 0) {
+                break;
+            }
+            remaining -= read;
+        }
+        return n - remaining;
+    }
+
+    @Override
+    public int available() throws IOException {
+        return (header.length - headerPosition) + in.available();
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    @Override
+    public synchronized void mark(int readlimit) {
+        // Not supported - content is hashed as it is read
+    }
+
+    @Override
+    public synchronized void reset() throws IOException {
+        throw new IOException("mark/reset not supported");
+    }
+
+    private void count(int n) throws IOException {
+        bytesRead += n;
+        if (bytesRead > maxBytes) {
+            throw new ContentLengthExceededException(maxBytes);
+        }
+    }
+
+    private static MessageDigest newSha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Raised while streaming when the content exceeds the configured size limit.
+     */
+    public static class ContentLengthExceededException extends IOException {
+
+        public ContentLengthExceededException(long maxBytes) {
+            super("Content exceeds limit of " + maxBytes + " bytes");
+        }
+    }
+}
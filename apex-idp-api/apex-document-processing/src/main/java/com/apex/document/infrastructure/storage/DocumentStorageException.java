@@ -0,0 +1,15 @@
+package com.apex.document.infrastructure.storage;
+
+/**
+ * Exception thrown when document content cannot be written to or read from storage
+ */
+public class DocumentStorageException extends RuntimeException {
+
+    public DocumentStorageException(String message) {
+        super(message);
+    }
+
+    public DocumentStorageException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
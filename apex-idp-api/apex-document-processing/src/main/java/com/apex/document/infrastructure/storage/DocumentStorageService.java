@@ -1,21 +1,344 @@
 package com.apex.document.infrastructure.storage;
 
+import com.apex.core.config.ApexProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.minio.BucketExistsArgs;
+import io.minio.GetObjectArgs;
+import io.minio.GetPresignedObjectUrlArgs;
+import io.minio.MakeBucketArgs;
+import io.minio.MinioClient;
+import io.minio.PutObjectArgs;
+import io.minio.RemoveObjectArgs;
+import io.minio.errors.ErrorResponseException;
+import io.minio.http.Method;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.tika.Tika;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.stereotype.Service;
-import org.springframework.web.multipart.MultipartFile;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
 
 /**
- * Service for document storage operations
+ * Service for document storage operations.
+ * Content is streamed to MinIO as a multipart upload, or to the local file system
+ * when no MinIO client is configured, without buffering whole files in memory.
+ * Presigned download URLs are signed locally and reused until shortly before they
+ * expire, so repeated downloads of a document cost neither a signature nor a round trip.
  */
+@Slf4j
 @Service
 public class DocumentStorageService {
+
+    private static final String NO_SUCH_KEY = "NoSuchKey";
+
+    private final ObjectProvider<MinioClient> minioClientProvider;
+    private final ApexProperties apexProperties;
+    private final Tika tika = new Tika();
+    private final Cache<String, PresignedUrl> presignedUrls;
+
+    private volatile boolean bucketVerified;
+    private volatile MinioClient presignClient;
+
+    public DocumentStorageService(ObjectProvider<MinioClient> minioClientProvider,
+                                  ApexProperties apexProperties,
+                                  MeterRegistry meterRegistry) {
+        this.minioClientProvider = minioClientProvider;
+        this.apexProperties = apexProperties;
+        Duration renewBefore = Duration.ofSeconds(apexProperties.getStorage().getPresignedUrlRenewBeforeSeconds());
+        this.presignedUrls = Caffeine.newBuilder()
+            .maximumSize(apexProperties.getStorage().getPresignedUrlCacheSize())
+            .expireAfter(new Expiry<String, PresignedUrl>() {
+                @Override
+                public long expireAfterCreate(String path, PresignedUrl url, long currentTime) {
+                    // Handed out URLs stay valid for at least the renewal margin
+                    return Math.max(0, Duration.between(Instant.now(), url.expiresAt()).minus(renewBefore).toNanos());
+                }
+
+                @Override
+                public long expireAfterUpdate(String path, PresignedUrl url, long currentTime, long currentDuration) {
+                    return expireAfterCreate(path, url, currentTime);
+                }
+
+                @Override
+                public long expireAfterRead(String path, PresignedUrl url, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+            })
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, presignedUrls, "presigned-urls");
+    }
+
+    /**
+     * Stream content into storage in a single pass.
+     * Size and SHA-256 are taken from the inspecting stream once the upload completes.
+     */
+    public StoredDocument storeDocument(ContentInspectingInputStream content, String fileName, String contentType)
+            throws IOException {
+        String objectName = buildObjectName(fileName);
+        MinioClient minioClient = minioClientProvider.getIfAvailable();
+
+        if (minioClient != null) {
+            putObject(minioClient, objectName, content, contentType);
+        } else {
+            storeLocally(objectName, content);
+        }
+
+        log.debug("Stored {} ({} bytes, sha256={}) at {}", fileName, content.getBytesRead(), content.getSha256(), objectName);
+        return new StoredDocument(objectName, content.getBytesRead(), content.getSha256(), contentType);
+    }
+
+    /**
+     * Open stored content for reading. The caller must close the stream.
+     */
+    public InputStream openDocument(String storagePath) {
+        MinioClient minioClient = minioClientProvider.getIfAvailable();
+        try {
+            if (minioClient != null) {
+                return minioClient.getObject(GetObjectArgs.builder()
+                    .bucket(apexProperties.getStorage().getBucketName())
+                    .object(storagePath)
+                    .build());
+            }
+            return Files.newInputStream(localPath(storagePath));
+        } catch (Exception e) {
+            throw new DocumentStorageException("Failed to read object " + storagePath, e);
+        }
+    }
+
+    /**
+     * Open a byte range of stored content. MinIO only sends the requested range; a local
+     * file is positioned at the offset, and the caller stops reading after length bytes.
+     */
+    public InputStream openDocument(String storagePath, long offset, long length) {
+        MinioClient minioClient = minioClientProvider.getIfAvailable();
+        try {
+            if (minioClient != null) {
+                return minioClient.getObject(GetObjectArgs.builder()
+                    .bucket(apexProperties.getStorage().getBucketName())
+                    .object(storagePath)
+                    .offset(offset)
+                    .length(length)
+                    .build());
+            }
+            InputStream content = Files.newInputStream(localPath(storagePath));
+            content.skipNBytes(offset);
+            return content;
+        } catch (Exception e) {
+            throw new DocumentStorageException("Failed to read object " + storagePath, e);
+        }
+    }
+
+    /**
+     * The file holding stored content when documents are kept on the local file system,
+     * which lets the servlet container send it without copying it through the heap.
+     */
+    public Optional<Path> localFile(String storagePath) {
+        if (minioClientProvider.getIfAvailable() != null) {
+            return Optional.empty();
+        }
+        return Optional.of(localPath(storagePath).toAbsolutePath());
+    }
+
+    /**
+     * A time-limited URL that lets a client fetch the object from MinIO directly.
+     * Empty for local storage, which has no URL of its own.
+     */
+    public Optional<PresignedUrl> presignedUrl(String storagePath) {
+        MinioClient minioClient = minioClientProvider.getIfAvailable();
+        if (minioClient == null) {
+            return Optional.empty();
+        }
+        return Optional.of(presignedUrls.get(storagePath, path -> presign(minioClient, path)));
+    }
     
-    public String storeDocument(MultipartFile file) {
-        // TODO: Implement MinIO storage
-        return "storage/path/" + file.getOriginalFilename();
+    /**
+     * Store a small derived object, such as a page image, under the given name.
+     */
+    public void storeObject(String objectName, byte[] content, String contentType) {
+        MinioClient minioClient = minioClientProvider.getIfAvailable();
+        try {
+            if (minioClient != null) {
+                ensureBucket(minioClient, apexProperties.getStorage().getBucketName());
+                minioClient.putObject(PutObjectArgs.builder()
+                    .bucket(apexProperties.getStorage().getBucketName())
+                    .object(objectName)
+                    .stream(new ByteArrayInputStream(content), content.length, -1)
+                    .contentType(contentType)
+                    .build());
+            } else {
+                Path target = localPath(objectName);
+                Files.createDirectories(target.getParent());
+                Files.write(target, content);
+            }
+        } catch (Exception e) {
+            throw new DocumentStorageException("Failed to store object " + objectName, e);
+        }
+    }
+
+    /**
+     * Read a small object into memory; empty when it does not exist.
+     */
+    public Optional<byte[]> readObject(String objectName) {
+        MinioClient minioClient = minioClientProvider.getIfAvailable();
+        try {
+            if (minioClient != null) {
+                try (InputStream content = minioClient.getObject(GetObjectArgs.builder()
+                        .bucket(apexProperties.getStorage().getBucketName())
+                        .object(objectName)
+                        .build())) {
+                    return Optional.of(content.readAllBytes());
+                }
+            }
+            return Optional.of(Files.readAllBytes(localPath(objectName)));
+        } catch (ErrorResponseException e) {
+            if (NO_SUCH_KEY.equals(e.errorResponse().code())) {
+                return Optional.empty();
+            }
+            throw new DocumentStorageException("Failed to read object " + objectName, e);
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        } catch (Exception e) {
+            throw new DocumentStorageException("Failed to read object " + objectName, e);
+        }
+    }
+
+    /**
+     * Remove a stored object, e.g. the fresh copy of an upload that turned out to be a duplicate.
+     */
+    public void deleteDocument(String storagePath) {
+        MinioClient minioClient = minioClientProvider.getIfAvailable();
+        try {
+            if (minioClient != null) {
+                minioClient.removeObject(RemoveObjectArgs.builder()
+                    .bucket(apexProperties.getStorage().getBucketName())
+                    .object(storagePath)
+                    .build());
+            } else {
+                Path target = localPath(storagePath);
+                Files.deleteIfExists(target);
+                Files.deleteIfExists(target.getParent());
+            }
+        } catch (Exception e) {
+            throw new DocumentStorageException("Failed to delete object " + storagePath, e);
+        }
     }
     
-    public String generatePresignedUrl(String storagePath) {
-        // TODO: Implement MinIO presigned URL generation
-        return "http://localhost:9000/" + storagePath;
+    /**
+     * Detect the MIME type from the leading bytes of the content, using the file name as a hint.
+     */
+    public String detectContentType(byte[] header, String fileName) {
+        return tika.detect(header, fileName);
+    }
+
+    private PresignedUrl presign(MinioClient minioClient, String storagePath) {
+        ApexProperties.Storage storage = apexProperties.getStorage();
+        int expirySeconds = storage.getPresignedUrlExpirySeconds();
+        Instant expiresAt = Instant.now().plusSeconds(expirySeconds);
+        try {
+            String url = presignClient(minioClient).getPresignedObjectUrl(GetPresignedObjectUrlArgs.builder()
+                .method(Method.GET)
+                .bucket(storage.getBucketName())
+                .object(storagePath)
+                .expiry(expirySeconds)
+                .build());
+            return new PresignedUrl(url, expiresAt);
+        } catch (Exception e) {
+            throw new DocumentStorageException("Failed to sign URL for object " + storagePath, e);
+        }
+    }
+
+    /**
+     * URLs are signed for the host clients use, which differs from the internal endpoint
+     * when MinIO sits behind a proxy or a container network.
+     */
+    private MinioClient presignClient(MinioClient minioClient) {
+        ApexProperties.Storage storage = apexProperties.getStorage();
+        if (storage.getPublicEndpoint() == null || storage.getPublicEndpoint().isBlank()) {
+            return minioClient;
+        }
+        MinioClient client = presignClient;
+        if (client == null) {
+            // The region is fixed so signing never asks the public endpoint for the bucket location
+            client = MinioClient.builder()
+                .endpoint(storage.getPublicEndpoint())
+                .credentials(storage.getAccessKey(), storage.getSecretKey())
+                .region(storage.getRegion())
+                .build();
+            presignClient = client;
+        }
+        return client;
+    }
+
+    private void storeLocally(String objectName, InputStream content) throws IOException {
+        Path target = localPath(objectName);
+        Files.createDirectories(target.getParent());
+        try {
+            Files.copy(content, target);
+        } catch (IOException e) {
+            // A rejected or broken upload must not leave a partial file behind
+            try {
+                Files.deleteIfExists(target);
+                Files.deleteIfExists(target.getParent());
+            } catch (IOException cleanup) {
+                e.addSuppressed(cleanup);
+            }
+            throw e;
+        }
+    }
+
+    private Path localPath(String storagePath) {
+        return Paths.get(apexProperties.getStorage().getLocal().getBasePath()).resolve(storagePath);
+    }
+
+    private void putObject(MinioClient minioClient, String objectName, InputStream content, String contentType)
+            throws IOException {
+        ApexProperties.Storage storage = apexProperties.getStorage();
+        try {
+            ensureBucket(minioClient, storage.getBucketName());
+            // Unknown object size makes the client upload fixed-size parts, so memory is bounded by the part size
+            minioClient.putObject(PutObjectArgs.builder()
+                .bucket(storage.getBucketName())
+                .object(objectName)
+                .stream(content, -1, storage.getUploadPartSize())
+                .contentType(contentType)
+                .build());
+        } catch (IOException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new DocumentStorageException("Failed to store object " + objectName, e);
+        }
+    }
+
+    private void ensureBucket(MinioClient minioClient, String bucketName) throws Exception {
+        if (bucketVerified) {
+            return;
+        }
+        if (!minioClient.bucketExists(BucketExistsArgs.builder().bucket(bucketName).build())) {
+            minioClient.makeBucket(MakeBucketArgs.builder().bucket(bucketName).build());
+            log.info("Created storage bucket: {}", bucketName);
+        }
+        bucketVerified = true;
+    }
+
+    private String buildObjectName(String fileName) {
+        String safeName = fileName == null || fileName.isBlank()
+            ? "document"
+            : Paths.get(fileName).getFileName().toString().replaceAll("[^A-Za-z0-9._-]", "_");
+        return "documents/" + UUID.randomUUID() + "/" + safeName;
     }
 }
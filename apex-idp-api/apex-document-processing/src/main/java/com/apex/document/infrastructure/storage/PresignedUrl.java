@@ -0,0 +1,8 @@
+package com.apex.document.infrastructure.storage;
+
+import java.time.Instant;
+
+/**
+ * URL granting direct read access to a stored object until it expires.
+ */
+public record PresignedUrl(String url, Instant expiresAt) {}
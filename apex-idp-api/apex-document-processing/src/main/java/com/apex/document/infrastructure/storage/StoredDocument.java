@@ -0,0 +1,6 @@
+package com.apex.document.infrastructure.storage;
+
+/**
+ * Result of storing document content: where it lives and what was measured while streaming.
+ */
+public record StoredDocument(String storagePath, long size, String sha256, String contentType) {}
@@ -1,24 +1,35 @@
 package com.apex.document.infrastructure.websocket;
 
+import com.apex.core.websocket.NotificationDispatcher;
+import com.apex.document.application.dto.DocumentUploadResponse;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 
+import java.util.HashMap;
+import java.util.Map;
+
 /**
  * Service for WebSocket notifications
+ * Document notifications go through the NotificationDispatcher, so a large batch
+ * reaches each client as a few frames instead of one per file.
  */
 @Service
 public class WebSocketNotificationService {
     
+    private static final String USER_PREFIX = "/user/";
+    
     private final SimpMessagingTemplate messagingTemplate;
+    private final NotificationDispatcher dispatcher;
     
-    public WebSocketNotificationService(SimpMessagingTemplate messagingTemplate) {
+    public WebSocketNotificationService(SimpMessagingTemplate messagingTemplate, NotificationDispatcher dispatcher) {
         this.messagingTemplate = messagingTemplate;
+        this.dispatcher = dispatcher;
     }
     
     public void notifyDocumentProcessed(String userId, String documentId) {
-        messagingTemplate.convertAndSendToUser(
-            userId, 
-            "/queue/document-processed", 
+        dispatcher.send(
+            USER_PREFIX + userId + "/queue/document-processed", 
+            "document:" + documentId, 
             documentId
         );
     }
@@ -28,10 +39,29 @@ public class WebSocketNotificationService {
         System.out.println("Document uploaded: " + documentId);
     }
     
+    /**
+     * Publish per-file progress of a batch upload on the shared documents topic
+     */
+    public void notifyBatchProgress(String batchId, DocumentUploadResponse fileResult, int completed, int total) {
+        Map<String, Object> message = new HashMap<>();
+        message.put("type", "BATCH_UPLOAD_PROGRESS");
+        message.put("batchId", batchId);
+        message.put("fileName", fileResult.getFileName());
+        message.put("documentId", fileResult.getDocumentId());
+        message.put("status", fileResult.getStatus());
+        message.put("message", fileResult.getMessage());
+        message.put("completed", completed);
+        message.put("total", total);
+        message.put("timestamp", System.currentTimeMillis());
+        
+        // Each file reports once, so progress is batched but not coalesced
+        dispatcher.send("/topic/documents", null, message);
+    }
+    
     public void notifyValidationComplete(String userId, String documentId) {
-        messagingTemplate.convertAndSendToUser(
-            userId, 
-            "/queue/validation-complete", 
+        dispatcher.send(
+            USER_PREFIX + userId + "/queue/validation-complete", 
+            "document:" + documentId, 
             documentId
         );
     }
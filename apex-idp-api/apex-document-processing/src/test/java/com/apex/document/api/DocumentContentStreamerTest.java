@@ -0,0 +1,177 @@
+package com.apex.document.api;
+
+import com.apex.document.domain.DocumentRepository;
+import com.apex.document.infrastructure.storage.DocumentStorageService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DocumentContentStreamerTest {
+
+    private static final String PATH = "documents/invoice.pdf";
+    private static final String HASH = "9f86d081884c7d65";
+    private static final byte[] CONTENT = "0123456789abcdefghij".getBytes(StandardCharsets.US_ASCII);
+
+    private final DocumentStorageService storageService = mock(DocumentStorageService.class);
+    private final DocumentContentStreamer streamer = new DocumentContentStreamer(storageService);
+    private final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/content");
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+    @BeforeEach
+    void setUp() {
+        when(storageService.localFile(anyString())).thenReturn(Optional.empty());
+        when(storageService.openDocument(anyString(), anyLong(), anyLong())).thenAnswer(invocation -> {
+            int offset = (int) (long) invocation.getArgument(1, Long.class);
+            int length = (int) (long) invocation.getArgument(2, Long.class);
+            return new ByteArrayInputStream(Arrays.copyOfRange(CONTENT, offset, offset + length));
+        });
+    }
+
+    @Test
+    void sendsWholeDocumentWithoutRange() throws Exception {
+        streamer.stream(content(), request, response);
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getContentAsByteArray()).isEqualTo(CONTENT);
+        assertThat(response.getContentLengthLong()).isEqualTo(CONTENT.length);
+        assertThat(response.getHeader(HttpHeaders.ACCEPT_RANGES)).isEqualTo("bytes");
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isEqualTo("\"" + HASH + "\"");
+    }
+
+    @Test
+    void sendsRequestedRange() throws Exception {
+        request.addHeader(HttpHeaders.RANGE, "bytes=5-9");
+
+        streamer.stream(content(), request, response);
+
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 5-9/20");
+        assertThat(response.getContentAsString()).isEqualTo("56789");
+        assertThat(response.getContentLengthLong()).isEqualTo(5);
+    }
+
+    @Test
+    void sendsSuffixAndOpenEndedRanges() throws Exception {
+        request.addHeader(HttpHeaders.RANGE, "bytes=-4");
+        streamer.stream(content(), request, response);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 16-19/20");
+        assertThat(response.getContentAsString()).isEqualTo("ghij");
+
+        MockHttpServletRequest openEnded = new MockHttpServletRequest("GET", "/content");
+        openEnded.addHeader(HttpHeaders.RANGE, "bytes=15-100");
+        MockHttpServletResponse openEndedResponse = new MockHttpServletResponse();
+        streamer.stream(content(), openEnded, openEndedResponse);
+        assertThat(openEndedResponse.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 15-19/20");
+        assertThat(openEndedResponse.getContentAsString()).isEqualTo("fghij");
+    }
+
+    @Test
+    void refusesRangeBeyondTheEnd() throws Exception {
+        request.addHeader(HttpHeaders.RANGE, "bytes=20-30");
+
+        streamer.stream(content(), request, response);
+
+        assertThat(response.getStatus()).isEqualTo(416);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes */20");
+        assertThat(response.getContentAsByteArray()).isEmpty();
+        verify(storageService, never()).openDocument(anyString(), anyLong(), anyLong());
+    }
+
+    @Test
+    void sendsWholeDocumentForSeveralOrMalformedRanges() throws Exception {
+        for (String range : new String[]{"bytes=0-1,5-6", "bytes=abc", "items=0-1"}) {
+            MockHttpServletRequest ranged = new MockHttpServletRequest("GET", "/content");
+            ranged.addHeader(HttpHeaders.RANGE, range);
+            MockHttpServletResponse full = new MockHttpServletResponse();
+
+            streamer.stream(content(), ranged, full);
+
+            assertThat(full.getStatus()).as(range).isEqualTo(200);
+            assertThat(full.getContentAsByteArray()).as(range).isEqualTo(CONTENT);
+        }
+    }
+
+    @Test
+    void honoursRangeOnlyWhileIfRangeMatches() throws Exception {
+        request.addHeader(HttpHeaders.RANGE, "bytes=0-3");
+        request.addHeader(HttpHeaders.IF_RANGE, "\"" + HASH + "\"");
+        streamer.stream(content(), request, response);
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getContentAsString()).isEqualTo("0123");
+
+        MockHttpServletRequest stale = new MockHttpServletRequest("GET", "/content");
+        stale.addHeader(HttpHeaders.RANGE, "bytes=0-3");
+        stale.addHeader(HttpHeaders.IF_RANGE, "\"older-version\"");
+        MockHttpServletResponse full = new MockHttpServletResponse();
+        streamer.stream(content(), stale, full);
+        assertThat(full.getStatus()).isEqualTo(200);
+        assertThat(full.getContentAsByteArray()).isEqualTo(CONTENT);
+    }
+
+    @Test
+    void answersNotModifiedForCurrentEtag() throws Exception {
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"" + HASH + "\"");
+
+        streamer.stream(content(), request, response);
+
+        assertThat(response.getStatus()).isEqualTo(304);
+        assertThat(response.getContentAsByteArray()).isEmpty();
+    }
+
+    @Test
+    void headSendsHeadersOnly() throws Exception {
+        MockHttpServletRequest head = new MockHttpServletRequest("HEAD", "/content");
+        head.addHeader(HttpHeaders.RANGE, "bytes=0-9");
+
+        streamer.stream(content(), head, response);
+
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getContentLengthLong()).isEqualTo(10);
+        assertThat(response.getContentAsByteArray()).isEmpty();
+        verify(storageService, never()).openDocument(anyString(), anyLong(), anyLong());
+    }
+
+    @Test
+    void handsLocalFilesToSendfile() throws Exception {
+        Path file = Path.of("/var/apex/documents/invoice.pdf");
+        when(storageService.localFile(PATH)).thenReturn(Optional.of(file));
+        request.setAttribute("org.apache.tomcat.sendfile.support", Boolean.TRUE);
+        request.addHeader(HttpHeaders.RANGE, "bytes=5-9");
+
+        streamer.stream(content(), request, response);
+
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(request.getAttribute("org.apache.tomcat.sendfile.filename")).isEqualTo(file.toString());
+        assertThat(request.getAttribute("org.apache.tomcat.sendfile.start")).isEqualTo(5L);
+        assertThat(request.getAttribute("org.apache.tomcat.sendfile.end")).isEqualTo(10L);
+        assertThat(response.getContentAsByteArray()).isEmpty();
+    }
+
+    private static DocumentRepository.StoredContent content() {
+        return new DocumentRepository.StoredContent() {
+            public UUID getId() { return UUID.fromString("3f0c6f1e-6a1b-4c5e-9f1a-0d2c3b4a5e6f"); }
+            public String getFileName() { return "invoice.pdf"; }
+            public Long getFileSize() { return (long) CONTENT.length; }
+            public String getMimeType() { return "application/pdf"; }
+            public String getStoragePath() { return PATH; }
+            public String getContentHash() { return HASH; }
+        };
+    }
+}
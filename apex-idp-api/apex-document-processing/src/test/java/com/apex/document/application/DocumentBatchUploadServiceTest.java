@@ -0,0 +1,43 @@
+package com.apex.document.application;
+
+import com.apex.core.config.ApexProperties;
+import com.apex.document.infrastructure.websocket.WebSocketNotificationService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class DocumentBatchUploadServiceTest {
+
+    @TempDir
+    Path spool;
+
+    @Test
+    void startupSweepsSpoolsLeftByAnEarlierRun() throws Exception {
+        Path stale = Files.createDirectories(spool.resolve("stale-batch"));
+        Files.writeString(stale.resolve("part"), "content");
+        Files.setLastModifiedTime(stale, FileTime.from(Instant.now().minus(Duration.ofHours(2))));
+        Path recent = Files.createDirectories(spool.resolve("recent-batch"));
+        Files.writeString(recent.resolve("part"), "content");
+
+        ApexProperties properties = new ApexProperties();
+        properties.getProcessing().getBatchUpload().setSpoolDirectory(spool.toString());
+        DocumentBatchUploadService service = new DocumentBatchUploadService(
+            mock(DocumentCommandService.class), mock(WebSocketNotificationService.class), properties);
+
+        service.start();
+        try {
+            assertThat(stale).doesNotExist();
+            assertThat(recent.resolve("part")).exists();
+        } finally {
+            service.stop();
+        }
+    }
+}
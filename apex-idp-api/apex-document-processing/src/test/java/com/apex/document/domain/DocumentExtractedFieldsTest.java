@@ -0,0 +1,94 @@
+package com.apex.document.domain;
+
+import com.apex.core.eventstore.DomainEventRegistry;
+import com.apex.core.events.DomainEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DocumentExtractedFieldsTest {
+
+    private static final ObjectMapper OBJECT_MAPPER = JsonMapper.builder().findAndAddModules().build();
+    private static final DomainEventRegistry REGISTRY = new DomainEventRegistry(OBJECT_MAPPER);
+
+    @Test
+    void bulkAdditionMatchesAddingFieldsOneByOne() {
+        List<ExtractedField> fields = lineItems(40);
+        Document bulk = uploaded();
+        Document single = uploaded();
+
+        bulk.addExtractedFields(fields);
+        fields.forEach(field -> single.addExtractedField(field.copy()));
+
+        assertThat(bulk.getExtractionConfidence()).isEqualByComparingTo(single.getExtractionConfidence());
+        assertThat(describe(bulk)).isEqualTo(describe(single));
+        assertThat(bulk.getDomainEventsList()).hasSize(2);
+        assertThat(single.getDomainEventsList()).hasSize(41);
+    }
+
+    @Test
+    void replayingTheBulkEventRebuildsTheSameDocument() throws Exception {
+        Document document = uploaded();
+        document.addExtractedFields(lineItems(40));
+        document.correctField("line_7_amount", "99.00");
+
+        Document replayed = replay(document);
+
+        assertThat(replayed.getExtractionConfidence()).isEqualByComparingTo(document.getExtractionConfidence());
+        assertThat(describe(replayed)).isEqualTo(describe(document));
+        assertThat(replayed.getExtractedFields()).allSatisfy(field ->
+            assertThat(field.getDocumentId()).isEqualTo(document.getId()));
+    }
+
+    @Test
+    void emptyRunIsRecordedAsZeroConfidence() throws Exception {
+        Document document = uploaded();
+
+        document.addExtractedFields(List.of());
+
+        assertThat(document.getExtractionConfidence()).isEqualByComparingTo(BigDecimal.ZERO);
+        assertThat(replay(document).getExtractionConfidence()).isEqualByComparingTo(BigDecimal.ZERO);
+    }
+
+    private static Document uploaded() {
+        return Document.createFromUpload("invoice.pdf", 48_213L, "application/pdf", "documents/invoice.pdf",
+            "hash", null, ProcessingPriority.NORMAL);
+    }
+
+    static List<ExtractedField> lineItems(int count) {
+        List<ExtractedField> fields = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            fields.add(new ExtractedField("line_" + i + "_amount", (i * 7 % 100) + ".50",
+                new BigDecimal("0.60").add(new BigDecimal(i % 40).movePointLeft(2)), 40, 100 + i * 12, 80, 10, 1 + i / 20));
+        }
+        return fields;
+    }
+
+    /**
+     * Rebuild a document from its events after a round trip through their stored JSON form
+     */
+    private static Document replay(Document document) throws Exception {
+        Document replayed = new Document();
+        replayed.setId(document.getId());
+        for (DomainEvent event : document.getDomainEventsList()) {
+            replayed.apply(REGISTRY.read(event.getEventType(), document.getId(),
+                OBJECT_MAPPER.writeValueAsString(event.getEventData()), event.getUserId()).orElseThrow());
+        }
+        return replayed;
+    }
+
+    private static List<String> describe(Document document) {
+        return document.getExtractedFields().stream()
+            .map(field -> String.join("|", field.getFieldName(), field.getValue(),
+                field.getConfidence().stripTrailingZeros().toPlainString(), String.valueOf(field.getXCoordinate()),
+                String.valueOf(field.getYCoordinate()), String.valueOf(field.getWidth()),
+                String.valueOf(field.getHeight()), String.valueOf(field.getPageNumber())))
+            .toList();
+    }
+}
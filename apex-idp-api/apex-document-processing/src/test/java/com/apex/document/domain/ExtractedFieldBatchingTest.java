@@ -0,0 +1,129 @@
+package com.apex.document.domain;
+
+import com.apex.core.outbox.OutboxEvent;
+import com.apex.core.outbox.OutboxEventPublisher;
+import com.apex.core.outbox.OutboxEventRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Statements and outbox events written when one extraction run adds 40 fields, per field
+ * against in bulk, with and without JDBC batching. Runs against H2, like the development profile.
+ */
+@DataJpaTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:batching;DB_CLOSE_DELAY=-1;INIT=CREATE SCHEMA IF NOT EXISTS audit",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "spring.jpa.properties.hibernate.order_inserts=true",
+    "spring.jpa.properties.hibernate.order_updates=true"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ExtractedFieldBatchingTest {
+
+    private static final int FIELDS = 40;
+
+    @SpringBootConfiguration
+    @EntityScan(basePackageClasses = {Document.class, OutboxEvent.class})
+    @EnableJpaRepositories(basePackageClasses = {DocumentRepository.class, OutboxEventRepository.class})
+    @ImportAutoConfiguration(JacksonAutoConfiguration.class)
+    @Import(OutboxEventPublisher.class)
+    static class Config {
+    }
+
+    @Autowired
+    private DocumentRepository documentRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void perFieldAdditionWritesAnEventAndStatementPerField() {
+        Run run = extract((document, fields) -> fields.forEach(document::addExtractedField), 0);
+
+        // Upload and one event per field, each its own outbox insert, next to document and field inserts
+        assertThat(run.events()).isEqualTo(1 + FIELDS);
+        assertThat(run.statements()).isEqualTo(1 + FIELDS + run.events());
+    }
+
+    @Test
+    void bulkAdditionWritesOneEvent() {
+        Run run = extract(Document::addExtractedFields, 0);
+
+        assertThat(run.events()).isEqualTo(2);
+        assertThat(run.statements()).isEqualTo(1 + FIELDS + run.events());
+    }
+
+    @Test
+    void bulkAdditionIsBatched() {
+        Run run = extract(Document::addExtractedFields, 50);
+
+        // One batch per table: documents, extracted_fields, domain_events
+        assertThat(run.events()).isEqualTo(2);
+        assertThat(run.statements()).isEqualTo(3);
+    }
+
+    /**
+     * Upload a document and add the fields in the same transaction, counting prepared
+     * statements and outbox rows
+     */
+    private Run extract(BiConsumer<Document, List<ExtractedField>> addFields, int batchSize) {
+        long eventsBefore = outboxEventRepository.count();
+        statistics.clear();
+        UUID id = transactionTemplate.execute(status -> {
+            entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+            Document document = Document.createFromUpload("invoice.pdf", 48_213L, "application/pdf",
+                "documents/invoice.pdf", "hash", null, ProcessingPriority.NORMAL);
+            addFields.accept(document, DocumentExtractedFieldsTest.lineItems(FIELDS));
+            return documentRepository.save(document).getId();
+        });
+        long statements = statistics.getPrepareStatementCount();
+
+        Integer stored = transactionTemplate.execute(status ->
+            documentRepository.findById(id).orElseThrow().getExtractedFields().size());
+        assertThat(stored).isEqualTo(FIELDS);
+        return new Run(outboxEventRepository.count() - eventsBefore, statements);
+    }
+
+    private record Run(long events, long statements) {
+    }
+}
@@ -0,0 +1,164 @@
+package com.apex.document.infrastructure.eventstore;
+
+import com.apex.core.config.ApexProperties;
+import com.apex.core.eventstore.AggregateSnapshot;
+import com.apex.core.eventstore.AggregateSnapshotRepository;
+import com.apex.core.eventstore.DomainEventRegistry;
+import com.apex.core.eventstore.EventStore;
+import com.apex.core.events.DomainEvent;
+import com.apex.core.outbox.OutboxEvent;
+import com.apex.core.outbox.OutboxEventRepository;
+import com.apex.document.domain.Document;
+import com.apex.document.domain.DocumentType;
+import com.apex.document.domain.ExtractedField;
+import com.apex.document.domain.ProcessingPriority;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * Cost of loading a Document through the EventStore from a snapshot plus the events
+ * after it, against replaying its whole history, as the history grows. Histories are
+ * an invoice that went through the pipeline followed by field corrections. The tail is
+ * half the default snapshot interval, the average a loaded document replays. Storage is
+ * in memory, so only reading events and applying them is measured, not the queries.
+ * Not a unit test - run main(), e.g. from the IDE, after mvn test-compile.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DocumentLoadBenchmark {
+
+    private static final int TAIL = 25;
+    private static final String[] FIELDS = {
+        "invoice_number", "invoice_date", "due_date", "vendor_name", "vendor_tax_id",
+        "po_number", "subtotal", "tax_amount", "total_amount", "currency"
+    };
+
+    @Param({"50", "500", "5000"})
+    public int historyLength;
+
+    private DocumentEventSourcedRepository withSnapshot;
+    private DocumentEventSourcedRepository withoutSnapshot;
+    private UUID documentId;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+        DomainEventRegistry registry = new DomainEventRegistry(objectMapper);
+
+        Document document = Document.createFromUpload("invoice.pdf", 48_213L, "application/pdf",
+            "documents/invoice.pdf", "hash", UUID.randomUUID(), ProcessingPriority.NORMAL);
+        documentId = document.getId();
+        document.startOcrProcessing();
+        document.completeOcrProcessing("INVOICE 4711", 2);
+        document.applyClassification(DocumentType.INVOICE, new BigDecimal("0.93"));
+        List<ExtractedField> fields = new ArrayList<>();
+        for (String field : FIELDS) {
+            fields.add(new ExtractedField(field, "value", new BigDecimal("0.75")));
+        }
+        document.addExtractedFields(fields);
+        document.validateExtraction();
+        for (int i = 0; documentEvents(document).size() < historyLength; i++) {
+            document.correctField(FIELDS[i % FIELDS.length], "corrected " + i);
+        }
+
+        List<OutboxEvent> history = new ArrayList<>();
+        for (DomainEvent event : documentEvents(document)) {
+            OutboxEvent stored = OutboxEvent.from(event, objectMapper.writeValueAsString(event.getEventData()));
+            ReflectionTestUtils.setField(stored, "aggregateType", Document.class.getSimpleName());
+            ReflectionTestUtils.setField(stored, "sequenceNumber", (long) history.size() + 1);
+            history.add(stored);
+        }
+
+        // Snapshot the history up to the tail the way a load would, then serve it back
+        AtomicReference<AggregateSnapshot> snapshot = new AtomicReference<>();
+        new DocumentEventSourcedRepository(eventStore(history.subList(0, historyLength - TAIL),
+            id -> Optional.empty(), snapshot::set, 1, registry, objectMapper)).load(documentId);
+
+        withSnapshot = new DocumentEventSourcedRepository(eventStore(history,
+            id -> Optional.of(snapshot.get()), saved -> { }, Integer.MAX_VALUE, registry, objectMapper));
+        withoutSnapshot = new DocumentEventSourcedRepository(eventStore(history,
+            id -> Optional.empty(), saved -> { }, Integer.MAX_VALUE, registry, objectMapper));
+    }
+
+    @Benchmark
+    public Document snapshotAndTail() {
+        return withSnapshot.load(documentId).orElseThrow();
+    }
+
+    @Benchmark
+    public Document fullReplay() {
+        return withoutSnapshot.load(documentId).orElseThrow();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<DomainEvent> documentEvents(Document document) {
+        return List.copyOf((Collection<DomainEvent>) (Collection<?>)
+            ReflectionTestUtils.invokeMethod(document, "domainEvents"));
+    }
+
+    private static EventStore eventStore(List<OutboxEvent> history,
+                                         Function<String, Optional<AggregateSnapshot>> snapshots,
+                                         java.util.function.Consumer<AggregateSnapshot> saved,
+                                         int snapshotEvery,
+                                         DomainEventRegistry registry,
+                                         ObjectMapper objectMapper) {
+        // Sequence numbers are positions in the list, like an index range scan on the real table
+        OutboxEventRepository events = stub(OutboxEventRepository.class, (method, args) ->
+            method.equals("findHistory") ? history.subList((int) (long) (Long) args[2], history.size()) : null);
+        AggregateSnapshotRepository snapshotRepository = stub(AggregateSnapshotRepository.class, (method, args) -> {
+            if (method.equals("findById")) {
+                return snapshots.apply((String) args[0]);
+            }
+            saved.accept((AggregateSnapshot) args[0]);
+            return args[0];
+        });
+        ApexProperties properties = new ApexProperties();
+        properties.getEventStore().setSnapshotEvery(snapshotEvery);
+        return new EventStore(events, snapshotRepository, registry, properties, objectMapper,
+            new SimpleMeterRegistry());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T stub(Class<T> type, java.util.function.BiFunction<String, Object[], Object> handler) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+            (proxy, method, args) -> handler.apply(method.getName(), args));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(DocumentLoadBenchmark.class.getSimpleName())
+            .build()).run();
+    }
+}
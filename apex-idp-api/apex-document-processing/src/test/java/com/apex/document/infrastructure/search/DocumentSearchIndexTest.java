@@ -0,0 +1,136 @@
+package com.apex.document.infrastructure.search;
+
+import com.apex.core.config.ApexProperties;
+import com.apex.core.exceptions.BusinessValidationException;
+import com.apex.document.application.dto.SearchCriteria;
+import com.apex.document.infrastructure.projection.DocumentProjection;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DocumentSearchIndexTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2026, 3, 2, 9, 0);
+
+    @TempDir
+    Path indexPath;
+
+    private DocumentSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        ApexProperties properties = new ApexProperties();
+        properties.getSearch().setIndexPath(indexPath.toString());
+        index = new DocumentSearchIndex(properties);
+        index.open();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        index.close();
+    }
+
+    @Test
+    void keysetPagesMatchTheOffsetListing() throws Exception {
+        List<DocumentProjection> projections = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            // Only three distinct confidences, so most pages end inside a run of equal sort values
+            projections.add(projection("invoice-" + i + ".pdf", START.plusMinutes(i), 0.5 + (i % 3) * 0.1));
+        }
+        index.index(projections, Map.of());
+        index.refresh();
+
+        SearchCriteria criteria = new SearchCriteria();
+        for (Sort sort : List.of(Sort.unsorted(), Sort.by(Sort.Order.asc("confidenceScore")),
+                Sort.by(Sort.Order.desc("filename")))) {
+            List<String> expected = index.search(criteria, PageRequest.of(0, 25, sort)).ids();
+
+            assertThat(pageThrough(criteria, sort, 10)).as("sorted by %s", sort).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    void relevancePagesFollowTheScore() throws Exception {
+        List<DocumentProjection> projections = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            projections.add(projection(i % 2 == 0 ? "acme-invoice-" + i + ".pdf" : "invoice-" + i + ".pdf",
+                START.plusMinutes(i), 0.9));
+        }
+        index.index(projections, Map.of(UUID.fromString(projections.get(3).getId()), "acme acme acme"));
+        index.refresh();
+
+        SearchCriteria criteria = SearchCriteria.builder().query("acme").build();
+        List<String> expected = index.search(criteria, PageRequest.of(0, 12)).ids();
+
+        assertThat(expected).hasSize(7);
+        assertThat(pageThrough(criteria, Sort.unsorted(), 3)).isEqualTo(expected);
+    }
+
+    @Test
+    void documentsIndexedBetweenPagesAreNotRepeated() throws Exception {
+        List<DocumentProjection> projections = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            projections.add(projection("invoice-" + i + ".pdf", START.plusMinutes(i), 0.9));
+        }
+        index.index(projections, Map.of());
+        index.refresh();
+
+        SearchCriteria criteria = new SearchCriteria();
+        DocumentSearchIndex.KeysetHits first = index.searchAfter(criteria, Sort.unsorted(), null, 3);
+        // Newest first, so a new upload sorts before the cursor and must not shift the next page
+        index.index(List.of(projection("late.pdf", START.plusHours(1), 0.9)), Map.of());
+        index.refresh();
+        DocumentSearchIndex.KeysetHits second = index.searchAfter(criteria, Sort.unsorted(), first.nextKey(), 3);
+
+        assertThat(second.ids()).doesNotContainAnyElementsOf(first.ids()).hasSize(3);
+        assertThat(second.nextKey()).isNull();
+    }
+
+    @Test
+    void rejectsKeyOfAnotherSortOrder() throws Exception {
+        index.index(List.of(projection("a.pdf", START, 0.9), projection("b.pdf", START, 0.9)), Map.of());
+        index.refresh();
+        List<String> key = index.searchAfter(new SearchCriteria(), Sort.unsorted(), null, 1).nextKey();
+
+        assertThatThrownBy(() -> index.searchAfter(new SearchCriteria(),
+                Sort.by("confidenceScore", "filename"), key, 1))
+            .isInstanceOf(BusinessValidationException.class);
+    }
+
+    private List<String> pageThrough(SearchCriteria criteria, Sort sort, int size) {
+        List<String> ids = new ArrayList<>();
+        List<String> after = null;
+        do {
+            DocumentSearchIndex.KeysetHits hits = index.searchAfter(criteria, sort, after, size);
+            ids.addAll(hits.ids());
+            after = hits.nextKey();
+        } while (after != null);
+        return ids;
+    }
+
+    private static DocumentProjection projection(String filename, LocalDateTime uploadedAt, double confidence) {
+        DocumentProjection projection = new DocumentProjection();
+        projection.setId(UUID.randomUUID().toString());
+        projection.setFilename(filename);
+        projection.setDocumentType("INVOICE");
+        projection.setStage("PENDING_VALIDATION");
+        projection.setUserId("clerk");
+        projection.setUploadedAt(uploadedAt);
+        projection.setLastModified(uploadedAt);
+        projection.setConfidenceScore(confidence);
+        return projection;
+    }
+}
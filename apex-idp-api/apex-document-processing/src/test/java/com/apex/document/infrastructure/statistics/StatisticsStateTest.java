@@ -0,0 +1,88 @@
+package com.apex.document.infrastructure.statistics;
+
+import com.apex.document.domain.DocumentType;
+import com.apex.document.domain.ProcessingPriority;
+import com.apex.document.domain.ProcessingStage;
+import com.apex.document.domain.events.DocumentApprovedEvent;
+import com.apex.document.domain.events.DocumentClassifiedEvent;
+import com.apex.document.domain.events.DocumentNeedsValidationEvent;
+import com.apex.document.domain.events.DocumentProcessingErrorEvent;
+import com.apex.document.domain.events.DocumentRejectedEvent;
+import com.apex.document.domain.events.DocumentUploadedEvent;
+import com.apex.document.domain.events.OcrProcessingCompletedEvent;
+import com.apex.document.domain.events.OcrProcessingStartedEvent;
+import com.apex.document.domain.events.ProcessingAttemptFailedEvent;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StatisticsStateTest {
+
+    private static final Instant UPLOADED_AT = Instant.parse("2026-03-02T09:00:00Z");
+
+    private final StatisticsState state = new StatisticsState();
+
+    @Test
+    void approvedDocumentIsCompletedWithItsProcessingTime() {
+        UUID id = uploadAndReview();
+
+        state.apply(new DocumentApprovedEvent(id, 6L, "clerk"), UPLOADED_AT.plusSeconds(90), UPLOADED_AT);
+
+        assertThat(state.getCompleted()).isEqualTo(1);
+        assertThat(state.getValidated()).isEqualTo(1);
+        assertThat(state.getProcessingMillis()).isEqualTo(90_000);
+        assertThat(state.getByStage()).containsEntry(ProcessingStage.COMPLETED, 1L)
+            .containsEntry(ProcessingStage.PENDING_VALIDATION, 0L);
+        assertThat(state.getByType()).containsEntry(DocumentType.INVOICE, 1L);
+        assertThat(state.inProgress()).isZero();
+    }
+
+    @Test
+    void rejectedDocumentLeavesTheValidationBacklog() {
+        UUID id = uploadAndReview();
+        assertThat(state.inProgress()).isEqualTo(1);
+
+        state.apply(new DocumentRejectedEvent(id, 6L, "clerk", "Not an invoice"), UPLOADED_AT.plusSeconds(60), null);
+
+        assertThat(state.getRejected()).isEqualTo(1);
+        assertThat(state.getCompleted()).isZero();
+        assertThat(state.getByStage()).containsEntry(ProcessingStage.PENDING_VALIDATION, 0L);
+        assertThat(state.inProgress()).isZero();
+    }
+
+    @Test
+    void failuresMoveOutOfTheStageTheyHappenedIn() {
+        UUID id = UUID.randomUUID();
+        state.apply(uploaded(id), UPLOADED_AT, null);
+        state.apply(new OcrProcessingStartedEvent(id, 1L), UPLOADED_AT, null);
+        state.apply(new ProcessingAttemptFailedEvent(id, 2L, ProcessingStage.PENDING_OCR, "OCR_FAILED", "timeout",
+            ProcessingStage.OCR_IN_PROGRESS), UPLOADED_AT, null);
+        state.apply(new DocumentProcessingErrorEvent(id, 3L, "OCR_FAILED", "timeout", ProcessingStage.PENDING_OCR),
+            UPLOADED_AT, null);
+
+        assertThat(state.getFailed()).isEqualTo(1);
+        assertThat(state.getByStage()).containsEntry(ProcessingStage.ERROR, 1L)
+            .containsEntry(ProcessingStage.PENDING_OCR, 0L)
+            .containsEntry(ProcessingStage.OCR_IN_PROGRESS, 0L);
+        assertThat(state.inProgress()).isZero();
+    }
+
+    private UUID uploadAndReview() {
+        UUID id = UUID.randomUUID();
+        state.apply(uploaded(id), UPLOADED_AT, null);
+        state.apply(new OcrProcessingStartedEvent(id, 1L), UPLOADED_AT, null);
+        state.apply(new OcrProcessingCompletedEvent(id, 2L, 1, 1200), UPLOADED_AT, null);
+        state.apply(new DocumentClassifiedEvent(id, 3L, DocumentType.INVOICE, new BigDecimal("0.95")), UPLOADED_AT, null);
+        state.apply(new DocumentNeedsValidationEvent(id, 4L, new BigDecimal("0.70")), UPLOADED_AT, null);
+        return id;
+    }
+
+    private static DocumentUploadedEvent uploaded(UUID id) {
+        return new DocumentUploadedEvent(id, 0L, "invoice.pdf", UUID.randomUUID(), 1024L, "application/pdf",
+            "documents/" + id, "hash", ProcessingPriority.NORMAL);
+    }
+}
@@ -77,6 +77,7 @@ CREATE TABLE IF NOT EXISTS document_processing.documents (
     file_size BIGINT NOT NULL,
     mime_type VARCHAR(255),
     storage_path VARCHAR(1000),
+    content_hash VARCHAR(64), -- SHA-256 of the content, computed while it streams into storage
     document_type VARCHAR(100),
     status VARCHAR(50) NOT NULL DEFAULT 'UPLOADED',
     processing_started_at TIMESTAMP WITH TIME ZONE,
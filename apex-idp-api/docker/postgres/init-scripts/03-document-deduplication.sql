@@ -0,0 +1,7 @@
+-- Content-addressed deduplication of uploaded documents
+-- Re-uploads are matched on vendor and SHA-256 of the content at ingest (content_hash, see 01)
+
+ALTER TABLE document_processing.documents ADD COLUMN IF NOT EXISTS duplicate_of UUID;
+
+CREATE INDEX IF NOT EXISTS idx_documents_vendor_content_hash
+    ON document_processing.documents(vendor_id, content_hash);
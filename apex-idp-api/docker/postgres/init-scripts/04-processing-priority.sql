@@ -0,0 +1,3 @@
+-- Upload priority used by the processing pipeline scheduler
+
+ALTER TABLE document_processing.documents ADD COLUMN IF NOT EXISTS priority VARCHAR(20) NOT NULL DEFAULT 'NORMAL';
@@ -0,0 +1,9 @@
+-- audit.domain_events doubles as the transactional outbox
+-- published_at is set once the relay has handed an event to Kafka
+
+ALTER TABLE audit.domain_events ADD COLUMN IF NOT EXISTS published_at TIMESTAMP WITH TIME ZONE;
+
+-- Keeps the relay's claim query cheap no matter how large the event log grows
+CREATE INDEX IF NOT EXISTS idx_domain_events_unpublished
+    ON audit.domain_events(sequence_number)
+    WHERE published_at IS NULL;
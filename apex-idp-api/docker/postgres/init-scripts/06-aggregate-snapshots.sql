@@ -0,0 +1,14 @@
+-- Aggregates are rebuilt from their latest snapshot plus the events recorded after it
+
+CREATE TABLE IF NOT EXISTS audit.aggregate_snapshots (
+    aggregate_id VARCHAR(255) PRIMARY KEY,
+    aggregate_type VARCHAR(255) NOT NULL,
+    sequence_number BIGINT NOT NULL,
+    snapshot_version INTEGER NOT NULL,
+    state JSONB NOT NULL,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Reads the event tail after a snapshot without sorting the aggregate's whole history
+CREATE INDEX IF NOT EXISTS idx_domain_events_aggregate_sequence
+    ON audit.domain_events(aggregate_id, sequence_number);
@@ -0,0 +1,37 @@
+-- Read model for document queries, kept up to date by the projector tailing audit.domain_events
+
+CREATE TABLE IF NOT EXISTS document_processing.document_projections (
+    id VARCHAR(255) PRIMARY KEY,
+    filename VARCHAR(255) NOT NULL,
+    document_type VARCHAR(255) NOT NULL,
+    stage VARCHAR(255) NOT NULL,
+    user_id VARCHAR(255) NOT NULL,
+    uploaded_at TIMESTAMP NOT NULL,
+    last_modified TIMESTAMP,
+    confidence_score DOUBLE PRECISION,
+    storage_path VARCHAR(255),
+    priority VARCHAR(255),
+    is_valid BOOLEAN NOT NULL DEFAULT FALSE,
+    validation_errors VARCHAR(1000)
+);
+
+CREATE TABLE IF NOT EXISTS document_processing.document_extracted_fields (
+    document_id VARCHAR(255) NOT NULL REFERENCES document_processing.document_projections(id),
+    field_name VARCHAR(255) NOT NULL,
+    field_value VARCHAR(255),
+    PRIMARY KEY (document_id, field_name)
+);
+
+CREATE INDEX IF NOT EXISTS idx_document_projections_stage
+    ON document_processing.document_projections(stage, confidence_score);
+
+-- Last audit.domain_events sequence number each projection has fully applied
+CREATE TABLE IF NOT EXISTS document_processing.projection_checkpoints (
+    projection_name VARCHAR(255) PRIMARY KEY,
+    sequence_number BIGINT NOT NULL,
+    updated_at TIMESTAMP WITH TIME ZONE
+);
+
+-- Lets the projector read one aggregate type's events past its checkpoint
+CREATE INDEX IF NOT EXISTS idx_domain_events_type_sequence
+    ON audit.domain_events(aggregate_type, sequence_number);
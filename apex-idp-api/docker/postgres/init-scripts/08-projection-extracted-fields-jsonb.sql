@@ -0,0 +1,20 @@
+-- Extracted fields of the document read model move from a collection table to one JSONB column,
+-- so validation queue and search pages load without a secondary select per row
+
+ALTER TABLE document_processing.document_projections
+    ADD COLUMN IF NOT EXISTS extracted_fields JSONB NOT NULL DEFAULT '{}'::jsonb;
+
+UPDATE document_processing.document_projections dp
+SET extracted_fields = f.fields
+FROM (
+    SELECT document_id, jsonb_object_agg(field_name, field_value) AS fields
+    FROM document_processing.document_extracted_fields
+    GROUP BY document_id
+) f
+WHERE f.document_id = dp.id;
+
+DROP TABLE IF EXISTS document_processing.document_extracted_fields;
+
+-- Serves field filters (extracted_fields @> '{"invoice_number": "INV-1"}')
+CREATE INDEX IF NOT EXISTS idx_document_projections_extracted_fields
+    ON document_processing.document_projections USING GIN (extracted_fields jsonb_path_ops);
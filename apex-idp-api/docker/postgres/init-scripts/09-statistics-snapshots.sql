@@ -0,0 +1,8 @@
+-- Dashboard statistics state, folded from audit.domain_events and persisted periodically
+
+CREATE TABLE IF NOT EXISTS document_processing.statistics_snapshots (
+    name VARCHAR(255) PRIMARY KEY,
+    sequence_number BIGINT NOT NULL,
+    state JSONB NOT NULL,
+    updated_at TIMESTAMP WITH TIME ZONE NOT NULL
+);
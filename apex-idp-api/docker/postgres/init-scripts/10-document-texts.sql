@@ -0,0 +1,7 @@
+-- OCR text of each document, read by the full-text search indexer
+
+CREATE TABLE IF NOT EXISTS document_processing.document_texts (
+    document_id UUID PRIMARY KEY,
+    text TEXT NOT NULL,
+    updated_at TIMESTAMP WITH TIME ZONE NOT NULL
+);
@@ -0,0 +1,12 @@
+-- Composite indexes matching the keyset pagination sort keys, so page N costs the same as page 1
+
+-- Validation queue: stage filter, then (confidence_score, uploaded_at, id) ascending.
+-- Covers everything the older (stage, confidence_score) index served.
+CREATE INDEX IF NOT EXISTS idx_document_projections_validation_queue
+    ON document_processing.document_projections(stage, confidence_score, uploaded_at, id);
+
+DROP INDEX IF EXISTS document_processing.idx_document_projections_stage;
+
+-- Search without the full-text index: newest first, (uploaded_at, id) descending
+CREATE INDEX IF NOT EXISTS idx_document_projections_uploaded
+    ON document_processing.document_projections(uploaded_at, id);
@@ -0,0 +1,3 @@
+-- Oldest documents of a stage, for ranking validation work by age as well as confidence
+CREATE INDEX IF NOT EXISTS idx_document_projections_stage_uploaded
+    ON document_processing.document_projections(stage, uploaded_at, id);
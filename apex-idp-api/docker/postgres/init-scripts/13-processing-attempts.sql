@@ -0,0 +1,11 @@
+-- Bounded pipeline retries and OCR claim leases
+-- A failed stage run is retried until processing_attempts reaches apex.processing.retry-attempts;
+-- documents stuck in OCR_IN_PROGRESS past their lease are released by the recovery sweep
+
+ALTER TABLE document_processing.documents ADD COLUMN IF NOT EXISTS ocr_claimed_at TIMESTAMP WITH TIME ZONE;
+ALTER TABLE document_processing.documents ADD COLUMN IF NOT EXISTS processing_attempts INTEGER NOT NULL DEFAULT 0;
+
+-- ocr_claimed_at is only set while a document is in OCR_IN_PROGRESS, so the open claims are exactly its non-null rows
+CREATE INDEX IF NOT EXISTS idx_documents_ocr_claims
+    ON document_processing.documents(ocr_claimed_at)
+    WHERE ocr_claimed_at IS NOT NULL;
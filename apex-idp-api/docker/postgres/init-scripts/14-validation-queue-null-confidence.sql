@@ -0,0 +1,6 @@
+-- Validation queue orders a missing confidence as zero, so documents without extracted
+-- fields stay in the queue. The keyset index has to use the same expression to serve it.
+CREATE INDEX IF NOT EXISTS idx_document_projections_validation_queue_coalesced
+    ON document_processing.document_projections(stage, COALESCE(confidence_score, 0), uploaded_at, id);
+
+DROP INDEX IF EXISTS document_processing.idx_document_projections_validation_queue;
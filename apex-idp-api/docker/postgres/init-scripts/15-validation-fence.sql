@@ -0,0 +1,4 @@
+-- Fencing token of the last validation lease whose result was written to the document.
+-- An approve or reject only commits if its token is newer, so a reviewer whose lease
+-- lapsed after the Redis check cannot overwrite a later reviewer's result.
+ALTER TABLE document_processing.documents ADD COLUMN IF NOT EXISTS validation_fence BIGINT;